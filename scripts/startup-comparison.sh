@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+# Сравнение времени старта и задержки первого запроса для сборок: обычный jar, AOT, CDS, AOT + CDS
+# и нативный образ (если собран: mvn -Pnative native:compile). Брокер - EmbeddedKafka в отдельном процессе.
+#
+#   scripts/startup-comparison.sh [число запусков каждой сборки, по умолчанию 3]
+#
+# Для каждой сборки выводятся медианы: время старта по логу Spring Boot ("Started ... in"),
+# время от запуска процесса до первого ответа 200 на POST /api/drones и длительность самого первого запроса.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-3}
+APP_PORT=${APP_PORT:-18080}
+JAR=data-collector-0.0.1-SNAPSHOT.jar
+WORK=target/startup-comparison
+BODY='{"model":"DJI Mavic 3","speed":54.5,"latitude":55.75,"longitude":37.61,"flightAltitude":120.0,"detectedBy":"radar-1"}'
+
+mkdir -p "$WORK"
+
+echo "Сборка вариантов (журнал: $WORK/build.log)..."
+{
+    mvn -B -q -DskipTests package
+    rm -rf "$WORK/plain" && mkdir -p "$WORK/plain" && cp "target/$JAR" "$WORK/plain/"
+    mvn -B -q -DskipTests -Pcds package
+    rm -rf "$WORK/cds" && cp -r target/cds "$WORK/cds"
+    mvn -B -q -DskipTests -Paot,cds package
+    rm -rf "$WORK/aot-cds" && cp -r target/cds "$WORK/aot-cds"
+    mvn -B -q -DskipTests test-compile dependency:build-classpath \
+        -Dmdep.outputFile="$WORK/test-classpath.txt" -Dmdep.includeScope=test
+} > "$WORK/build.log" 2>&1
+
+rm -f "$WORK/kafka.log"
+java -cp "target/test-classes:$(cat "$WORK/test-classpath.txt")" \
+    com.example.data_collector.load.EmbeddedKafkaLauncher > "$WORK/kafka.log" 2>&1 &
+KAFKA_PID=$!
+trap 'kill $KAFKA_PID 2>/dev/null || true' EXIT
+until grep -qs EMBEDDED_KAFKA "$WORK/kafka.log"; do
+    kill -0 $KAFKA_PID || { cat "$WORK/kafka.log"; exit 1; }
+    sleep 0.5
+done
+BOOTSTRAP=$(grep EMBEDDED_KAFKA "$WORK/kafka.log" | awk '{print $2}')
+echo "EmbeddedKafka: $BOOTSTRAP"
+
+now_ms() { date +%s%3N; }
+
+# run <каталог> <команда...>: одна попытка; печатает "старт_по_логу_мс до_первого_200_мс первый_запрос_мс"
+run() {
+    local dir=$1; shift
+    local log="$WORK/app.log"
+    local start
+    start=$(now_ms)
+    (cd "$dir" && exec "$@" --server.port="$APP_PORT" --spring.kafka.bootstrap-servers="$BOOTSTRAP") > "$log" 2>&1 &
+    local pid=$!
+    local first_ok="" request_ms=""
+    while [ -z "$first_ok" ]; do
+        kill -0 $pid 2>/dev/null || { tail -20 "$log" >&2; return 1; }
+        if [ $(( $(now_ms) - start )) -gt 120000 ]; then
+            echo "Нет ответа 200 за 120 с, см. $log" >&2
+            kill $pid
+            return 1
+        fi
+        local out
+        out=$(curl -s -o /dev/null -w '%{http_code} %{time_total}' -H 'Content-Type: application/json' \
+            -d "$BODY" "http://localhost:$APP_PORT/api/drones" || true)
+        if [ "${out%% *}" = "200" ]; then
+            first_ok=$(( $(now_ms) - start ))
+            request_ms=$(awk -v t="${out#* }" 'BEGIN { printf "%d", t * 1000 }')
+        else
+            sleep 0.05
+        fi
+    done
+    kill $pid && wait $pid 2>/dev/null || true
+    local started
+    started=$(grep -o 'Started DataCollectorApplication in [0-9.]*' "$log" | awk '{printf "%d", $4 * 1000}')
+    echo "$started $first_ok $request_ms"
+}
+
+median() { sort -n | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }'; }
+
+measure() {
+    local name=$1; shift
+    local results=()
+    for _ in $(seq "$RUNS"); do
+        results+=("$(run "$@")")
+    done
+    printf '%-12s %12s %18s %18s\n' "$name" \
+        "$(printf '%s\n' "${results[@]}" | awk '{print $1}' | median)" \
+        "$(printf '%s\n' "${results[@]}" | awk '{print $2}' | median)" \
+        "$(printf '%s\n' "${results[@]}" | awk '{print $3}' | median)"
+}
+
+printf '%-12s %12s %18s %18s\n' "variant" "started, ms" "first 200 at, ms" "first request, ms"
+measure jar "$WORK/plain" java -jar "$JAR"
+measure cds "$WORK/cds" java -XX:SharedArchiveFile=application.jsa -Xlog:cds=off -jar "$JAR"
+measure aot "$WORK/aot-cds" java -Dspring.aot.enabled=true -jar "$JAR"
+measure aot+cds "$WORK/aot-cds" java -XX:SharedArchiveFile=application.jsa -Xlog:cds=off \
+    -Dspring.aot.enabled=true -jar "$JAR"
+if [ -x target/data-collector ]; then
+    measure native target ./data-collector
+fi
@@ -0,0 +1,82 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.exception.SensorRateLimitedException;
+import com.example.data_collector.service.admission.SensorRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки {@link SensorRateLimiter} на запись при {@code sensors} активных устройствах:
+ * запись в пределах лимита устройства и общего лимита, а также отказ устройству, исчерпавшему запас.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AdmissionBenchmark {
+
+    @Param({"1000", "100000"})
+    private int sensors;
+
+    private SensorRateLimiter perSensor;
+
+    private SensorRateLimiter perSensorAndGlobal;
+
+    private DroneDto[] drones;
+
+    private DroneDto flooding;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("drone.admission.classes.flood.rate", "1")
+                .withProperty("drone.admission.classes.flood.burst", "1")
+                .withProperty("drone.admission.classes.flood.sensors[0]", "flood-radar");
+        // Лимиты, которые бенчмарк не исчерпывает: измеряется только стоимость проверки
+        perSensor = new SensorRateLimiter(environment, 0, 0, 1e9, 1_000_000, sensors * 2, 60_000,
+                new SimpleMeterRegistry());
+        perSensorAndGlobal = new SensorRateLimiter(environment, 1e9, 1_000_000, 1e9, 1_000_000, sensors * 2, 60_000,
+                new SimpleMeterRegistry());
+
+        drones = new DroneDto[Integer.highestOneBit(sensors)];
+        for (int i = 0; i < drones.length; i++) {
+            drones[i] = DroneDto.of("DJI Mavic 3", 54.5, 55.75, 37.61, 120.0, "radar-" + i);
+        }
+        flooding = DroneDto.of("DJI Mavic 3", 54.5, 55.75, 37.61, 120.0, "flood-radar");
+        for (DroneDto drone : drones) {
+            perSensor.tryAdmit(drone);
+            perSensorAndGlobal.tryAdmit(drone);
+        }
+        perSensor.tryAdmit(flooding);
+    }
+
+    @Benchmark
+    public SensorRateLimitedException admitted() {
+        return perSensor.tryAdmit(drones[next++ & (drones.length - 1)]);
+    }
+
+    @Benchmark
+    public SensorRateLimitedException admittedWithGlobalLimit() {
+        return perSensorAndGlobal.tryAdmit(drones[next++ & (drones.length - 1)]);
+    }
+
+    /**
+     * Устройство сверх лимита: отказ создает исключение без стека, но не выбрасывает его.
+     */
+    @Benchmark
+    public SensorRateLimitedException rejected() {
+        return perSensor.tryAdmit(flooding);
+    }
+}
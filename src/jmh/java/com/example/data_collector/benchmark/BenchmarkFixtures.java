@@ -0,0 +1,105 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.InFlightLimiter;
+import com.example.data_collector.kafka.KafkaProducer;
+import com.example.data_collector.kafka.ReconfigurableProducer;
+import com.example.data_collector.kafka.partitioning.PartitionMetrics;
+import com.example.data_collector.kafka.partitioning.PartitionRouter;
+import com.example.data_collector.kafka.partitioning.PartitioningStrategy;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.AcceptedDetectionListener;
+import com.example.data_collector.service.admission.SensorRateLimiter;
+import com.example.data_collector.service.conflation.DetectionConflator;
+import com.example.data_collector.service.dedup.DuplicateDetectionFilter;
+import com.example.data_collector.service.impl.DroneServiceImpl;
+import com.example.data_collector.validation.DroneDtoValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Сборка компонентов приложения без контекста Spring для бенчмарков.
+ * Зависимости связываются так же, как в контексте, вместо Kafka используется {@link StubKafkaTemplate}.
+ */
+final class BenchmarkFixtures {
+
+    static final String TOPIC = "drone-topic";
+
+    private BenchmarkFixtures() {
+    }
+
+    static DroneDto validDrone() {
+        return DroneDto.of("DJI Mavic 3", 54.5, 55.751244, 37.618423, 120.0, "radar-1");
+    }
+
+    static DroneDto invalidDrone() {
+        return DroneDto.of("", 700.0, -100.0, 37.618423, 15_000.0, "radar-1");
+    }
+
+    static MeterRegistry meterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    static DroneServiceImpl droneService(MeterRegistry meterRegistry, IngestStageMetrics stageMetrics) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        return new DroneServiceImpl(
+                kafkaProducer(meterRegistry, stageMetrics),
+                new DroneDtoValidator(),
+                Jackson2ObjectMapperBuilder.json().build(),
+                1000,
+                beanFactory.getBeanProvider(DuplicateDetectionFilter.class),
+                beanFactory.getBeanProvider(DetectionConflator.class),
+                stageMetrics,
+                beanFactory.getBeanProvider(AcceptedDetectionListener.class),
+                beanFactory.getBeanProvider(SensorRateLimiter.class));
+    }
+
+    static KafkaProducer kafkaProducer(MeterRegistry meterRegistry, IngestStageMetrics stageMetrics) {
+        ReconfigurableProducer producer = new ReconfigurableProducer(new StubKafkaTemplate(), TOPIC, 1000);
+        KafkaProducer kafkaProducer = new KafkaProducer();
+        ReflectionTestUtils.setField(kafkaProducer, "topic", TOPIC);
+        ReflectionTestUtils.setField(kafkaProducer, "producer", producer);
+        ReflectionTestUtils.setField(kafkaProducer, "inFlightLimiter", new InFlightLimiter(10_000, 1, false, 0, meterRegistry));
+        ReflectionTestUtils.setField(kafkaProducer, "partitionRouter",
+                new PartitionRouter(PartitioningStrategy.DETECTED_BY, 5, 500, 4, producer));
+        ReflectionTestUtils.setField(kafkaProducer, "partitionMetrics", new PartitionMetrics(meterRegistry));
+        ReflectionTestUtils.setField(kafkaProducer, "stageMetrics", stageMetrics);
+        return kafkaProducer;
+    }
+
+    /**
+     * Шаблон, который сразу подтверждает отправку, не обращаясь к брокеру.
+     */
+    static final class StubKafkaTemplate extends KafkaTemplate<String, DroneDto> {
+
+        private final CompletableFuture<SendResult<String, DroneDto>> acknowledged = CompletableFuture.completedFuture(
+                new SendResult<>(null, new RecordMetadata(new TopicPartition(TOPIC, 0), 0, 0, 0, 0, 0)));
+
+        StubKafkaTemplate() {
+            super(new DefaultKafkaProducerFactory<>(Map.of()));
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, DroneDto>> send(String topic, String key, DroneDto data) {
+            return acknowledged;
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, DroneDto>> send(String topic, Integer partition, String key,
+                                                                    DroneDto data) {
+            return acknowledged;
+        }
+    }
+}
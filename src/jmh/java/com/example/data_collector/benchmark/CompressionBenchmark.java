@@ -0,0 +1,88 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.web.DecompressingInputStream;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.luben.zstd.Zstd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Разбор NDJSON пакета из {@value #RECORDS} записей с распаковкой тела запроса и без нее.
+ * Время выводится в расчете на одну запись; размер сжатого пакета печатается при подготовке.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompressionBenchmark {
+
+    private static final int RECORDS = 1000;
+
+    @Param({"identity", DecompressingInputStream.GZIP, DecompressingInputStream.ZSTD})
+    public String encoding;
+
+    private final ObjectReader droneReader = Jackson2ObjectMapperBuilder.json().build().readerFor(DroneDto.class);
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (int i = 0; i < RECORDS; i++) {
+            // Несколько устройств и смещающиеся координаты, как у реального потока с одного узла
+            DroneDto drone = DroneDto.of("DJI Mavic 3", 40 + i % 30, 55.75 + i * 1e-4, 37.61 + i * 7e-5,
+                    100.0 + i % 50, "radar-" + i % 8);
+            ndjson.write(mapper.writeValueAsBytes(drone));
+            ndjson.write('\n');
+        }
+        byte[] raw = ndjson.toByteArray();
+        body = switch (encoding) {
+            case DecompressingInputStream.GZIP -> gzip(raw);
+            case DecompressingInputStream.ZSTD -> Zstd.compress(raw, 3);
+            default -> raw;
+        };
+        System.out.printf("%n%s: %d байт, %d байт без сжатия (%.1fx)%n",
+                encoding, body.length, raw.length, (double) raw.length / body.length);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void parseBatch(Blackhole blackhole) throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        if (!"identity".equals(encoding)) {
+            in = DecompressingInputStream.open(encoding, in, Long.MAX_VALUE);
+        }
+        try (MappingIterator<DroneDto> records = droneReader.readValues(in)) {
+            while (records.hasNextValue()) {
+                blackhole.consume(records.nextValue());
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.controller.DroneController;
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.AckMode;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.impl.DroneServiceImpl;
+import com.example.data_collector.validation.DroneDtoValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь записи от контроллера до {@code kafkaTemplate.send} с мгновенным подтверждением:
+ * лимит одновременных отправок, маршрутизация по партициям, метрики и ожидание future.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DroneServiceBenchmark {
+
+    private DroneServiceImpl droneService;
+
+    private DroneController droneController;
+
+    private DroneDto droneDto;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = BenchmarkFixtures.meterRegistry();
+        IngestStageMetrics stageMetrics = new IngestStageMetrics(meterRegistry);
+        droneService = BenchmarkFixtures.droneService(meterRegistry, stageMetrics);
+        droneController = new DroneController(droneService, new DroneDtoValidator(), AckMode.SYNC, stageMetrics);
+        droneDto = BenchmarkFixtures.validDrone();
+    }
+
+    @Benchmark
+    public Map<String, String> sendToKafka() {
+        return droneService.sendToKafka(droneDto);
+    }
+
+    @Benchmark
+    public Object controller() {
+        return droneController.receiveDroneData(droneDto);
+    }
+}
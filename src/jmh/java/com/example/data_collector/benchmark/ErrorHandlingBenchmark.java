@@ -0,0 +1,70 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.exception.DroneValidationException;
+import com.example.data_collector.exception.GlobalExceptionHandler;
+import com.example.data_collector.exception.IngestOverloadedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.KafkaException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь ошибки в {@link GlobalExceptionHandler}: построение ответа, логирование и сериализация тела в JSON.
+ * Исключения создаются заранее: их создает фреймворк до вызова обработчика.
+ * Лог пишется в {@code /dev/null} (см. logback-test.xml), так что учитывается форматирование стека, но не вывод.
+ * Для сравнения с успешным путем см. {@code SerializationBenchmark.restJsonWrite}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ErrorHandlingBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(BenchmarkFixtures.meterRegistry(), 60_000);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final DroneValidationException validationException =
+            new DroneValidationException(List.of("Скорость должна быть меньше 600 км/ч"));
+
+    private final HttpMessageNotReadableException notReadableException =
+            new HttpMessageNotReadableException("JSON parse error", new MockHttpInputMessage(new byte[0]));
+
+    private final KafkaException kafkaException = new KafkaException("Таймаут отправки в Kafka");
+
+    private final IngestOverloadedException overloadedException =
+            new IngestOverloadedException("Превышен лимит одновременных отправок", 1);
+
+    @Benchmark
+    public byte[] validationError() throws IOException {
+        return objectMapper.writeValueAsBytes(handler.handleDroneValidationErrors(validationException).getBody());
+    }
+
+    @Benchmark
+    public byte[] invalidRequestBody() throws IOException {
+        return objectMapper.writeValueAsBytes(handler.handleInvalidRequestBody(notReadableException, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] kafkaError() throws IOException {
+        return objectMapper.writeValueAsBytes(handler.handleKafkaErrors(kafkaException).getBody());
+    }
+
+    @Benchmark
+    public byte[] overload() throws IOException {
+        return objectMapper.writeValueAsBytes(handler.handleOverload(overloadedException).getBody());
+    }
+}
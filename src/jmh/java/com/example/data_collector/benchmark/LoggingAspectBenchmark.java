@@ -0,0 +1,48 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.aspect.LoggingAspect;
+import com.example.data_collector.dto.DroneDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость совета {@link LoggingAspect} на одну отправку: выборочный режим по умолчанию
+ * и полный режим {@code drone.logging.debug=true}. Записи поочередно приходят от 64 устройств.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoggingAspectBenchmark {
+
+    private static final int SENSORS = 64;
+
+    @Param({"false", "true"})
+    private boolean debug;
+
+    private LoggingAspect loggingAspect;
+
+    private final DroneDto[] drones = new DroneDto[SENSORS];
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        loggingAspect = new LoggingAspect(debug, 1000, 10_000);
+        for (int i = 0; i < SENSORS; i++) {
+            drones[i] = DroneDto.of("DJI Mavic 3", 54.5, 55.751244, 37.618423, 120.0, "radar-" + i);
+        }
+    }
+
+    @Benchmark
+    public void logKafkaSuccess() {
+        loggingAspect.onDelivered(drones[next++ & (SENSORS - 1)]);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.serialization.DroneDtoBinaryCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация {@link DroneDto}: тело REST запроса (ObjectMapper Spring MVC),
+ * значение Kafka ({@link JsonSerializer} с настройками из application.yaml) и бинарный кодек.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SerializationBenchmark {
+
+    private static final Map<String, Object> KAFKA_JSON_CONFIG = Map.of(
+            JsonSerializer.ADD_TYPE_INFO_HEADERS, true,
+            JsonSerializer.TYPE_MAPPINGS, "DroneDto:com.example.data_collector.dto.DroneDto",
+            JsonDeserializer.TRUSTED_PACKAGES, "com.example.data_collector.dto",
+            // Заголовки с типом переиспользуются между вызовами, поэтому десериализатор не должен их удалять
+            JsonDeserializer.REMOVE_TYPE_INFO_HEADERS, false
+    );
+
+    private final ObjectMapper restMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final JsonSerializer<DroneDto> kafkaSerializer = new JsonSerializer<>();
+
+    private final JsonDeserializer<DroneDto> kafkaDeserializer = new JsonDeserializer<>();
+
+    private DroneDto droneDto;
+
+    private byte[] json;
+
+    private Headers kafkaHeaders;
+
+    private byte[] kafkaJson;
+
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        kafkaSerializer.configure(KAFKA_JSON_CONFIG, false);
+        kafkaDeserializer.configure(KAFKA_JSON_CONFIG, false);
+        droneDto = BenchmarkFixtures.validDrone();
+        json = restMapper.writeValueAsBytes(droneDto);
+        kafkaHeaders = new RecordHeaders();
+        kafkaJson = kafkaSerializer.serialize(BenchmarkFixtures.TOPIC, kafkaHeaders, droneDto);
+        binary = DroneDtoBinaryCodec.encode(droneDto);
+    }
+
+    @TearDown
+    public void tearDown() {
+        kafkaSerializer.close();
+        kafkaDeserializer.close();
+    }
+
+    @Benchmark
+    public DroneDto restJsonRead() throws IOException {
+        return restMapper.readValue(json, DroneDto.class);
+    }
+
+    @Benchmark
+    public byte[] restJsonWrite() throws IOException {
+        return restMapper.writeValueAsBytes(droneDto);
+    }
+
+    @Benchmark
+    public byte[] kafkaJsonSerialize() {
+        return kafkaSerializer.serialize(BenchmarkFixtures.TOPIC, new RecordHeaders(), droneDto);
+    }
+
+    @Benchmark
+    public DroneDto kafkaJsonDeserialize() {
+        return kafkaDeserializer.deserialize(BenchmarkFixtures.TOPIC, kafkaHeaders, kafkaJson);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return DroneDtoBinaryCodec.encode(droneDto);
+    }
+
+    @Benchmark
+    public DroneDto binaryDecode() {
+        return DroneDtoBinaryCodec.decode(ByteBuffer.wrap(binary));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.dto.RecentDetection;
+import com.example.data_collector.service.spatial.SpatialGridIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы {@link SpatialGridIndex} по радиусу и прямоугольнику и обновление положения цели
+ * при {@code points} целях, равномерно распределенных по области 10° x 10° (около 1100 x 650 км).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpatialIndexBenchmark {
+
+    private static final int SENSORS = 1000;
+
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "500000"})
+    private int points;
+
+    @Param({"0.1"})
+    private double cellDegrees;
+
+    private SpatialGridIndex index;
+
+    private double[] queryLatitudes;
+
+    private double[] queryLongitudes;
+
+    private DroneDto[] moves;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new SpatialGridIndex(cellDegrees, TimeUnit.HOURS.toMillis(1), points, new SimpleMeterRegistry());
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < points; i++) {
+            index.onAccepted(drone(i, random), now);
+        }
+
+        queryLatitudes = new double[QUERIES];
+        queryLongitudes = new double[QUERIES];
+        moves = new DroneDto[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryLatitudes[i] = 50 + random.nextDouble(10);
+            queryLongitudes[i] = 30 + random.nextDouble(10);
+            moves[i] = drone(random.nextInt(points), random);
+        }
+    }
+
+    /**
+     * Радиус 10 км: около 220 целей при 500 тыс. целей.
+     */
+    @Benchmark
+    public List<RecentDetection> nearby10Km() {
+        int i = next++ & (QUERIES - 1);
+        return index.nearby(queryLatitudes[i], queryLongitudes[i], 10, 1000);
+    }
+
+    /**
+     * Радиус 50 км: около 5500 целей при 500 тыс. целей, из которых возвращаются 1000 ближайших.
+     */
+    @Benchmark
+    public List<RecentDetection> nearby50Km() {
+        int i = next++ & (QUERIES - 1);
+        return index.nearby(queryLatitudes[i], queryLongitudes[i], 50, 1000);
+    }
+
+    /**
+     * Прямоугольник 0.5° x 0.5°: около 1250 целей при 500 тыс. целей.
+     */
+    @Benchmark
+    public List<RecentDetection> bbox() {
+        int i = next++ & (QUERIES - 1);
+        return index.within(queryLatitudes[i], queryLongitudes[i],
+                queryLatitudes[i] + 0.5, queryLongitudes[i] + 0.5, 10000);
+    }
+
+    @Benchmark
+    public void update() {
+        index.onAccepted(moves[next++ & (QUERIES - 1)], System.currentTimeMillis());
+    }
+
+    private static DroneDto drone(int track, SplittableRandom random) {
+        return DroneDto.of("model-" + track / SENSORS, 100.0, 50 + random.nextDouble(10), 30 + random.nextDouble(10),
+                500.0, "radar-" + track % SENSORS);
+    }
+}
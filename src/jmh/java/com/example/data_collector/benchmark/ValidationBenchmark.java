@@ -0,0 +1,63 @@
+package com.example.data_collector.benchmark;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.validation.DroneDtoValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation (Hibernate Validator) в сравнении с {@link DroneDtoValidator} на корректной и ошибочной записи.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidationBenchmark {
+
+    @Param({"valid", "invalid"})
+    private String record;
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator beanValidator;
+
+    private final DroneDtoValidator droneDtoValidator = new DroneDtoValidator();
+
+    private DroneDto droneDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+        droneDto = "valid".equals(record) ? BenchmarkFixtures.validDrone() : BenchmarkFixtures.invalidDrone();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<DroneDto>> beanValidation() {
+        return beanValidator.validate(droneDto);
+    }
+
+    @Benchmark
+    public List<String> droneDtoValidator() {
+        return droneDtoValidator.validate(droneDto);
+    }
+}
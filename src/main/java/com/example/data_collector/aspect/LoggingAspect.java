@@ -1,35 +1,143 @@
 package com.example.data_collector.aspect;
 
 import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.DeliveredRecordListener;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Аспект для логирования работы REST контроллера и Kafka продюсера.
+ * <p>
+ * Полные сообщения по каждому запросу пишутся только при {@code drone.logging.debug=true}.
+ * В обычном режиме на горячем пути только увеличиваются счетчики по устройствам; в лог попадают
+ * каждая N-я запись ({@code sample-rate}), не чаще одной записи на устройство за {@code sensor-interval-ms},
+ * и периодическая сводка за {@code summary-interval-ms}.
+ * Запись учитывается по подтверждению брокера ({@link DeliveredRecordListener}), а не по возврату из
+ * {@code KafkaProducer}: недоставленные и сохраненные в спул записи отправленными не считаются.
  */
 @Aspect
 @Component
-public class LoggingAspect {
+public class LoggingAspect implements DeliveredRecordListener {
 
     private static final Logger log = LoggerFactory.getLogger(LoggingAspect.class);
 
-    @AfterReturning(pointcut = "execution(* com.example..KafkaProducer.sendDroneData(..)) && args(droneDto)")
-    public void logKafkaSuccess(DroneDto droneDto) {
-        log.info("БПЛА отправлен в Kafka - Модель: '{}', Устройство: '{}'",
-                droneDto.getModel(),
-                droneDto.getDetectedBy());
+    private static final int SUMMARY_TOP_SENSORS = 10;
+
+    private final boolean debug;
+
+    private final long sampleRate;
+
+    private final long sensorIntervalNanos;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, SensorStats> sensors = new ConcurrentHashMap<>();
+
+    private volatile long summaryStartNanos = System.nanoTime();
+
+    public LoggingAspect(@Value("${drone.logging.debug:false}") boolean debug,
+                         @Value("${drone.logging.sample-rate:1000}") long sampleRate,
+                         @Value("${drone.logging.sensor-interval-ms:10000}") long sensorIntervalMs) {
+        this.debug = debug;
+        this.sampleRate = sampleRate;
+        this.sensorIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sensorIntervalMs);
+    }
+
+    @Override
+    public void onDelivered(DroneDto droneDto) {
+        if (debug) {
+            log.info("БПЛА отправлен в Kafka - Модель: '{}', Устройство: '{}'",
+                    droneDto.getModel(),
+                    droneDto.getDetectedBy());
+            return;
+        }
+
+        String detectedBy = droneDto.getDetectedBy();
+        SensorStats stats = sensors.get(detectedBy);
+        if (stats == null) {
+            stats = sensors.computeIfAbsent(detectedBy, key -> new SensorStats());
+        }
+        stats.accepted.increment();
+
+        if (sampleRate > 0 && sequence.incrementAndGet() % sampleRate == 0 && stats.tryLog(sensorIntervalNanos)) {
+            log.info("БПЛА отправлен в Kafka (1 из {}) - Модель: '{}', Устройство: '{}'",
+                    sampleRate,
+                    droneDto.getModel(),
+                    detectedBy);
+        }
     }
 
     @Around("@annotation(org.springframework.web.bind.annotation.PostMapping)")
     public Object logController(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!debug) {
+            return joinPoint.proceed();
+        }
         log.info("Начало обработки запроса БПЛА");
         Object result = joinPoint.proceed();
         log.info("Запрос БПЛА обработан успешно");
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Сводка по устройствам за прошедший интервал; неактивные устройства удаляются из статистики.
+     */
+    @Scheduled(fixedDelayString = "${drone.logging.summary-interval-ms:10000}")
+    public void logSummary() {
+        long now = System.nanoTime();
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(now - summaryStartNanos));
+        summaryStartNanos = now;
+
+        long total = 0;
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        for (Map.Entry<String, SensorStats> entry : sensors.entrySet()) {
+            long accepted = entry.getValue().accepted.sumThenReset();
+            if (accepted == 0) {
+                sensors.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            total += accepted;
+            counts.add(Map.entry(entry.getKey(), accepted));
+        }
+        if (total == 0) {
+            return;
+        }
+
+        counts.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        StringBuilder top = new StringBuilder();
+        for (int i = 0; i < Math.min(SUMMARY_TOP_SENSORS, counts.size()); i++) {
+            if (i > 0) {
+                top.append(", ");
+            }
+            top.append('\'').append(counts.get(i).getKey()).append("': ").append(counts.get(i).getValue());
+        }
+        log.info("За последние {} с отправлено в Kafka {} БПЛА от {} устройств; наиболее активные: {}",
+                seconds, total, counts.size(), top);
+    }
+
+    private static final class SensorStats {
+
+        private final LongAdder accepted = new LongAdder();
+
+        private final AtomicLong lastLoggedNanos = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+
+        private boolean tryLog(long intervalNanos) {
+            long now = System.nanoTime();
+            long last = lastLoggedNanos.get();
+            return now - last >= intervalNanos && lastLoggedNanos.compareAndSet(last, now);
+        }
+    }
+}
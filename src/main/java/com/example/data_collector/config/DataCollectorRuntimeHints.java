@@ -0,0 +1,46 @@
+package com.example.data_collector.config;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.dto.DroneDtoJsonDeserializer;
+import com.example.data_collector.dto.DroneDtoJsonSerializer;
+import com.example.data_collector.dto.ErrorResponse;
+import com.example.data_collector.dto.ErrorResponseJsonSerializer;
+import com.example.data_collector.kafka.priority.PriorityRule;
+import com.example.data_collector.kafka.serialization.DroneDtoBinaryDeserializer;
+import com.example.data_collector.kafka.serialization.DroneDtoBinarySerializer;
+import com.example.data_collector.service.admission.SensorClass;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Подсказки для AOT-обработки и нативного образа о классах, которые используются через рефлексию:
+ * <ul>
+ *     <li>{@link DroneDto} и {@link ErrorResponse} - Jackson читает их аннотации и создает указанные в них
+ *     сериализаторы по конструктору без аргументов;</li>
+ *     <li>сериализаторы значений Kafka - продюсер создает их по имени класса из настроек;</li>
+ *     <li>правила приоритета и классы устройств - связываются из настроек через {@code Binder} в конструкторах
+ *     компонентов, поэтому AOT не находит их сам.</li>
+ * </ul>
+ */
+class DataCollectorRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection()
+                .registerType(DroneDto.class,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(ErrorResponse.class,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        for (Class<?> type : new Class<?>[]{DroneDtoJsonSerializer.class, DroneDtoJsonDeserializer.class,
+                ErrorResponseJsonSerializer.class, JsonSerializer.class,
+                DroneDtoBinarySerializer.class, DroneDtoBinaryDeserializer.class}) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+
+        BindableRuntimeHintsRegistrar.forTypes(PriorityRule.class, SensorClass.class).registerHints(hints, classLoader);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.data_collector.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Подключает {@link DataCollectorRuntimeHints} при AOT-обработке (профили Maven {@code aot} и {@code native}).
+ */
+@Configuration
+@ImportRuntimeHints(DataCollectorRuntimeHints.class)
+public class RuntimeHintsConfig {
+}
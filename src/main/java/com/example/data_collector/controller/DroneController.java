@@ -1,15 +1,22 @@
 package com.example.data_collector.controller;
 
+import com.example.data_collector.dto.BatchResponse;
 import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.AckMode;
+import com.example.data_collector.metrics.IngestStageMetrics;
 import com.example.data_collector.service.DroneService;
-import jakarta.validation.Valid;
+import com.example.data_collector.validation.DroneDtoValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST контроллер для приема данных о БПЛА и отправки в Kafka
@@ -20,13 +27,49 @@ public class DroneController {
 
     private final DroneService droneService;
 
-    public DroneController(DroneService droneService) {
+    private final DroneDtoValidator droneDtoValidator;
+
+    private final AckMode ackMode;
+
+    private final IngestStageMetrics stageMetrics;
+
+    public DroneController(DroneService droneService,
+                           DroneDtoValidator droneDtoValidator,
+                           @Value("${drone.ack-mode:sync}") AckMode ackMode,
+                           IngestStageMetrics stageMetrics) {
         this.droneService = droneService;
+        this.droneDtoValidator = droneDtoValidator;
+        this.ackMode = ackMode;
+        this.stageMetrics = stageMetrics;
     }
 
+    /**
+     * Возвращает {@link ResponseEntity} в режимах SYNC и BUFFERED и {@link CompletableFuture} в режиме ASYNC,
+     * чтобы поток сервлета освобождался до подтверждения брокера.
+     * Запись проверяется {@link DroneDtoValidator} вместо {@code @Valid}.
+     */
     @PostMapping
-    public ResponseEntity<Map<String, String>> receiveDroneData(@Valid @RequestBody DroneDto droneDto) {
-        Map<String, String> response = droneService.sendToKafka(droneDto);
+    public Object receiveDroneData(@RequestBody DroneDto droneDto) {
+        long validateStart = System.nanoTime();
+        try {
+            droneDtoValidator.requireValid(droneDto);
+        } finally {
+            stageMetrics.record(IngestStageMetrics.Stage.VALIDATE, validateStart);
+        }
+        return switch (ackMode) {
+            case SYNC -> ResponseEntity.ok(droneService.sendToKafka(droneDto));
+            case ASYNC -> droneService.sendToKafkaAsync(droneDto).thenApply(ResponseEntity::ok);
+            case BUFFERED -> ResponseEntity.accepted().body(droneService.enqueueToKafka(droneDto));
+        };
+    }
+
+    /**
+     * Принимает пакет записей в виде JSON-массива или NDJSON-потока.
+     * Тело читается потоково, без предварительной загрузки в память.
+     */
+    @PostMapping(path = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchResponse> receiveDroneBatch(InputStream body) throws IOException {
+        BatchResponse response = droneService.sendBatchToKafka(body);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.example.data_collector.controller;
+
+import com.example.data_collector.dto.RecentDetection;
+import com.example.data_collector.service.recent.RecentDetectionsBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST контроллер для чтения недавно принятых записей о БПЛА из {@link RecentDetectionsBuffer}
+ */
+@RestController
+@RequestMapping("/api/drones")
+@ConditionalOnProperty(prefix = "drone.recent", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RecentDetectionsController {
+
+    private final RecentDetectionsBuffer recentDetections;
+
+    private final int maxResults;
+
+    public RecentDetectionsController(RecentDetectionsBuffer recentDetections,
+                                      @Value("${drone.recent.max-results:10000}") int maxResults) {
+        this.recentDetections = recentDetections;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Записи от новых к старым, принятые не раньше {@code since} (ISO-8601, по умолчанию - все в буфере).
+     */
+    @GetMapping("/recent")
+    public List<RecentDetection> recent(@RequestParam(required = false) String detectedBy,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+                                        @RequestParam(defaultValue = "1000") int limit) {
+        long sinceMillis = since == null ? 0 : since.toEpochMilli();
+        return recentDetections.query(detectedBy, sinceMillis, Math.max(0, Math.min(limit, maxResults)));
+    }
+}
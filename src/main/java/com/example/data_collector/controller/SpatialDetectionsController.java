@@ -0,0 +1,97 @@
+package com.example.data_collector.controller;
+
+import com.example.data_collector.dto.RecentDetection;
+import com.example.data_collector.exception.DroneValidationException;
+import com.example.data_collector.service.spatial.SpatialGridIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST контроллер для пространственных запросов к последним положениям БПЛА из {@link SpatialGridIndex}
+ */
+@RestController
+@RequestMapping("/api/drones")
+@ConditionalOnProperty(prefix = "drone.spatial", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SpatialDetectionsController {
+
+    private final SpatialGridIndex spatialIndex;
+
+    private final double maxRadiusKm;
+
+    private final int maxResults;
+
+    public SpatialDetectionsController(SpatialGridIndex spatialIndex,
+                                       @Value("${drone.spatial.max-radius-km:1000}") double maxRadiusKm,
+                                       @Value("${drone.spatial.max-results:10000}") int maxResults) {
+        this.spatialIndex = spatialIndex;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Цели в радиусе {@code radiusKm} от точки, от ближних к дальним.
+     */
+    @GetMapping("/nearby")
+    public List<RecentDetection> nearby(@RequestParam double latitude,
+                                        @RequestParam double longitude,
+                                        @RequestParam double radiusKm,
+                                        @RequestParam(defaultValue = "1000") int limit) {
+        List<String> errors = new ArrayList<>();
+        checkLatitude("latitude", latitude, errors);
+        checkLongitude("longitude", longitude, errors);
+        if (!(radiusKm > 0 && radiusKm <= maxRadiusKm)) {
+            errors.add("Параметр radiusKm должен быть больше 0 и не больше " + maxRadiusKm);
+        }
+        if (!errors.isEmpty()) {
+            throw new DroneValidationException(errors);
+        }
+        return spatialIndex.nearby(latitude, longitude, radiusKm, limit(limit));
+    }
+
+    /**
+     * Цели внутри прямоугольника; {@code minLongitude > maxLongitude} задает прямоугольник,
+     * пересекающий 180-й меридиан.
+     */
+    @GetMapping("/bbox")
+    public List<RecentDetection> bbox(@RequestParam double minLatitude,
+                                      @RequestParam double minLongitude,
+                                      @RequestParam double maxLatitude,
+                                      @RequestParam double maxLongitude,
+                                      @RequestParam(defaultValue = "1000") int limit) {
+        List<String> errors = new ArrayList<>();
+        checkLatitude("minLatitude", minLatitude, errors);
+        checkLatitude("maxLatitude", maxLatitude, errors);
+        checkLongitude("minLongitude", minLongitude, errors);
+        checkLongitude("maxLongitude", maxLongitude, errors);
+        if (minLatitude > maxLatitude) {
+            errors.add("Параметр minLatitude не может быть больше maxLatitude");
+        }
+        if (!errors.isEmpty()) {
+            throw new DroneValidationException(errors);
+        }
+        return spatialIndex.within(minLatitude, minLongitude, maxLatitude, maxLongitude, limit(limit));
+    }
+
+    private int limit(int limit) {
+        return Math.max(0, Math.min(limit, maxResults));
+    }
+
+    private static void checkLatitude(String name, double value, List<String> errors) {
+        if (!(value >= -90.0 && value <= 90.0)) {
+            errors.add("Параметр " + name + " должен быть в диапазоне от -90 до 90");
+        }
+    }
+
+    private static void checkLongitude(String name, double value, List<String> errors) {
+        if (!(value >= -180.0 && value <= 180.0)) {
+            errors.add("Параметр " + name + " должен быть в диапазоне от -180 до 180");
+        }
+    }
+}
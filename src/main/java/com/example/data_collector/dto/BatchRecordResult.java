@@ -0,0 +1,46 @@
+package com.example.data_collector.dto;
+
+import java.util.List;
+
+/**
+ * Результат обработки одной записи пакета.
+ * Содержит порядковый номер записи в пакете, статус и список ошибок для отклонённых записей.
+ */
+public class BatchRecordResult {
+
+    public static final String ACCEPTED = "accepted";
+
+    public static final String REJECTED = "rejected";
+
+    private final int index;
+
+    private final String status;
+
+    private final List<String> errors;
+
+    private BatchRecordResult(int index, String status, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.errors = errors;
+    }
+
+    public static BatchRecordResult accepted(int index) {
+        return new BatchRecordResult(index, ACCEPTED, List.of());
+    }
+
+    public static BatchRecordResult rejected(int index, List<String> errors) {
+        return new BatchRecordResult(index, REJECTED, errors);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
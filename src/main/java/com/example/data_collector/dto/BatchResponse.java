@@ -0,0 +1,40 @@
+package com.example.data_collector.dto;
+
+import java.util.List;
+
+/**
+ * Сводка по пакетной загрузке данных о БПЛА.
+ * Содержит количество принятых и отклонённых записей и результат по каждой записи.
+ */
+public class BatchResponse {
+
+    private final int accepted;
+
+    private final int rejected;
+
+    private final List<BatchRecordResult> results;
+
+    public BatchResponse(List<BatchRecordResult> results) {
+        int acceptedCount = 0;
+        for (BatchRecordResult result : results) {
+            if (BatchRecordResult.ACCEPTED.equals(result.getStatus())) {
+                acceptedCount++;
+            }
+        }
+        this.accepted = acceptedCount;
+        this.rejected = results.size() - acceptedCount;
+        this.results = results;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<BatchRecordResult> getResults() {
+        return results;
+    }
+}
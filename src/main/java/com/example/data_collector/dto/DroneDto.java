@@ -1,49 +1,64 @@
 package com.example.data_collector.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.*;
 
 /**
  * DTO для передачи данных о БПЛА.
  * Содержит информацию о модели, координатах, скорости и устройстве обнаружения.
+ * <p>
+ * Числовые поля хранятся как примитивы, отсутствие значения отмечается битом в маске {@code present},
+ * поэтому геттеры по-прежнему возвращают {@code null} для незаданных полей.
+ * Для горячего пути предназначены методы {@code speedValue()}, {@code hasSpeed()} и аналогичные, не создающие объектов.
+ * В JSON объект читается и пишется потоковыми {@link DroneDtoJsonDeserializer} и {@link DroneDtoJsonSerializer}.
  */
+@JsonSerialize(using = DroneDtoJsonSerializer.class)
+@JsonDeserialize(using = DroneDtoJsonDeserializer.class)
 public class DroneDto {
 
-    @NotBlank(message = "Модель БПЛА не может быть пустой")
+    private static final int SPEED = 1;
+    private static final int LATITUDE = 1 << 1;
+    private static final int LONGITUDE = 1 << 2;
+    private static final int FLIGHT_ALTITUDE = 1 << 3;
+
     private String model;
 
-    @NotNull(message = "Скорость БПЛА обязательна")
-    @Positive(message = "Скорость должна быть положительной")
-    @Max(value = 600, message = "Скорость должна быть меньше 600 км/ч")
-    private Double speed;
+    private double speed;
 
-    @NotNull(message = "Широта обязательна")
-    @DecimalMin(value = "-90.0", message = "Широта не может быть меньше -90")
-    @DecimalMax(value = "90.0", message = "Широта не может быть больше 90")
-    private Double latitude;
+    private double latitude;
 
-    @NotNull(message = "Долгота обязательна")
-    @DecimalMin(value = "-180.0", message = "Долгота не может быть меньше -180")
-    @DecimalMax(value = "180.0", message = "Долгота не может быть больше 180")
-    private Double longitude;
+    private double longitude;
 
-    @NotNull(message = "Высота полёта обязательна")
-    @Positive(message = "Высота полёта должна быть положительной")
-    @Max(value = 10_000, message = "Высота полёта не может быть больше 10 000 метров")
-    private Double flightAltitude;
+    private double flightAltitude;
 
-    @NotBlank(message = "Устройство обнаружения не может быть пустым")
     private String detectedBy;
 
+    private int present;
+
+    public static DroneDto of(String model, double speed, double latitude, double longitude,
+                              double flightAltitude, String detectedBy) {
+        DroneDto droneDto = new DroneDto();
+        droneDto.model = model;
+        droneDto.speed = speed;
+        droneDto.latitude = latitude;
+        droneDto.longitude = longitude;
+        droneDto.flightAltitude = flightAltitude;
+        droneDto.detectedBy = detectedBy;
+        droneDto.present = SPEED | LATITUDE | LONGITUDE | FLIGHT_ALTITUDE;
+        return droneDto;
+    }
+
     public void setLatitude(Double latitude) {
-        this.latitude = latitude;
+        this.latitude = set(LATITUDE, latitude);
     }
 
     public void setFlightAltitude(Double flightAltitude) {
-        this.flightAltitude = flightAltitude;
+        this.flightAltitude = set(FLIGHT_ALTITUDE, flightAltitude);
     }
 
     public void setLongitude(Double longitude) {
-        this.longitude = longitude;
+        this.longitude = set(LONGITUDE, longitude);
     }
 
     public void setDetectedBy(String detectedBy) {
@@ -55,30 +70,117 @@ public class DroneDto {
     }
 
     public void setSpeed(Double speed) {
-        this.speed = speed;
+        this.speed = set(SPEED, speed);
     }
 
+    @NotBlank(message = "Модель БПЛА не может быть пустой")
     public String getModel() {
         return model;
     }
 
+    @NotNull(message = "Скорость БПЛА обязательна")
+    @Positive(message = "Скорость должна быть положительной")
+    @Max(value = 600, message = "Скорость должна быть меньше 600 км/ч")
     public Double getSpeed() {
-        return speed;
+        return hasSpeed() ? speed : null;
     }
 
+    @NotNull(message = "Высота полёта обязательна")
+    @Positive(message = "Высота полёта должна быть положительной")
+    @Max(value = 10_000, message = "Высота полёта не может быть больше 10 000 метров")
     public Double getFlightAltitude() {
-        return flightAltitude;
+        return hasFlightAltitude() ? flightAltitude : null;
     }
 
+    @NotBlank(message = "Устройство обнаружения не может быть пустым")
     public String getDetectedBy() {
         return detectedBy;
     }
 
+    @NotNull(message = "Широта обязательна")
+    @DecimalMin(value = "-90.0", message = "Широта не может быть меньше -90")
+    @DecimalMax(value = "90.0", message = "Широта не может быть больше 90")
     public Double getLatitude() {
-        return latitude;
+        return hasLatitude() ? latitude : null;
     }
 
+    @NotNull(message = "Долгота обязательна")
+    @DecimalMin(value = "-180.0", message = "Долгота не может быть меньше -180")
+    @DecimalMax(value = "180.0", message = "Долгота не может быть больше 180")
     public Double getLongitude() {
+        return hasLongitude() ? longitude : null;
+    }
+
+    public boolean hasSpeed() {
+        return (present & SPEED) != 0;
+    }
+
+    public boolean hasLatitude() {
+        return (present & LATITUDE) != 0;
+    }
+
+    public boolean hasLongitude() {
+        return (present & LONGITUDE) != 0;
+    }
+
+    public boolean hasFlightAltitude() {
+        return (present & FLIGHT_ALTITUDE) != 0;
+    }
+
+    /**
+     * Скорость без упаковки; 0, если поле не задано.
+     */
+    public double speedValue() {
+        return speed;
+    }
+
+    /**
+     * Широта без упаковки; 0, если поле не задано.
+     */
+    public double latitudeValue() {
+        return latitude;
+    }
+
+    /**
+     * Долгота без упаковки; 0, если поле не задано.
+     */
+    public double longitudeValue() {
         return longitude;
     }
-}
\ No newline at end of file
+
+    /**
+     * Высота полёта без упаковки; 0, если поле не задано.
+     */
+    public double flightAltitudeValue() {
+        return flightAltitude;
+    }
+
+    void speedValue(double speed) {
+        this.speed = speed;
+        present |= SPEED;
+    }
+
+    void latitudeValue(double latitude) {
+        this.latitude = latitude;
+        present |= LATITUDE;
+    }
+
+    void longitudeValue(double longitude) {
+        this.longitude = longitude;
+        present |= LONGITUDE;
+    }
+
+    void flightAltitudeValue(double flightAltitude) {
+        this.flightAltitude = flightAltitude;
+        present |= FLIGHT_ALTITUDE;
+    }
+
+    private double set(int bit, Double value) {
+        if (value == null) {
+            present &= ~bit;
+            return 0;
+        }
+        present |= bit;
+        return value;
+    }
+}
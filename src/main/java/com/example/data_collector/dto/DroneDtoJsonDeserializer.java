@@ -0,0 +1,98 @@
+package com.example.data_collector.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberInput;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Потоковый десериализатор {@link DroneDto} без рефлексии и упаковки чисел.
+ * <p>
+ * Повторяет поведение стандартного bean-десериализатора Jackson: неизвестные поля пропускаются,
+ * {@code null} и отсутствующее поле дают незаданное значение, числа в строках допускаются,
+ * а некорректные значения приводят к ошибке формата.
+ */
+public class DroneDtoJsonDeserializer extends StdDeserializer<DroneDto> {
+
+    public DroneDtoJsonDeserializer() {
+        super(DroneDto.class);
+    }
+
+    @Override
+    public DroneDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (DroneDto) ctxt.handleUnexpectedToken(DroneDto.class, p);
+        }
+
+        DroneDto droneDto = new DroneDto();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (name) {
+                case "model" -> droneDto.setModel(readString(p, ctxt, value));
+                case "detectedBy" -> droneDto.setDetectedBy(readString(p, ctxt, value));
+                case "speed" -> {
+                    if (value != JsonToken.VALUE_NULL && !isEmptyString(p, value)) {
+                        droneDto.speedValue(readDouble(p, ctxt, value));
+                    }
+                }
+                case "latitude" -> {
+                    if (value != JsonToken.VALUE_NULL && !isEmptyString(p, value)) {
+                        droneDto.latitudeValue(readDouble(p, ctxt, value));
+                    }
+                }
+                case "longitude" -> {
+                    if (value != JsonToken.VALUE_NULL && !isEmptyString(p, value)) {
+                        droneDto.longitudeValue(readDouble(p, ctxt, value));
+                    }
+                }
+                case "flightAltitude" -> {
+                    if (value != JsonToken.VALUE_NULL && !isEmptyString(p, value)) {
+                        droneDto.flightAltitudeValue(readDouble(p, ctxt, value));
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return droneDto;
+    }
+
+    private static double readDouble(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                return p.getDoubleValue();
+            case VALUE_NUMBER_FLOAT:
+                // Разбор прямо из буфера парсера, без промежуточной строки
+                return NumberInput.parseDouble(p.getTextCharacters(), p.getTextOffset(), p.getTextLength(), true);
+            case VALUE_STRING:
+                String text = p.getText().trim();
+                try {
+                    return Double.parseDouble(text);
+                } catch (NumberFormatException ex) {
+                    return (Double) ctxt.handleWeirdStringValue(Double.class, text, "not a valid `Double` value");
+                }
+            default:
+                return (Double) ctxt.handleUnexpectedToken(Double.class, p);
+        }
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getText();
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+
+    private static boolean isEmptyString(JsonParser p, JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_STRING && p.getText().isBlank();
+    }
+}
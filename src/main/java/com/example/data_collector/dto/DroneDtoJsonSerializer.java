@@ -0,0 +1,50 @@
+package com.example.data_collector.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Потоковый сериализатор {@link DroneDto}: тот же набор и порядок полей, что у стандартного bean-сериализатора,
+ * без рефлексии и упаковки чисел. Незаданные поля записываются как {@code null}.
+ */
+public class DroneDtoJsonSerializer extends StdSerializer<DroneDto> {
+
+    private static final SerializedString MODEL = new SerializedString("model");
+    private static final SerializedString SPEED = new SerializedString("speed");
+    private static final SerializedString LATITUDE = new SerializedString("latitude");
+    private static final SerializedString LONGITUDE = new SerializedString("longitude");
+    private static final SerializedString FLIGHT_ALTITUDE = new SerializedString("flightAltitude");
+    private static final SerializedString DETECTED_BY = new SerializedString("detectedBy");
+
+    public DroneDtoJsonSerializer() {
+        super(DroneDto.class);
+    }
+
+    @Override
+    public void serialize(DroneDto value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(MODEL);
+        gen.writeString(value.getModel());
+        writeNumber(gen, SPEED, value.hasSpeed(), value.speedValue());
+        writeNumber(gen, LATITUDE, value.hasLatitude(), value.latitudeValue());
+        writeNumber(gen, LONGITUDE, value.hasLongitude(), value.longitudeValue());
+        writeNumber(gen, FLIGHT_ALTITUDE, value.hasFlightAltitude(), value.flightAltitudeValue());
+        gen.writeFieldName(DETECTED_BY);
+        gen.writeString(value.getDetectedBy());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializedString name, boolean present, double value)
+            throws IOException {
+        gen.writeFieldName(name);
+        if (present) {
+            gen.writeNumber(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.data_collector.dto;
 
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Стандартизированный формат ответа об ошибках.
  * Содержит UUID ошибки и временную метку для отслеживания.
+ * UUID нужен только для поиска ответа в логах, поэтому генерируется из {@link ThreadLocalRandom}, а не SecureRandom.
+ * Постоянные тексты можно передать заранее экранированными ({@link SerializableString}), чтобы не кодировать их
+ * при каждом ответе.
  */
+@JsonSerialize(using = ErrorResponseJsonSerializer.class)
 public class ErrorResponse {
 
+    private static final Clock CLOCK = Clock.systemDefaultZone();
+
     private String error;
 
     private final UUID uuid;
@@ -17,17 +28,33 @@ public class ErrorResponse {
 
     private String message;
 
+    private SerializableString serializedError;
+
+    private SerializableString serializedMessage;
+
     public ErrorResponse(){
-        this.uuid = UUID.randomUUID();
-        this.time = LocalDateTime.now();
+        this.uuid = randomUuid();
+        this.time = LocalDateTime.now(CLOCK);
     }
 
     public void setError(String error) {
         this.error = error;
+        this.serializedError = null;
+    }
+
+    public void setError(SerializableString error) {
+        this.error = error.getValue();
+        this.serializedError = error;
     }
 
     public void setMessage(String message) {
         this.message = message;
+        this.serializedMessage = null;
+    }
+
+    public void setMessage(SerializableString message) {
+        this.message = message.getValue();
+        this.serializedMessage = message;
     }
 
     public String getError() {
@@ -45,4 +72,22 @@ public class ErrorResponse {
     public LocalDateTime getTime() {
         return time;
     }
-}
\ No newline at end of file
+
+    SerializableString getSerializedError() {
+        return serializedError;
+    }
+
+    SerializableString getSerializedMessage() {
+        return serializedMessage;
+    }
+
+    /**
+     * Случайный UUID версии 4 (RFC 4122) из некриптографического генератора.
+     */
+    static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
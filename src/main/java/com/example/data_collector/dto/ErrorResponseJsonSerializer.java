@@ -0,0 +1,51 @@
+package com.example.data_collector.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Сериализатор {@link ErrorResponse} с тем же набором и порядком полей, что у стандартного bean-сериализатора.
+ * Постоянные тексты, переданные в {@link ErrorResponse} как {@link SerializableString}, записываются
+ * готовым экранированным представлением; остальные (с данными запроса) - обычным образом, без кэширования.
+ * UUID и время сериализуются стандартными сериализаторами, чтобы формат соответствовал настройкам ObjectMapper.
+ */
+public class ErrorResponseJsonSerializer extends StdSerializer<ErrorResponse> {
+
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString UUID = new SerializedString("uuid");
+    private static final SerializedString TIME = new SerializedString("time");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+
+    public ErrorResponseJsonSerializer() {
+        super(ErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(ERROR);
+        writeText(gen, value.getSerializedError(), value.getError());
+        gen.writeFieldName(UUID);
+        provider.defaultSerializeValue(value.getUuid(), gen);
+        gen.writeFieldName(TIME);
+        provider.defaultSerializeValue(value.getTime(), gen);
+        gen.writeFieldName(MESSAGE);
+        writeText(gen, value.getSerializedMessage(), value.getMessage());
+        gen.writeEndObject();
+    }
+
+    private static void writeText(JsonGenerator gen, SerializableString serialized, String text) throws IOException {
+        if (serialized != null) {
+            gen.writeString(serialized);
+        } else if (text != null) {
+            gen.writeString(text);
+        } else {
+            gen.writeNull();
+        }
+    }
+}
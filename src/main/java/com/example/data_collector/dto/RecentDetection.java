@@ -0,0 +1,62 @@
+package com.example.data_collector.dto;
+
+import java.time.Instant;
+
+/**
+ * Запись о БПЛА из буфера недавних обнаружений вместе со временем приема.
+ */
+public class RecentDetection {
+
+    private final String model;
+
+    private final double speed;
+
+    private final double latitude;
+
+    private final double longitude;
+
+    private final double flightAltitude;
+
+    private final String detectedBy;
+
+    private final Instant time;
+
+    public RecentDetection(String model, double speed, double latitude, double longitude, double flightAltitude,
+                           String detectedBy, Instant time) {
+        this.model = model;
+        this.speed = speed;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.flightAltitude = flightAltitude;
+        this.detectedBy = detectedBy;
+        this.time = time;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getFlightAltitude() {
+        return flightAltitude;
+    }
+
+    public String getDetectedBy() {
+        return detectedBy;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.data_collector.exception;
+
+import java.util.List;
+
+/**
+ * Исключение при нарушении ограничений {@link com.example.data_collector.dto.DroneDto}
+ * быстрым валидатором. Обрабатывается так же, как ошибки Bean Validation.
+ * Стек вызовов не заполняется: исключение описывает ошибку данных, а не кода.
+ */
+public class DroneValidationException extends RuntimeException {
+
+    private final List<String> errors;
+
+    public DroneValidationException(List<String> errors) {
+        super(String.join("; ", errors), null, false, false);
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -1,29 +1,105 @@
 package com.example.data_collector.exception;
 
 import com.example.data_collector.dto.ErrorResponse;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import org.apache.kafka.common.errors.SerializationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.kafka.KafkaException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.List;
 
 /**
  * Обработчик исключений для REST API.
  * Обеспечивает единообразный формат ответов при ошибках валидации, Kafka и сервера.
+ * <p>
+ * Повторяющиеся ошибки пишутся в лог не чаще раза за {@code drone.errors.log-interval-ms} для каждого типа
+ * и источника (см. {@link ThrottledExceptionLogger}), остальные - только на уровне DEBUG,
+ * чтобы поток некорректных запросов не превращался в поток стеков в логе.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    // Постоянные тексты ответов экранируются один раз; тексты с данными запроса записываются как есть
+    private static final SerializedString VALIDATION_ERROR = new SerializedString("Ошибка валидации входных данных");
+    private static final SerializedString SERIALIZATION_ERROR = new SerializedString("Ошибка преобразования данных");
+    private static final SerializedString KAFKA_ERROR = new SerializedString("Ошибка обработки сообщения");
+    private static final SerializedString OVERLOAD_ERROR = new SerializedString("Превышена допустимая нагрузка");
+    private static final SerializedString RATE_LIMIT_ERROR =
+            new SerializedString("Превышена допустимая частота записей");
+    private static final SerializedString BAD_REQUEST_ERROR = new SerializedString("Некорректный формат запроса");
+    private static final SerializedString PAYLOAD_TOO_LARGE_ERROR = new SerializedString("Слишком большой запрос");
+    private static final SerializedString UNSUPPORTED_ENCODING_ERROR =
+            new SerializedString("Неподдерживаемое сжатие запроса");
+    private static final SerializedString BAD_PARAMETER_ERROR = new SerializedString("Некорректный параметр запроса");
+    private static final SerializedString INTERNAL_ERROR = new SerializedString("Внутренняя ошибка на сервере");
+
+    private static final SerializedString SERIALIZATION_MESSAGE =
+            new SerializedString("Не удалось обработать передаваемые данные. Проверьте формат и повторите попытку");
+    private static final SerializedString KAFKA_MESSAGE =
+            new SerializedString("Временные проблемы с обработкой данных. Пожалуйста, повторите запрос позже");
+    private static final SerializedString BAD_REQUEST_MESSAGE =
+            new SerializedString("Запрос содержит синтаксические ошибки или не соответствует ожидаемому формату");
+    private static final SerializedString DECODING_MESSAGE =
+            new SerializedString("Не удалось распаковать тело запроса в соответствии с Content-Encoding");
+    private static final SerializedString INTERNAL_MESSAGE = new SerializedString("Произошла непредвиденная ошибка");
+
+    private final ThrottledExceptionLogger throttledLogger;
+
+    private final Counter validationErrors;
+
+    private final Counter serializationErrors;
+
+    private final Counter kafkaErrors;
+
+    private final Counter overloadErrors;
+
+    private final Counter rateLimitErrors;
+
+    private final Counter badRequestErrors;
+
+    private final Counter payloadErrors;
+
+    private final Counter internalErrors;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry,
+                                  @Value("${drone.errors.log-interval-ms:60000}") long logIntervalMs) {
+        this.throttledLogger = new ThrottledExceptionLogger(logIntervalMs);
+        this.validationErrors = errorCounter(meterRegistry, "validation");
+        this.serializationErrors = errorCounter(meterRegistry, "serialization");
+        this.kafkaErrors = errorCounter(meterRegistry, "kafka");
+        this.overloadErrors = errorCounter(meterRegistry, "overload");
+        this.rateLimitErrors = errorCounter(meterRegistry, "rate-limit");
+        this.badRequestErrors = errorCounter(meterRegistry, "bad-request");
+        this.payloadErrors = errorCounter(meterRegistry, "payload");
+        this.internalErrors = errorCounter(meterRegistry, "internal");
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("drone.api.errors")
+                .tag("type", type)
+                .description("Ответы с ошибкой по типу обработчика")
+                .register(meterRegistry);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         List<String> errors = ex.getBindingResult()
@@ -32,52 +108,169 @@ public class GlobalExceptionHandler {
                 .map(DefaultMessageSourceResolvable::getDefaultMessage)
                 .toList();
 
+        return validationErrorResponse(errors, ex);
+    }
+
+    @ExceptionHandler(DroneValidationException.class)
+    public ResponseEntity<ErrorResponse> handleDroneValidationErrors(DroneValidationException ex) {
+        return validationErrorResponse(ex.getErrors(), ex);
+    }
+
+    private ResponseEntity<ErrorResponse> validationErrorResponse(List<String> errors, Exception ex) {
+        validationErrors.increment();
         ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Ошибка валидации входных данных");
+        errorResponse.setError(VALIDATION_ERROR);
         String errorString = String.join("; ", errors);
         errorResponse.setMessage("Проверьте корректность передаваемых параметров: " + errorString);
 
-        log.info("Ошибки валидации входных данных: {}", errorString);
+        logThrottled(Level.INFO, "Ошибки валидации входных данных", errorString, ex, null, false);
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(SerializationException.class)
     public ResponseEntity<ErrorResponse> handleSerializationException(SerializationException ex) {
+        serializationErrors.increment();
         ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Ошибка преобразования данных");
-        errorResponse.setMessage("Не удалось обработать передаваемые данные. Проверьте формат и повторите попытку");
+        errorResponse.setError(SERIALIZATION_ERROR);
+        errorResponse.setMessage(SERIALIZATION_MESSAGE);
 
-        log.info("Ошибка сериализации данных: {}", ex.getMessage(), ex);
+        logThrottled(Level.INFO, "Ошибка сериализации данных", ex.getMessage(), ex, null, true);
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(KafkaException.class)
     public ResponseEntity<ErrorResponse> handleKafkaErrors(KafkaException ex) {
+        kafkaErrors.increment();
         ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Ошибка обработки сообщения");
-        errorResponse.setMessage("Временные проблемы с обработкой данных. Пожалуйста, повторите запрос позже");
+        errorResponse.setError(KAFKA_ERROR);
+        errorResponse.setMessage(KAFKA_MESSAGE);
 
-        log.error("Ошибка Kafka: {}", ex.getMessage(), ex);
+        logThrottled(Level.ERROR, "Ошибка Kafka", ex.getMessage(), ex, null, true);
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(IngestOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverload(IngestOverloadedException ex) {
+        overloadErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setError(OVERLOAD_ERROR);
+        errorResponse.setMessage("Сервис перегружен. Повторите запрос через " + ex.getRetryAfterSeconds() + " с");
+
+        logThrottled(Level.WARN, "Запрос отклонён из-за перегрузки", ex.getMessage(), ex, null, false);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(SensorRateLimitedException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimited(SensorRateLimitedException ex) {
+        rateLimitErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setError(RATE_LIMIT_ERROR);
+        errorResponse.setMessage(ex.getMessage() + ". Повторите запрос через " + ex.getRetryAfterSeconds() + " с");
+
+        logThrottled(Level.INFO, "Запрос отклонён ограничением частоты", ex.getMessage(), ex, null, false);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidRequestBody(HttpMessageNotReadableException ex) {
+    public ResponseEntity<ErrorResponse> handleInvalidRequestBody(HttpMessageNotReadableException ex,
+                                                                  HttpServletRequest request) {
+        badRequestErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setError(BAD_REQUEST_ERROR);
+        errorResponse.setMessage(BAD_REQUEST_MESSAGE);
+
+        logThrottled(Level.WARN, "Получен некорректный запрос", ex.getMessage(), ex, request.getRemoteAddr(), true);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RequestDecodingException.class)
+    public ResponseEntity<ErrorResponse> handleRequestDecoding(RequestDecodingException ex, HttpServletRequest request) {
+        badRequestErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setError(BAD_REQUEST_ERROR);
+        errorResponse.setMessage(DECODING_MESSAGE);
+
+        logThrottled(Level.WARN, "Получено поврежденное сжатое тело запроса", ex.getMessage(), ex,
+                request.getRemoteAddr(), false);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handleBodyTooLarge(RequestBodyTooLargeException ex, HttpServletRequest request) {
+        payloadErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setError(PAYLOAD_TOO_LARGE_ERROR);
+        errorResponse.setMessage(ex.getMessage());
+
+        logThrottled(Level.WARN, "Запрос отклонён по размеру", ex.getMessage(), ex, request.getRemoteAddr(), false);
+        return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(UnsupportedContentEncodingException.class)
+    public ResponseEntity<ErrorResponse> handleUnsupportedEncoding(UnsupportedContentEncodingException ex) {
+        payloadErrors.increment();
         ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Некорректный формат запроса");
-        errorResponse.setMessage("Запрос содержит синтаксические ошибки или не соответствует ожидаемому формату");
+        errorResponse.setError(UNSUPPORTED_ENCODING_ERROR);
+        errorResponse.setMessage("Content-Encoding '" + ex.getEncoding() + "' не поддерживается, допустимы gzip и zstd");
+
+        logThrottled(Level.INFO, "Неподдерживаемый Content-Encoding", ex.getEncoding(), ex, null, false);
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd")
+                .body(errorResponse);
+    }
 
-        log.warn("Получен некорректный запрос: {}", ex.getMessage(), ex);
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidParameter(MethodArgumentTypeMismatchException ex) {
+        badRequestErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setError(BAD_PARAMETER_ERROR);
+        errorResponse.setMessage("Недопустимое значение параметра '" + ex.getName() + "'");
+
+        logThrottled(Level.INFO, "Некорректный параметр запроса", ex.getName(), ex, null, false);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingServletRequestParameterException ex) {
+        badRequestErrors.increment();
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setError(BAD_PARAMETER_ERROR);
+        errorResponse.setMessage("Не указан обязательный параметр '" + ex.getParameterName() + "'");
+
+        logThrottled(Level.INFO, "Не указан параметр запроса", ex.getParameterName(), ex, null, false);
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAll(Exception ex) {
+        internalErrors.increment();
         ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setError("Внутренняя ошибка на сервере");
-        errorResponse.setMessage("Произошла непредвиденная ошибка");
+        errorResponse.setError(INTERNAL_ERROR);
+        errorResponse.setMessage(INTERNAL_MESSAGE);
 
         log.error("Внутренняя ошибка на сервере: {}", ex.getMessage());
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
\ No newline at end of file
+
+    private void logThrottled(Level level, String title, String detail, Throwable ex, String source,
+                              boolean withStackTrace) {
+        long suppressed = throttledLogger.tryLog(ex, source);
+        if (suppressed < 0) {
+            log.debug("{}: {}", title, detail);
+            return;
+        }
+        LoggingEventBuilder event = log.atLevel(level);
+        if (withStackTrace) {
+            event = event.setCause(ex);
+        }
+        if (suppressed > 0) {
+            event.log("{}: {} (похожих ошибок с прошлой записи: {})", title, detail, suppressed);
+        } else {
+            event.log("{}: {}", title, detail);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.data_collector.exception;
+
+/**
+ * Исключение при исчерпании допустимой нагрузки на прием данных.
+ * Обрабатывается с кодом 429 и заголовком Retry-After.
+ */
+public class IngestOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IngestOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public IngestOverloadedException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Для отказов, ожидаемых в штатной работе: стек вызовов не заполняется.
+     */
+    protected IngestOverloadedException(String message, long retryAfterSeconds, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.data_collector.exception;
+
+/**
+ * Распакованное тело запроса превысило {@code drone.compression.max-decompressed-bytes}.
+ * Обрабатывается с кодом 413. Стек вызовов не заполняется.
+ */
+public class RequestBodyTooLargeException extends RuntimeException {
+
+    private final long maxBytes;
+
+    public RequestBodyTooLargeException(long maxBytes) {
+        super("Размер распакованного тела запроса превышает " + maxBytes + " байт", null, false, false);
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.data_collector.exception;
+
+/**
+ * Сжатое тело запроса повреждено или не соответствует заголовку {@code Content-Encoding}.
+ * Обрабатывается с кодом 400. Стек вызовов не заполняется.
+ */
+public class RequestDecodingException extends RuntimeException {
+
+    public RequestDecodingException(String encoding, Throwable cause) {
+        super("Не удалось распаковать тело запроса (" + encoding + "): " + cause.getMessage(), cause, false, false);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.data_collector.exception;
+
+/**
+ * Запись отклонена ограничением частоты приема: устройства обнаружения или сервиса в целом.
+ * Обрабатывается с кодом 429 и заголовком Retry-After. Стек вызовов не заполняется:
+ * поток записей сверх лимита - штатная ситуация, а не ошибка кода.
+ */
+public class SensorRateLimitedException extends IngestOverloadedException {
+
+    private final String sensor;
+
+    /**
+     * @param sensor устройство обнаружения, превысившее свой лимит, или {@code null} для общего лимита
+     */
+    public SensorRateLimitedException(String sensor, long retryAfterSeconds) {
+        super(sensor == null
+                ? "Превышена общая частота приема записей"
+                : "Превышена частота записей от устройства '" + sensor + "'", retryAfterSeconds, false);
+        this.sensor = sensor;
+    }
+
+    public String getSensor() {
+        return sensor;
+    }
+}
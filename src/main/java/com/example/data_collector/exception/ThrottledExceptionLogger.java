@@ -0,0 +1,104 @@
+package com.example.data_collector.exception;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение частоты вывода одинаковых ошибок в лог.
+ * Ошибки группируются по типу исключения, типу его первопричины и источнику (например, адресу клиента).
+ * В каждой группе выводится не более одной записи за интервал; остальные случаи подсчитываются
+ * и сообщаются вместе со следующей выведенной записью. Число групп ограничено: при заполнении удаляются
+ * группы без ошибок в течение интервала (не чаще раза за интервал), а если их нет - новые источники
+ * объединяются в группу по типу исключения.
+ */
+final class ThrottledExceptionLogger {
+
+    private static final int MAX_GROUPS = 1024;
+
+    private final long intervalNanos;
+
+    private final Map<Group, Window> windows = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextEvictionNanos;
+
+    ThrottledExceptionLogger(long intervalMs) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.nextEvictionNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @return число подавленных с прошлого вывода случаев в группе или {@code -1}, если этот случай выводить не нужно
+     */
+    long tryLog(Throwable ex, String source) {
+        return tryLog(ex, source, System.nanoTime());
+    }
+
+    long tryLog(Throwable ex, String source, long nowNanos) {
+        Group group = new Group(ex.getClass(), rootCause(ex).getClass(), source);
+        Window window = windows.get(group);
+        if (window == null) {
+            if (windows.size() >= MAX_GROUPS && (!evictIdle(nowNanos) || windows.size() >= MAX_GROUPS)) {
+                group = new Group(ex.getClass(), null, null);
+            }
+            window = windows.computeIfAbsent(group, key -> new Window(nowNanos));
+        }
+        return window.tryLog(nowNanos, intervalNanos);
+    }
+
+    /**
+     * Удаляет группы, в которых не было ошибок дольше интервала: их следующий случай все равно был бы выведен.
+     *
+     * @return {@code false}, если очистка уже выполнялась в текущем интервале
+     */
+    private boolean evictIdle(long nowNanos) {
+        long next = nextEvictionNanos.get();
+        if (nowNanos - next < 0 || !nextEvictionNanos.compareAndSet(next, nowNanos + intervalNanos)) {
+            return false;
+        }
+        windows.values().removeIf(window -> window.idle(nowNanos, intervalNanos));
+        return true;
+    }
+
+    int size() {
+        return windows.size();
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private record Group(Class<?> type, Class<?> rootCauseType, String source) {
+    }
+
+    private static final class Window {
+
+        private final AtomicLong nextLogNanos;
+
+        private final LongAdder suppressed = new LongAdder();
+
+        private Window(long nowNanos) {
+            this.nextLogNanos = new AtomicLong(nowNanos);
+        }
+
+        private long tryLog(long nowNanos, long intervalNanos) {
+            long next = nextLogNanos.get();
+            if (nowNanos - next >= 0 && nextLogNanos.compareAndSet(next, nowNanos + intervalNanos)) {
+                return suppressed.sumThenReset();
+            }
+            suppressed.increment();
+            return -1;
+        }
+
+        private boolean idle(long nowNanos, long intervalNanos) {
+            // Любой случай после nextLogNanos был бы выведен и сдвинул отметку
+            return nowNanos - nextLogNanos.get() >= intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.data_collector.exception;
+
+/**
+ * Тело запроса сжато неподдерживаемым способом. Обрабатывается с кодом 415 и заголовком {@code Accept-Encoding}.
+ */
+public class UnsupportedContentEncodingException extends RuntimeException {
+
+    private final String encoding;
+
+    public UnsupportedContentEncodingException(String encoding) {
+        super("Неподдерживаемый Content-Encoding: " + encoding, null, false, false);
+        this.encoding = encoding;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+}
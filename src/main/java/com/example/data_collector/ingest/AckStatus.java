@@ -0,0 +1,52 @@
+package com.example.data_collector.ingest;
+
+import com.example.data_collector.exception.IngestOverloadedException;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Исход обработки записи, передаваемый клиенту бинарного протокола в подтверждении.
+ */
+public enum AckStatus {
+
+    /** Запись отправлена в Kafka (или поглощена дедупликацией/прореживанием) */
+    ACCEPTED(0),
+
+    /** Запись не прошла валидацию */
+    INVALID(1),
+
+    /** Запись не удалось декодировать */
+    MALFORMED(2),
+
+    /** Превышен лимит одновременных отправок; запись можно повторить позже */
+    OVERLOADED(3),
+
+    /** Ошибка отправки в Kafka */
+    FAILED(4);
+
+    private static final AckStatus[] BY_CODE = values();
+
+    private final byte code;
+
+    AckStatus(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static AckStatus fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Неизвестный код подтверждения: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    static AckStatus of(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        return cause instanceof IngestOverloadedException ? OVERLOADED : FAILED;
+    }
+}
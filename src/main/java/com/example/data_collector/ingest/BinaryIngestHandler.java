@@ -0,0 +1,93 @@
+package com.example.data_collector.ingest;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.serialization.DroneDtoBinaryCodec;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.DroneService;
+import com.example.data_collector.validation.DroneDtoValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Обработка одной записи бинарного протокола тем же конвейером, что и в {@code DroneController}:
+ * декодирование, {@link DroneDtoValidator} и асинхронная отправка через {@link DroneService}.
+ * Ошибки не выбрасываются, а превращаются в {@link AckStatus} для подтверждения клиенту.
+ */
+final class BinaryIngestHandler {
+
+    private final DroneService droneService;
+
+    private final DroneDtoValidator validator;
+
+    private final IngestStageMetrics stageMetrics;
+
+    private final Counter[] records;
+
+    private final CompletableFuture<AckStatus>[] completed;
+
+    @SuppressWarnings("unchecked")
+    BinaryIngestHandler(String transport, DroneService droneService, DroneDtoValidator validator,
+                        IngestStageMetrics stageMetrics, MeterRegistry meterRegistry) {
+        this.droneService = droneService;
+        this.validator = validator;
+        this.stageMetrics = stageMetrics;
+
+        AckStatus[] statuses = AckStatus.values();
+        this.records = new Counter[statuses.length];
+        this.completed = new CompletableFuture[statuses.length];
+        for (AckStatus status : statuses) {
+            records[status.ordinal()] = Counter.builder("drone.ingest.binary.records")
+                    .tag("transport", transport)
+                    .tag("status", status.name().toLowerCase())
+                    .description("Записи, принятые по бинарному протоколу, по исходу обработки")
+                    .register(meterRegistry);
+            completed[status.ordinal()] = CompletableFuture.completedFuture(status);
+        }
+    }
+
+    /**
+     * Обрабатывает запись; {@code record} читается только внутри вызова.
+     * Future всегда завершается успешно - исходом обработки.
+     */
+    CompletableFuture<AckStatus> ingest(ByteBuffer record) {
+        long start = System.nanoTime();
+        DroneDto droneDto;
+        try {
+            droneDto = DroneDtoBinaryCodec.decode(record);
+        } catch (SerializationException ex) {
+            return completed(AckStatus.MALFORMED);
+        }
+        stageMetrics.record(IngestStageMetrics.Stage.PARSE, start);
+
+        long validateStart = System.nanoTime();
+        List<String> errors = validator.validate(droneDto);
+        stageMetrics.record(IngestStageMetrics.Stage.VALIDATE, validateStart);
+        if (!errors.isEmpty()) {
+            return completed(AckStatus.INVALID);
+        }
+
+        CompletableFuture<Map<String, String>> future;
+        try {
+            future = droneService.sendToKafkaAsync(droneDto);
+        } catch (RuntimeException ex) {
+            return completed(AckStatus.of(ex));
+        }
+        return future.handle((result, ex) -> count(ex == null ? AckStatus.ACCEPTED : AckStatus.of(ex)));
+    }
+
+    private CompletableFuture<AckStatus> completed(AckStatus status) {
+        count(status);
+        return completed[status.ordinal()];
+    }
+
+    private AckStatus count(AckStatus status) {
+        records[status.ordinal()].increment();
+        return status;
+    }
+}
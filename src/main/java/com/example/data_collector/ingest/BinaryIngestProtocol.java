@@ -0,0 +1,52 @@
+package com.example.data_collector.ingest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Кадры бинарного протокола приема для TCP и UDP.
+ * <pre>
+ * Запись (клиент -> сервис):
+ *   int32   длина кадра без этого поля
+ *   int32   номер записи, выбираемый клиентом
+ *   ...     запись в формате {@link com.example.data_collector.kafka.serialization.DroneDtoBinaryCodec}
+ *
+ * Подтверждение (сервис -> клиент), по одному кадру на группу записей:
+ *   int32   длина кадра без этого поля
+ *   byte    тип кадра {@link #ACK_FRAME}
+ *   int32   число подтверждений N
+ *   N x (int32 номер записи, byte код {@link AckStatus})
+ * </pre>
+ * Все числа big-endian. Подтверждения приходят в порядке завершения обработки, а не в порядке записей.
+ * В TCP кадры идут потоком; в UDP датаграмма содержит один или несколько целых кадров.
+ */
+public final class BinaryIngestProtocol {
+
+    public static final byte ACK_FRAME = 1;
+
+    public static final int LENGTH_BYTES = Integer.BYTES;
+
+    public static final int SEQUENCE_BYTES = Integer.BYTES;
+
+    public static final int ACK_HEADER_BYTES = LENGTH_BYTES + 1 + Integer.BYTES;
+
+    public static final int ACK_ENTRY_BYTES = Integer.BYTES + 1;
+
+    private BinaryIngestProtocol() {
+    }
+
+    /**
+     * Записывает в {@code buffer} кадр записи с номером {@code sequence}.
+     */
+    public static void writeRecord(ByteBuffer buffer, int sequence, byte[] record) {
+        buffer.putInt(SEQUENCE_BYTES + record.length);
+        buffer.putInt(sequence);
+        buffer.put(record);
+    }
+
+    /**
+     * Число подтверждений, умещающихся в кадр размером не более {@code maxFrameBytes}.
+     */
+    static int ackCapacity(int maxFrameBytes) {
+        return (maxFrameBytes - ACK_HEADER_BYTES) / ACK_ENTRY_BYTES;
+    }
+}
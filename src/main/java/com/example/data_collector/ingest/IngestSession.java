@@ -0,0 +1,117 @@
+package com.example.data_collector.ingest;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Состояние одного клиента бинарного протокола: TCP-соединения или UDP-отправителя.
+ * <p>
+ * Ограничивает число записей клиента, обработка которых не завершена ({@code max-pending}), и накапливает
+ * подтверждения, которые поток ввода-вывода отправляет одним кадром. Подтверждения добавляются из потоков
+ * завершения отправки в Kafka; когда их набирается {@code ack-batch-size}, поток ввода-вывода будится,
+ * остальные уходят не позже {@code ack-interval-ms}.
+ */
+final class IngestSession {
+
+    private final BinaryIngestHandler handler;
+
+    private final int maxPending;
+
+    private final int ackBatchSize;
+
+    private final Runnable wakeup;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** Номер записи в старших битах, код {@link AckStatus} в младшем байте */
+    private long[] acks = new long[16];
+
+    private int ackCount;
+
+    IngestSession(BinaryIngestHandler handler, int maxPending, int ackBatchSize, Runnable wakeup) {
+        this.handler = handler;
+        this.maxPending = maxPending;
+        this.ackBatchSize = ackBatchSize;
+        this.wakeup = wakeup;
+    }
+
+    /**
+     * Есть ли место для новой записи клиента.
+     */
+    boolean canSubmit() {
+        return pending.get() < maxPending;
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    void submit(int sequence, ByteBuffer record) {
+        pending.incrementAndGet();
+        handler.ingest(record).thenAccept(status -> {
+            pending.decrementAndGet();
+            acknowledge(sequence, status);
+        });
+    }
+
+    /**
+     * Подтверждает запись без обработки, например при переполнении окна UDP-клиента.
+     */
+    void reject(int sequence, AckStatus status) {
+        acknowledge(sequence, status);
+    }
+
+    private void acknowledge(int sequence, AckStatus status) {
+        int count;
+        synchronized (this) {
+            if (ackCount == acks.length) {
+                long[] grown = new long[ackCount * 2];
+                System.arraycopy(acks, 0, grown, 0, ackCount);
+                acks = grown;
+            }
+            acks[ackCount++] = (long) sequence << 8 | (status.code() & 0xFF);
+            count = ackCount;
+        }
+        if (count == ackBatchSize) {
+            wakeup.run();
+        }
+    }
+
+    synchronized int ackCount() {
+        return ackCount;
+    }
+
+    /**
+     * Отбрасывает накопленные подтверждения, которые некуда отправить; клиент повторит записи по своему таймауту.
+     *
+     * @return число отброшенных подтверждений
+     */
+    synchronized int discardAcks() {
+        int count = ackCount;
+        ackCount = 0;
+        return count;
+    }
+
+    /**
+     * Записывает в {@code out} кадр подтверждения с накопленными подтверждениями, сколько уместится.
+     *
+     * @return число подтверждений в кадре; 0 - кадр не записан
+     */
+    synchronized int drainAcks(ByteBuffer out) {
+        int count = Math.min(ackCount, BinaryIngestProtocol.ackCapacity(out.remaining()));
+        if (count <= 0) {
+            return 0;
+        }
+        out.putInt(BinaryIngestProtocol.ACK_HEADER_BYTES - BinaryIngestProtocol.LENGTH_BYTES
+                + count * BinaryIngestProtocol.ACK_ENTRY_BYTES);
+        out.put(BinaryIngestProtocol.ACK_FRAME);
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            out.putInt((int) (acks[i] >> 8));
+            out.put((byte) acks[i]);
+        }
+        ackCount -= count;
+        System.arraycopy(acks, count, acks, 0, ackCount);
+        return count;
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.data_collector.ingest;
+
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.DroneService;
+import com.example.data_collector.validation.DroneDtoValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Прием записей о БПЛА по постоянным TCP-соединениям в формате {@link BinaryIngestProtocol}.
+ * <p>
+ * Соединения распределяются по {@code drone.ingest.tcp.io-threads} потокам с собственным {@link Selector};
+ * поток читает кадры своих соединений, передает записи в {@link BinaryIngestHandler} и отправляет подтверждения.
+ * Записи одного соединения отправляются в Kafka в порядке поступления.
+ * <p>
+ * Управление потоком: когда у соединения {@code max-pending} записей ожидают подтверждения Kafka,
+ * чтение из сокета приостанавливается, и клиент упирается в окно TCP.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.ingest.tcp", name = "enabled", havingValue = "true")
+public class TcpIngestListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TcpIngestListener.class);
+
+    private static final String TRANSPORT = "tcp";
+
+    private final int port;
+
+    private final int ioThreads;
+
+    private final int maxFrameBytes;
+
+    private final int maxPending;
+
+    private final int ackBatchSize;
+
+    private final long ackIntervalNanos;
+
+    private final BinaryIngestHandler handler;
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Counter protocolErrors;
+
+    private volatile boolean running;
+
+    private ServerSocketChannel server;
+
+    private EventLoop[] loops;
+
+    private Thread acceptor;
+
+    public TcpIngestListener(@Value("${drone.ingest.tcp.port:9500}") int port,
+                             @Value("${drone.ingest.tcp.io-threads:2}") int ioThreads,
+                             @Value("${drone.ingest.tcp.max-frame-bytes:4096}") int maxFrameBytes,
+                             @Value("${drone.ingest.tcp.max-pending:1024}") int maxPending,
+                             @Value("${drone.ingest.tcp.ack-batch-size:64}") int ackBatchSize,
+                             @Value("${drone.ingest.tcp.ack-interval-ms:5}") long ackIntervalMs,
+                             DroneService droneService,
+                             DroneDtoValidator validator,
+                             IngestStageMetrics stageMetrics,
+                             MeterRegistry meterRegistry) {
+        this.port = port;
+        this.ioThreads = ioThreads;
+        this.maxFrameBytes = maxFrameBytes;
+        this.maxPending = maxPending;
+        this.ackBatchSize = ackBatchSize;
+        this.ackIntervalNanos = TimeUnit.MILLISECONDS.toNanos(ackIntervalMs);
+        this.handler = new BinaryIngestHandler(TRANSPORT, droneService, validator, stageMetrics, meterRegistry);
+
+        this.protocolErrors = Counter.builder("drone.ingest.binary.protocol-errors")
+                .tag("transport", TRANSPORT)
+                .description("Соединения и датаграммы, отброшенные из-за нарушения формата кадров")
+                .register(meterRegistry);
+        Gauge.builder("drone.ingest.binary.clients", connections, AtomicInteger::get)
+                .tag("transport", TRANSPORT)
+                .description("Открытые соединения или активные отправители бинарного протокола")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(port));
+            loops = new EventLoop[Math.max(1, ioThreads)];
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new EventLoop(Selector.open());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Не удалось открыть TCP-порт приема " + port, ex);
+        }
+        running = true;
+        for (int i = 0; i < loops.length; i++) {
+            Thread thread = new Thread(loops[i], "drone-tcp-ingest-" + i);
+            thread.setDaemon(true);
+            loops[i].thread = thread;
+            thread.start();
+        }
+        acceptor = new Thread(this::acceptConnections, "drone-tcp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Прием бинарных записей по TCP на порту {}", getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeQuietly(server);
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        try {
+            acceptor.join(TimeUnit.SECONDS.toMillis(5));
+            for (EventLoop loop : loops) {
+                loop.thread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Фактический порт; при {@code drone.ingest.tcp.port=0} выбирается системой.
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) server.getLocalAddress()).getPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void acceptConnections() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                loops[next++ % loops.length].register(channel);
+            } catch (ClosedChannelException ex) {
+                return;
+            } catch (IOException ex) {
+                if (running) {
+                    log.warn("Ошибка приема TCP-соединения: {}", ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException ex) {
+            log.debug("Ошибка закрытия канала: {}", ex.getMessage());
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+
+        private final Queue<SocketChannel> registrations = new ConcurrentLinkedQueue<>();
+
+        private final List<Connection> active = new ArrayList<>();
+
+        private Thread thread;
+
+        private EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        private void register(SocketChannel channel) {
+            registrations.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long ackIntervalMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(ackIntervalNanos));
+            try {
+                while (running) {
+                    selector.select(ackIntervalMillis);
+                    acceptRegistrations();
+
+                    Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                    while (selected.hasNext()) {
+                        SelectionKey key = selected.next();
+                        selected.remove();
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush(true);
+                        }
+                    }
+
+                    long now = System.nanoTime();
+                    for (Connection connection : active) {
+                        connection.service(now);
+                    }
+                    active.removeIf(connection -> connection.closed);
+                }
+            } catch (IOException ex) {
+                log.error("Поток приема TCP остановлен: {}", ex.getMessage());
+            } finally {
+                active.forEach(Connection::close);
+                registrations.forEach(TcpIngestListener::closeQuietly);
+                closeQuietly(selector);
+            }
+        }
+
+        private void acceptRegistrations() {
+            SocketChannel channel;
+            while ((channel = registrations.poll()) != null) {
+                try {
+                    Connection connection = new Connection(channel);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                    active.add(connection);
+                    connections.incrementAndGet();
+                } catch (IOException ex) {
+                    closeQuietly(channel);
+                }
+            }
+        }
+
+        /**
+         * Соединение; все поля, кроме {@link IngestSession}, используются только потоком своего {@link EventLoop}.
+         */
+        private final class Connection {
+
+            private final SocketChannel channel;
+
+            private final IngestSession session;
+
+            private final ByteBuffer in = ByteBuffer.allocate(BinaryIngestProtocol.LENGTH_BYTES + maxFrameBytes);
+
+            private final ByteBuffer out = ByteBuffer.allocate(BinaryIngestProtocol.ACK_HEADER_BYTES
+                    + Math.max(1, ackBatchSize) * BinaryIngestProtocol.ACK_ENTRY_BYTES);
+
+            private SelectionKey key;
+
+            private boolean writing;
+
+            /** В буфере остались кадры, не переданные в обработку из-за заполненного окна */
+            private boolean paused;
+
+            private long lastFlush = System.nanoTime();
+
+            private boolean closed;
+
+            private Connection(SocketChannel channel) {
+                this.channel = channel;
+                this.session = new IngestSession(handler, maxPending, ackBatchSize, selector::wakeup);
+            }
+
+            private void read() {
+                try {
+                    if (channel.read(in) < 0) {
+                        close();
+                        return;
+                    }
+                } catch (IOException ex) {
+                    log.debug("Ошибка чтения TCP-соединения: {}", ex.getMessage());
+                    close();
+                    return;
+                }
+                process();
+            }
+
+            /**
+             * Передает в обработку целые кадры из буфера, пока окно соединения не заполнено.
+             */
+            private void process() {
+                in.flip();
+                while (session.canSubmit() && in.remaining() >= BinaryIngestProtocol.LENGTH_BYTES) {
+                    int length = in.getInt(in.position());
+                    if (length < BinaryIngestProtocol.SEQUENCE_BYTES || length > maxFrameBytes) {
+                        protocolErrors.increment();
+                        log.debug("Некорректная длина кадра {} от {}, соединение закрыто", length, remoteAddress());
+                        close();
+                        return;
+                    }
+                    if (in.remaining() < BinaryIngestProtocol.LENGTH_BYTES + length) {
+                        break;
+                    }
+                    int frameEnd = in.position() + BinaryIngestProtocol.LENGTH_BYTES + length;
+                    in.position(in.position() + BinaryIngestProtocol.LENGTH_BYTES);
+                    int sequence = in.getInt();
+                    session.submit(sequence, in.slice().limit(length - BinaryIngestProtocol.SEQUENCE_BYTES));
+                    in.position(frameEnd);
+                }
+                paused = !session.canSubmit();
+                in.compact();
+                updateInterest();
+            }
+
+            private void service(long now) {
+                if (closed) {
+                    return;
+                }
+                flush(now - lastFlush >= ackIntervalNanos);
+                if (!closed && paused && session.canSubmit()) {
+                    // Окно освободилось: сначала разбираем уже прочитанные кадры, затем возобновляем чтение
+                    process();
+                }
+            }
+
+            /**
+             * Отправляет накопленные подтверждения: полными кадрами всегда, неполным - если {@code due}.
+             */
+            private void flush(boolean due) {
+                try {
+                    if (writing) {
+                        channel.write(out);
+                        if (out.hasRemaining()) {
+                            return;
+                        }
+                        writing = false;
+                    }
+                    int acks;
+                    while ((acks = session.ackCount()) >= ackBatchSize || (due && acks > 0)) {
+                        out.clear();
+                        session.drainAcks(out);
+                        out.flip();
+                        channel.write(out);
+                        lastFlush = System.nanoTime();
+                        if (out.hasRemaining()) {
+                            writing = true;
+                            break;
+                        }
+                    }
+                } catch (IOException ex) {
+                    log.debug("Ошибка записи в TCP-соединение: {}", ex.getMessage());
+                    close();
+                    return;
+                }
+                updateInterest();
+            }
+
+            private void updateInterest() {
+                if (closed) {
+                    return;
+                }
+                int ops = (!paused && in.hasRemaining() ? SelectionKey.OP_READ : 0)
+                        | (writing ? SelectionKey.OP_WRITE : 0);
+                if (key.interestOps() != ops) {
+                    key.interestOps(ops);
+                }
+            }
+
+            private Object remoteAddress() {
+                try {
+                    return channel.getRemoteAddress();
+                } catch (IOException ex) {
+                    return "?";
+                }
+            }
+
+            private void close() {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                connections.decrementAndGet();
+                if (key != null) {
+                    key.cancel();
+                }
+                closeQuietly(channel);
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.data_collector.ingest;
+
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.DroneService;
+import com.example.data_collector.validation.DroneDtoValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прием записей о БПЛА по UDP в формате {@link BinaryIngestProtocol}: датаграмма содержит один или несколько
+ * кадров записей. Подтверждения отправляются отправителю датаграммами не больше {@link #MAX_ACK_DATAGRAM_BYTES}.
+ * <p>
+ * UDP не позволяет притормозить отправителя, поэтому записи сверх {@code drone.ingest.udp.max-pending}
+ * незавершенных записей отправителя не обрабатываются и подтверждаются кодом {@link AckStatus#OVERLOADED}.
+ * Доставка подтверждений не гарантируется: клиент повторяет записи, не подтвержденные за свой таймаут.
+ * Ошибка приема одной датаграммы или отправки подтверждений одному отправителю учитывается в метрике
+ * и не останавливает прием от остальных.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.ingest.udp", name = "enabled", havingValue = "true")
+public class UdpIngestListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(UdpIngestListener.class);
+
+    private static final String TRANSPORT = "udp";
+
+    /** Подтверждение должно помещаться в один IP-пакет без фрагментации */
+    static final int MAX_ACK_DATAGRAM_BYTES = 1400;
+
+    private static final int MAX_DATAGRAM_BYTES = 65507;
+
+    private final int port;
+
+    private final int maxPending;
+
+    private final int ackBatchSize;
+
+    private final long ackIntervalNanos;
+
+    private final int maxPeers;
+
+    private final long peerIdleNanos;
+
+    private final int receiveBufferBytes;
+
+    private final BinaryIngestHandler handler;
+
+    private final Map<SocketAddress, Peer> peers = new HashMap<>();
+
+    private final Counter protocolErrors;
+
+    private final Counter droppedDatagrams;
+
+    private final Counter receiveErrors;
+
+    private final Counter sendErrors;
+
+    private volatile int peerCount;
+
+    private volatile boolean running;
+
+    private DatagramChannel channel;
+
+    private Selector selector;
+
+    private Thread thread;
+
+    public UdpIngestListener(@Value("${drone.ingest.udp.port:9501}") int port,
+                             @Value("${drone.ingest.udp.max-pending:1024}") int maxPending,
+                             @Value("${drone.ingest.udp.ack-batch-size:64}") int ackBatchSize,
+                             @Value("${drone.ingest.udp.ack-interval-ms:5}") long ackIntervalMs,
+                             @Value("${drone.ingest.udp.max-peers:10000}") int maxPeers,
+                             @Value("${drone.ingest.udp.peer-idle-ms:60000}") long peerIdleMs,
+                             @Value("${drone.ingest.udp.receive-buffer-bytes:4194304}") int receiveBufferBytes,
+                             DroneService droneService,
+                             DroneDtoValidator validator,
+                             IngestStageMetrics stageMetrics,
+                             MeterRegistry meterRegistry) {
+        this.port = port;
+        this.maxPending = maxPending;
+        this.ackBatchSize = Math.min(ackBatchSize, BinaryIngestProtocol.ackCapacity(MAX_ACK_DATAGRAM_BYTES));
+        this.ackIntervalNanos = TimeUnit.MILLISECONDS.toNanos(ackIntervalMs);
+        this.maxPeers = maxPeers;
+        this.peerIdleNanos = TimeUnit.MILLISECONDS.toNanos(peerIdleMs);
+        this.receiveBufferBytes = receiveBufferBytes;
+        this.handler = new BinaryIngestHandler(TRANSPORT, droneService, validator, stageMetrics, meterRegistry);
+
+        this.protocolErrors = Counter.builder("drone.ingest.binary.protocol-errors")
+                .tag("transport", TRANSPORT)
+                .description("Соединения и датаграммы, отброшенные из-за нарушения формата кадров")
+                .register(meterRegistry);
+        this.droppedDatagrams = Counter.builder("drone.ingest.binary.dropped")
+                .tag("transport", TRANSPORT)
+                .description("Датаграммы новых отправителей, отброшенные из-за превышения max-peers")
+                .register(meterRegistry);
+        this.receiveErrors = ioErrorCounter(meterRegistry, "receive");
+        this.sendErrors = ioErrorCounter(meterRegistry, "send");
+        Gauge.builder("drone.ingest.binary.clients", this, listener -> listener.peerCount)
+                .tag("transport", TRANSPORT)
+                .description("Открытые соединения или активные отправители бинарного протокола")
+                .register(meterRegistry);
+    }
+
+    private static Counter ioErrorCounter(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("drone.ingest.binary.io-errors")
+                .tag("transport", TRANSPORT)
+                .tag("operation", operation)
+                .description("Ошибки приема датаграмм и отправки подтверждений, не остановившие прием")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            channel = DatagramChannel.open();
+            // Датаграммы, пришедшие, пока поток приема занят, ждут в буфере сокета, а не теряются
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferBytes);
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Не удалось открыть UDP-порт приема " + port, ex);
+        }
+        running = true;
+        thread = new Thread(this::receive, "drone-udp-ingest");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Прием бинарных записей по UDP на порту {}", getPort());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Фактический порт; при {@code drone.ingest.udp.port=0} выбирается системой.
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void receive() {
+        ByteBuffer in = ByteBuffer.allocate(MAX_DATAGRAM_BYTES);
+        ByteBuffer out = ByteBuffer.allocate(MAX_ACK_DATAGRAM_BYTES);
+        long ackIntervalMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(ackIntervalNanos));
+        long lastEviction = System.nanoTime();
+        try {
+            while (running) {
+                selector.select(ackIntervalMillis);
+                selector.selectedKeys().clear();
+
+                receiveAll(in);
+
+                long now = System.nanoTime();
+                for (Peer peer : peers.values()) {
+                    flush(peer, out, now);
+                }
+                if (now - lastEviction >= peerIdleNanos) {
+                    evictIdle(now);
+                    lastEviction = now;
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.error("Поток приема UDP остановлен: {}", ex.getMessage(), ex);
+        } finally {
+            // Остановленный прием должен быть виден через isRunning()
+            running = false;
+            closeQuietly(channel);
+            closeQuietly(selector);
+        }
+    }
+
+    private void receiveAll(ByteBuffer in) throws ClosedChannelException {
+        SocketAddress sender;
+        while (true) {
+            try {
+                sender = channel.receive(in.clear());
+            } catch (ClosedChannelException ex) {
+                throw ex;
+            } catch (IOException ex) {
+                // Например, ICMP-ошибка по ранее отправленному подтверждению; остальные датаграммы принимаются дальше
+                receiveErrors.increment();
+                log.debug("Ошибка приема датаграммы UDP: {}", ex.getMessage());
+                return;
+            }
+            if (sender == null) {
+                return;
+            }
+            process(sender, in.flip());
+        }
+    }
+
+    private void process(SocketAddress sender, ByteBuffer datagram) {
+        Peer peer = peers.get(sender);
+        if (peer == null) {
+            if (peers.size() >= maxPeers) {
+                droppedDatagrams.increment();
+                return;
+            }
+            peer = new Peer(sender, new IngestSession(handler, maxPending, ackBatchSize, selector::wakeup));
+            peers.put(sender, peer);
+            peerCount = peers.size();
+        }
+        peer.lastSeen = System.nanoTime();
+
+        while (datagram.hasRemaining()) {
+            if (datagram.remaining() < BinaryIngestProtocol.LENGTH_BYTES + BinaryIngestProtocol.SEQUENCE_BYTES) {
+                protocolErrors.increment();
+                return;
+            }
+            int length = datagram.getInt();
+            if (length < BinaryIngestProtocol.SEQUENCE_BYTES || length > datagram.remaining()) {
+                // Кадры не должны пересекать границу датаграммы; остаток разобрать невозможно
+                protocolErrors.increment();
+                return;
+            }
+            int frameEnd = datagram.position() + length;
+            int sequence = datagram.getInt();
+            if (peer.session.canSubmit()) {
+                peer.session.submit(sequence, datagram.slice().limit(length - BinaryIngestProtocol.SEQUENCE_BYTES));
+            } else {
+                peer.session.reject(sequence, AckStatus.OVERLOADED);
+            }
+            datagram.position(frameEnd);
+        }
+    }
+
+    private void flush(Peer peer, ByteBuffer out, long now) throws ClosedChannelException {
+        boolean due = now - peer.lastFlush >= ackIntervalNanos;
+        int acks;
+        while ((acks = peer.session.ackCount()) >= ackBatchSize || (due && acks > 0)) {
+            peer.session.drainAcks(out.clear());
+            try {
+                // При переполненном буфере сокета подтверждение теряется, как и любая датаграмма
+                channel.send(out.flip(), peer.address);
+            } catch (ClosedChannelException ex) {
+                throw ex;
+            } catch (IOException ex) {
+                // Адрес отправителя недостижим или недопустим (подмененный адрес, порт 0): подтверждения
+                // этому отправителю отбрасываются, остальные отправители обслуживаются дальше
+                sendErrors.increment();
+                peer.session.discardAcks();
+                log.debug("Не удалось отправить подтверждения {}: {}", peer.address, ex.getMessage());
+                return;
+            } finally {
+                peer.lastFlush = now;
+            }
+        }
+    }
+
+    private void evictIdle(long now) {
+        Iterator<Peer> iterator = peers.values().iterator();
+        while (iterator.hasNext()) {
+            Peer peer = iterator.next();
+            if (now - peer.lastSeen >= peerIdleNanos && peer.session.pending() == 0 && peer.session.ackCount() == 0) {
+                iterator.remove();
+            }
+        }
+        peerCount = peers.size();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException ex) {
+            log.debug("Ошибка закрытия канала: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Отправитель; используется только потоком приема, кроме {@link IngestSession}.
+     */
+    private static final class Peer {
+
+        private final SocketAddress address;
+
+        private final IngestSession session;
+
+        private long lastSeen;
+
+        private long lastFlush = System.nanoTime();
+
+        private Peer(SocketAddress address, IngestSession session) {
+            this.address = address;
+            this.session = session;
+        }
+    }
+}
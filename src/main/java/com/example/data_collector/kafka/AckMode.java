@@ -0,0 +1,22 @@
+package com.example.data_collector.kafka;
+
+/**
+ * Режим подтверждения приема данных о БПЛА.
+ */
+public enum AckMode {
+
+    /**
+     * Поток запроса ожидает подтверждения брокера.
+     */
+    SYNC,
+
+    /**
+     * Поток запроса освобождается сразу, ответ формируется после подтверждения брокера.
+     */
+    ASYNC,
+
+    /**
+     * Ответ 202 возвращается, как только запись помещена в буфер продюсера.
+     */
+    BUFFERED
+}
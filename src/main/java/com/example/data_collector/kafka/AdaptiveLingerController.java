@@ -0,0 +1,154 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.kafka.pool.ShardedProducerPool;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подстройка {@code linger.ms} продюсера под текущую нагрузку.
+ * <p>
+ * Раз в интервал по таймерам этапов вычисляются частота отправок и средняя задержка подтверждения.
+ * При частоте выше {@code high-rate} и задержке в пределах бюджета linger удваивается (до {@code max-linger-ms}),
+ * при частоте ниже {@code low-rate} или превышении бюджета - уменьшается вдвое (до {@code min-linger-ms}).
+ * Между порогами значение не меняется, поэтому колебания нагрузки около одного порога не вызывают переключений.
+ * <p>
+ * Новое значение применяется через {@link ReconfigurableProducer#reconfigure}: отправка переключается
+ * на новый продюсер, а старый закрывается после завершения начатых в нем отправок.
+ * Если включен {@link ShardedProducerPool}, значение применяется ко всем его шардам. Если новый продюсер
+ * не получил метаданные, значение не считается примененным и пересчитывается на следующем шаге.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.producer.adaptive-linger", name = "enabled", havingValue = "true")
+public class AdaptiveLingerController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveLingerController.class);
+
+    private final List<ReconfigurableProducer> producers = new ArrayList<>();
+
+    private final Timer enqueueTimer;
+
+    private final Timer ackTimer;
+
+    private final int minLingerMs;
+
+    private final int maxLingerMs;
+
+    private final double highRate;
+
+    private final double lowRate;
+
+    private final long ackLatencyBudgetNanos;
+
+    private final Counter changes;
+
+    private volatile int lingerMs;
+
+    private long lastTickNanos = System.nanoTime();
+
+    private long lastEnqueueCount;
+
+    private long lastAckCount;
+
+    private double lastAckTotalNanos;
+
+    public AdaptiveLingerController(ReconfigurableProducer producer,
+                                    IngestStageMetrics stageMetrics,
+                                    @Value("${drone.producer.adaptive-linger.min-linger-ms:0}") int minLingerMs,
+                                    @Value("${drone.producer.adaptive-linger.max-linger-ms:50}") int maxLingerMs,
+                                    @Value("${drone.producer.adaptive-linger.high-rate:2000}") double highRate,
+                                    @Value("${drone.producer.adaptive-linger.low-rate:500}") double lowRate,
+                                    @Value("${drone.producer.adaptive-linger.ack-latency-budget-ms:100}") long ackLatencyBudgetMs,
+                                    ObjectProvider<ShardedProducerPool> producerPool,
+                                    MeterRegistry meterRegistry) {
+        ShardedProducerPool pool = producerPool.getIfAvailable();
+        // С пулом отправка идет только через шарды
+        this.producers.addAll(pool != null ? pool.producers() : List.of(producer));
+        this.enqueueTimer = stageMetrics.timer(IngestStageMetrics.Stage.ENQUEUE);
+        this.ackTimer = stageMetrics.timer(IngestStageMetrics.Stage.ACK);
+        this.minLingerMs = minLingerMs;
+        this.maxLingerMs = maxLingerMs;
+        this.highRate = highRate;
+        this.lowRate = lowRate;
+        this.ackLatencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(ackLatencyBudgetMs);
+        this.lingerMs = Math.max(minLingerMs, Math.min(maxLingerMs, configuredLinger(producers.get(0), minLingerMs)));
+        this.lastEnqueueCount = enqueueTimer.count();
+        this.lastAckCount = ackTimer.count();
+        this.lastAckTotalNanos = ackTimer.totalTime(TimeUnit.NANOSECONDS);
+
+        this.changes = Counter.builder("drone.producer.linger.changes")
+                .description("Переключения linger.ms продюсера")
+                .register(meterRegistry);
+        Gauge.builder("drone.producer.linger", this, controller -> controller.lingerMs)
+                .baseUnit("milliseconds")
+                .description("Текущее значение linger.ms продюсера")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${drone.producer.adaptive-linger.interval-ms:5000}")
+    public void adjust() {
+        adjust(System.nanoTime());
+    }
+
+    synchronized void adjust(long nowNanos) {
+        long elapsed = nowNanos - lastTickNanos;
+        if (elapsed <= 0) {
+            return;
+        }
+        long enqueueCount = enqueueTimer.count();
+        long ackCount = ackTimer.count();
+        double ackTotalNanos = ackTimer.totalTime(TimeUnit.NANOSECONDS);
+
+        double rate = (enqueueCount - lastEnqueueCount) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        long acks = ackCount - lastAckCount;
+        double ackMeanNanos = acks > 0 ? (ackTotalNanos - lastAckTotalNanos) / acks : 0;
+
+        lastTickNanos = nowNanos;
+        lastEnqueueCount = enqueueCount;
+        lastAckCount = ackCount;
+        lastAckTotalNanos = ackTotalNanos;
+
+        int next = lingerMs;
+        if (rate < lowRate || ackMeanNanos > ackLatencyBudgetNanos) {
+            next = Math.max(minLingerMs, lingerMs / 2);
+        } else if (rate > highRate) {
+            next = Math.min(maxLingerMs, Math.max(1, lingerMs * 2));
+        }
+        if (next != lingerMs) {
+            log.info("Изменение linger.ms продюсера с {} на {} мс: {} отправок/с, среднее подтверждение {} мс",
+                    lingerMs, next, Math.round(rate), TimeUnit.NANOSECONDS.toMillis((long) ackMeanNanos));
+            boolean applied = true;
+            for (ReconfigurableProducer producer : producers) {
+                applied &= producer.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, next));
+            }
+            if (applied) {
+                lingerMs = next;
+                changes.increment();
+            }
+        }
+    }
+
+    public int lingerMs() {
+        return lingerMs;
+    }
+
+    private static int configuredLinger(ReconfigurableProducer producer, int defaultLingerMs) {
+        Object linger = producer.configurationProperties().get(ProducerConfig.LINGER_MS_CONFIG);
+        return linger == null ? defaultLingerMs : Integer.parseInt(linger.toString());
+    }
+}
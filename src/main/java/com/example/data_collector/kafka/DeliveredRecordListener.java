@@ -0,0 +1,12 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.dto.DroneDto;
+
+/**
+ * Получатель записей, доставку которых в основной или приоритетный топик подтвердил брокер Kafka.
+ * Вызывается в потоке ввода-вывода продюсера, поэтому реализация не должна блокироваться.
+ */
+public interface DeliveredRecordListener {
+
+    void onDelivered(DroneDto droneDto);
+}
@@ -0,0 +1,116 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.exception.IngestOverloadedException;
+import com.example.data_collector.kafka.priority.Lane;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.BufferExhaustedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Глобальное ограничение числа одновременных отправок в Kafka.
+ * При насыщении лимита или буфера продюсера запрос отклоняется сразу, без ожидания в очереди.
+ * <p>
+ * При включенной приоритетной полосе последние {@code drone.priority.reserved-in-flight} разрешений
+ * доступны только записям полосы {@link Lane#CRITICAL}, поэтому поток обычных записей не может их исчерпать.
+ */
+@Component
+public class InFlightLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final int maxInFlight;
+
+    private final int bulkLimit;
+
+    private final long retryAfterSeconds;
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final Counter limitRejections;
+
+    private final Counter bufferRejections;
+
+    public InFlightLimiter(@Value("${drone.backpressure.max-in-flight:10000}") int maxInFlight,
+                           @Value("${drone.backpressure.retry-after-seconds:1}") long retryAfterSeconds,
+                           @Value("${drone.priority.enabled:false}") boolean priorityEnabled,
+                           @Value("${drone.priority.reserved-in-flight:0}") int reservedInFlight,
+                           MeterRegistry meterRegistry) {
+        this.maxInFlight = maxInFlight;
+        this.bulkLimit = priorityEnabled ? Math.max(0, maxInFlight - reservedInFlight) : maxInFlight;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        Gauge.builder("drone.ingest.inflight", this, InFlightLimiter::inFlight)
+                .description("Число отправок в Kafka, ожидающих подтверждения")
+                .register(meterRegistry);
+        Gauge.builder("drone.ingest.inflight.peak", peakInFlight, AtomicInteger::get)
+                .description("Максимальное наблюдавшееся число одновременных отправок")
+                .register(meterRegistry);
+        Gauge.builder("drone.ingest.inflight.limit", this, limiter -> limiter.maxInFlight)
+                .register(meterRegistry);
+        this.limitRejections = Counter.builder("drone.ingest.rejected")
+                .tag("reason", "in-flight-limit")
+                .description("Запросы, отклонённые из-за насыщения")
+                .register(meterRegistry);
+        this.bufferRejections = Counter.builder("drone.ingest.rejected")
+                .tag("reason", "producer-buffer")
+                .description("Запросы, отклонённые из-за насыщения")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Занимает разрешение на отправку обычной записи или выбрасывает {@link IngestOverloadedException}.
+     * Каждый успешный вызов должен завершаться вызовом {@link #release()}.
+     */
+    public void acquire() {
+        acquire(Lane.BULK);
+    }
+
+    /**
+     * Вариант {@link #acquire()} для записи указанной полосы: полосе {@link Lane#CRITICAL} доступен резерв.
+     */
+    public void acquire(Lane lane) {
+        int limit = lane == Lane.CRITICAL ? maxInFlight : bulkLimit;
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                limitRejections.increment();
+                throw new IngestOverloadedException("Превышено число одновременных отправок в Kafka", retryAfterSeconds);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        current++;
+        int peak;
+        while (current > (peak = peakInFlight.get()) && !peakInFlight.compareAndSet(peak, current)) {
+            // повторяем, пока не обновим максимум
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Возвращает исключение перегрузки, если причиной ошибки отправки стал переполненный буфер продюсера.
+     */
+    public IngestOverloadedException overloadCause(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IngestOverloadedException overloaded) {
+                return overloaded;
+            }
+            if (cause instanceof BufferExhaustedException) {
+                bufferRejections.increment();
+                return new IngestOverloadedException("Буфер продюсера Kafka переполнен", retryAfterSeconds, cause);
+            }
+        }
+        return null;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -1,6 +1,14 @@
 package com.example.data_collector.kafka;
 
 import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.exception.IngestOverloadedException;
+import com.example.data_collector.kafka.partitioning.PartitionMetrics;
+import com.example.data_collector.kafka.partitioning.PartitionRouter;
+import com.example.data_collector.kafka.pool.ShardedProducerPool;
+import com.example.data_collector.kafka.priority.Lane;
+import com.example.data_collector.kafka.priority.PriorityLanes;
+import com.example.data_collector.kafka.spool.DroneSpool;
+import com.example.data_collector.metrics.IngestStageMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +18,9 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -23,27 +33,210 @@ public class KafkaProducer {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaProducer.class);
 
+    public static final long SEND_TIMEOUT_SECONDS = 5;
+
+    public static final String ACCEPTED_MESSAGE = "Данные о БПЛА приняты в обработку";
+
+    public static final String BUFFERED_MESSAGE = "Данные о БПЛА поставлены в очередь на отправку";
+
+    public static final String SPOOLED_MESSAGE = "Данные о БПЛА сохранены и будут отправлены после восстановления связи с Kafka";
+
     @Value("${spring.kafka.topic.drone}")
     private String topic;
 
     @Autowired
-    private KafkaTemplate<String, DroneDto> kafkaTemplate;
+    private ReconfigurableProducer producer;
+
+    @Autowired
+    private InFlightLimiter inFlightLimiter;
+
+    @Autowired
+    private PartitionRouter partitionRouter;
+
+    @Autowired
+    private PartitionMetrics partitionMetrics;
+
+    @Autowired
+    private IngestStageMetrics stageMetrics;
+
+    @Autowired(required = false)
+    private DroneSpool spool;
+
+    @Autowired(required = false)
+    private ShardedProducerPool producerPool;
+
+    @Autowired(required = false)
+    private PriorityLanes priorityLanes;
+
+    @Autowired(required = false)
+    private List<DeliveredRecordListener> deliveryListeners = List.of();
 
     public String sendDroneData(DroneDto droneDto) {
         try {
-            CompletableFuture<SendResult<String, DroneDto>> future =
-                    kafkaTemplate.send(topic, droneDto.getDetectedBy(), droneDto);
-
-            SendResult<String, DroneDto> result = future.get(5, TimeUnit.SECONDS);
+            // Таймаут уже встроен в future: по его истечении запись уходит в спул или future завершается ошибкой
+            CompletableFuture<String> future = sendDroneDataDeferred(droneDto);
 
-            return "Данные о БПЛА приняты в обработку";
+            return future.get();
 
         } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
             throw new KafkaException("Прервана отправка в Kafka", ex);
-        } catch (TimeoutException ex) {
-            throw new KafkaException("Таймаут отправки в Kafka", ex);
         } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
             throw new KafkaException("Ошибка отправки в Kafka", ex);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Ставит запись в буфер продюсера и сразу возвращает future подтверждения брокера.
+     * Используется для конвейерной отправки, когда ожидание выполняется вызывающей стороной.
+     * Учитывает глобальный лимит одновременных отправок и не использует спул.
+     * При включенной приоритетной полосе приоритетная запись уходит в ее топик через ее продюсер.
+     * После подтверждения брокера запись передается {@link DeliveredRecordListener}.
+     */
+    public CompletableFuture<SendResult<String, DroneDto>> sendDroneDataAsync(DroneDto droneDto) {
+        return sendClassified(lane(droneDto), droneDto);
+    }
+
+    /**
+     * Относится ли запись к приоритетной полосе; без {@link PriorityLanes} все записи обычные.
+     */
+    public boolean isCritical(DroneDto droneDto) {
+        return lane(droneDto) == Lane.CRITICAL;
+    }
+
+    private Lane lane(DroneDto droneDto) {
+        return priorityLanes != null ? priorityLanes.classify(droneDto) : Lane.BULK;
+    }
+
+    private CompletableFuture<SendResult<String, DroneDto>> sendClassified(Lane lane, DroneDto droneDto) {
+        CompletableFuture<SendResult<String, DroneDto>> future = lane == Lane.CRITICAL
+                ? sendDroneDataAsync(Lane.CRITICAL, priorityLanes.topic(), droneDto)
+                : sendDroneDataAsync(Lane.BULK, topic, droneDto);
+        if (!deliveryListeners.isEmpty()) {
+            future.whenComplete((result, ex) -> {
+                if (result != null) {
+                    for (DeliveredRecordListener listener : deliveryListeners) {
+                        listener.onDelivered(droneDto);
+                    }
+                }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Вариант {@link #sendDroneDataAsync(DroneDto)} для отправки в указанный топик без классификации записи.
+     */
+    public CompletableFuture<SendResult<String, DroneDto>> sendDroneDataAsync(String topic, DroneDto droneDto) {
+        return sendDroneDataAsync(Lane.BULK, topic, droneDto);
+    }
+
+    private CompletableFuture<SendResult<String, DroneDto>> sendDroneDataAsync(Lane lane, String topic,
+                                                                               DroneDto droneDto) {
+        inFlightLimiter.acquire(lane);
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, DroneDto>> future;
+        try {
+            String key = partitionRouter.key(droneDto);
+            Integer partition = partitionRouter.partition(topic, droneDto, key);
+            future = send(lane, topic, partition, key, droneDto);
+        } catch (RuntimeException ex) {
+            inFlightLimiter.release();
+            IngestOverloadedException overloaded = inFlightLimiter.overloadCause(ex);
+            throw overloaded != null ? overloaded : ex;
+        }
+        stageMetrics.record(IngestStageMetrics.Stage.ENQUEUE, start);
+        long enqueued = System.nanoTime();
+        future.whenComplete((result, ex) -> {
+            inFlightLimiter.release();
+            if (result != null) {
+                stageMetrics.record(IngestStageMetrics.Stage.ACK, enqueued);
+                partitionMetrics.record(result.getRecordMetadata(), start);
+                if (priorityLanes != null) {
+                    priorityLanes.record(lane, start);
+                }
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<SendResult<String, DroneDto>> send(Lane lane, String topic, Integer partition,
+                                                                 String key, DroneDto droneDto) {
+        if (lane == Lane.CRITICAL) {
+            KafkaTemplate<String, DroneDto> template = priorityLanes.template();
+            return partition == null
+                    ? template.send(topic, key, droneDto)
+                    : template.send(topic, partition, key, droneDto);
+        }
+        ReconfigurableProducer target = producerPool != null ? producerPool.producer(key) : producer;
+        return target.send(topic, partition, key, droneDto);
+    }
+
+    /**
+     * Неблокирующий вариант {@link #sendDroneData(DroneDto)} с тем же таймаутом и теми же исключениями:
+     * future завершается ошибкой {@link KafkaException} при таймауте или отказе брокера.
+     * Если включен спул, недоставленная запись сохраняется в него, и future завершается успешно.
+     * Приоритетная запись не встает за накопленным спулом, а сразу отправляется через свою полосу.
+     */
+    public CompletableFuture<String> sendDroneDataDeferred(DroneDto droneDto) {
+        Lane lane = lane(droneDto);
+        if (lane == Lane.BULK && spool != null && spool.hasBacklog()) {
+            // Пока спул не разобран, новые записи встают за ним, чтобы не нарушать порядок
+            return CompletableFuture.completedFuture(spoolOrThrow(droneDto, null));
+        }
+
+        CompletableFuture<SendResult<String, DroneDto>> future;
+        try {
+            future = sendClassified(lane, droneDto);
+        } catch (KafkaException ex) {
+            return CompletableFuture.completedFuture(spoolOrThrow(droneDto, ex));
+        }
+
+        return future
+                .copy()
+                .orTimeout(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .handle((result, ex) -> {
+                    if (ex == null) {
+                        return ACCEPTED_MESSAGE;
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    IngestOverloadedException overloaded = inFlightLimiter.overloadCause(cause);
+                    if (overloaded != null) {
+                        throw overloaded;
+                    }
+                    if (cause instanceof TimeoutException) {
+                        return spoolOrThrow(droneDto, new KafkaException("Таймаут отправки в Kafka", cause));
+                    }
+                    return spoolOrThrow(droneDto, new KafkaException("Ошибка отправки в Kafka", cause));
+                });
+    }
+
+    /**
+     * Помещает запись в буфер продюсера и не ожидает подтверждения брокера.
+     * Ошибки доставки только логируются; при включенном спуле запись сохраняется в него.
+     * Приоритетная запись, как и в {@link #sendDroneDataDeferred}, не встает за накопленным спулом.
+     */
+    public String enqueueDroneData(DroneDto droneDto) {
+        Lane lane = lane(droneDto);
+        if (lane == Lane.BULK && spool != null && spool.hasBacklog()) {
+            return spoolOrThrow(droneDto, null);
+        }
+        sendClassified(lane, droneDto).whenComplete((result, ex) -> {
+            if (ex != null && (spool == null || !spool.append(droneDto))) {
+                log.error("Ошибка отправки в Kafka записи от устройства '{}': {}",
+                        droneDto.getDetectedBy(), ex.getMessage());
+            }
+        });
+        return BUFFERED_MESSAGE;
+    }
+
+    private String spoolOrThrow(DroneDto droneDto, KafkaException failure) {
+        if (spool != null && spool.append(droneDto)) {
+            return SPOOLED_MESSAGE;
+        }
+        throw failure != null ? failure : new KafkaException("Спул переполнен, Kafka недоступна");
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.pool.ShardedProducerPool;
+import com.example.data_collector.kafka.priority.PriorityLanes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев продюсеров после старта: продюсер Kafka создается при первой отправке и перед ней
+ * запрашивает метаданные топика, что добавляет к первому запросу сотни миллисекунд и больше.
+ * Прогрев выполняется в отдельном потоке, чтобы недоступность брокера не задерживала старт.
+ * Ожидание метаданных ограничено коротким {@code max.block.ms}, поэтому запрос повторяется до {@code timeout-ms}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.producer.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProducerWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerWarmup.class);
+
+    private static final long RETRY_DELAY_MS = 100;
+
+    private final List<KafkaTemplate<String, DroneDto>> templates = new ArrayList<>();
+
+    private final List<String> topics = new ArrayList<>();
+
+    private final long timeoutMs;
+
+    public ProducerWarmup(ReconfigurableProducer producer,
+                          @Value("${spring.kafka.topic.drone}") String topic,
+                          @Value("${drone.producer.warmup.timeout-ms:30000}") long timeoutMs,
+                          ObjectProvider<ShardedProducerPool> producerPool,
+                          ObjectProvider<PriorityLanes> priorityLanes) {
+        this.timeoutMs = timeoutMs;
+        ShardedProducerPool pool = producerPool.getIfAvailable();
+        for (ReconfigurableProducer shard : pool != null ? pool.producers() : List.of(producer)) {
+            templates.add(shard.template());
+            topics.add(topic);
+        }
+        priorityLanes.ifAvailable(lanes -> {
+            templates.add(lanes.template());
+            topics.add(lanes.topic());
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread thread = new Thread(this::fetchMetadata, "producer-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void fetchMetadata() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (int i = 0; i < templates.size(); i++) {
+            while (true) {
+                try {
+                    templates.get(i).partitionsFor(topics.get(i));
+                    break;
+                } catch (RuntimeException ex) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        log.warn("Не удалось прогреть продюсер Kafka для топика {}: {}", topics.get(i), ex.getMessage());
+                        return;
+                    }
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        log.info("Продюсеры Kafka прогреты за {} мс", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.dto.DroneDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Продюсер Kafka, настройки которого меняются на ходу (см. {@link AdaptiveLingerController}).
+ * <p>
+ * Новые настройки применяются к копии исходной фабрики ({@link ProducerFactory#copyWithConfigurationOverride}),
+ * и шаблон подменяется атомарно: следующие отправки сразу идут через новый продюсер. Старый продюсер закрывается
+ * только после выхода из всех начатых в нем вызовов {@code send()}, а закрытие дожидается доставки уже накопленных
+ * записей, поэтому отправка не может попасть на закрытый продюсер.
+ * <p>
+ * Перед переключением новый продюсер загружает метаданные топика: иначе первые отправки через него ждали бы
+ * их дольше короткого {@code max.block.ms} и завершались ошибкой. Если брокер не ответил за
+ * {@code drone.producer.reconfigure.warmup-timeout-ms}, отправка остается на прежнем продюсере.
+ */
+@Component
+public class ReconfigurableProducer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconfigurableProducer.class);
+
+    /** Пауза между проверками, что из старого продюсера вышли все отправки; send() ждет не дольше max.block.ms */
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final long WARMUP_RETRY_DELAY_MS = 100;
+
+    private final ProducerFactory<String, DroneDto> baseFactory;
+
+    /** Исходная фабрика создана для этого продюсера, а не является бином Spring, и закрывается вместе с ним */
+    private final boolean ownsBaseFactory;
+
+    /** Топик, метаданные которого загружаются новым продюсером до переключения */
+    private final String warmupTopic;
+
+    private final long warmupTimeoutMs;
+
+    private final Map<String, Object> overrides = new HashMap<>();
+
+    private volatile Generation current;
+
+    @Autowired
+    public ReconfigurableProducer(KafkaTemplate<String, DroneDto> kafkaTemplate,
+                                  @Value("${spring.kafka.topic.drone}") String warmupTopic,
+                                  @Value("${drone.producer.reconfigure.warmup-timeout-ms:5000}") long warmupTimeoutMs) {
+        this(kafkaTemplate, warmupTopic, warmupTimeoutMs, false);
+    }
+
+    public ReconfigurableProducer(KafkaTemplate<String, DroneDto> kafkaTemplate, String warmupTopic,
+                                  long warmupTimeoutMs, boolean ownsBaseFactory) {
+        this.baseFactory = kafkaTemplate.getProducerFactory();
+        this.warmupTopic = warmupTopic;
+        this.warmupTimeoutMs = warmupTimeoutMs;
+        this.ownsBaseFactory = ownsBaseFactory;
+        this.current = new Generation(baseFactory, kafkaTemplate);
+    }
+
+    public CompletableFuture<SendResult<String, DroneDto>> send(String topic, Integer partition, String key,
+                                                                DroneDto droneDto) {
+        Generation generation = enter();
+        try {
+            return partition == null
+                    ? generation.template.send(topic, key, droneDto)
+                    : generation.template.send(topic, partition, key, droneDto);
+        } finally {
+            generation.senders.decrementAndGet();
+        }
+    }
+
+    /**
+     * Текущий шаблон для запросов метаданных; для отправки используется {@link #send}.
+     */
+    public KafkaTemplate<String, DroneDto> template() {
+        return current.template;
+    }
+
+    public Map<String, Object> configurationProperties() {
+        return current.template.getProducerFactory().getConfigurationProperties();
+    }
+
+    /**
+     * Создает продюсер с измененными настройками, прогревает его и переключает на него отправку.
+     * Вызывающий поток дожидается выхода начатых отправок из старого продюсера и закрывает его.
+     *
+     * @return {@code false}, если новый продюсер не получил метаданные топика и отправка осталась на прежнем
+     */
+    public synchronized boolean reconfigure(Map<String, Object> configs) {
+        if (overrides.entrySet().containsAll(configs.entrySet())) {
+            return true;
+        }
+        Map<String, Object> next = new HashMap<>(overrides);
+        next.putAll(configs);
+        ProducerFactory<String, DroneDto> factory = baseFactory.copyWithConfigurationOverride(Map.copyOf(next));
+        Generation candidate = new Generation(factory, new KafkaTemplate<>(factory));
+        if (!warmUp(candidate.template)) {
+            close(candidate);
+            return false;
+        }
+        overrides.putAll(configs);
+        Generation retired = current;
+        current = candidate;
+        while (retired.senders.get() > 0) {
+            LockSupport.parkNanos(DRAIN_POLL_NANOS);
+        }
+        close(retired);
+        return true;
+    }
+
+    /**
+     * Дожидается отправки накопленных записей и закрывает продюсер, если им не управляет Spring.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        Generation generation = current;
+        if (generation.factory != baseFactory || ownsBaseFactory) {
+            try {
+                generation.template.flush();
+            } catch (RuntimeException ex) {
+                log.warn("Не удалось дослать записи продюсера Kafka: {}", ex.getMessage());
+            }
+            close(generation);
+        }
+    }
+
+    private boolean warmUp(KafkaTemplate<String, DroneDto> template) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(warmupTimeoutMs);
+        while (true) {
+            try {
+                template.partitionsFor(warmupTopic);
+                return true;
+            } catch (RuntimeException ex) {
+                if (System.nanoTime() - deadline >= 0) {
+                    log.warn("Новый продюсер Kafka не получил метаданные топика {}, настройки не применены: {}",
+                            warmupTopic, ex.getMessage());
+                    return false;
+                }
+            }
+            try {
+                Thread.sleep(WARMUP_RETRY_DELAY_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private Generation enter() {
+        while (true) {
+            Generation generation = current;
+            generation.senders.incrementAndGet();
+            if (generation == current) {
+                return generation;
+            }
+            // Продюсер успели заменить, и старый может уже закрываться
+            generation.senders.decrementAndGet();
+        }
+    }
+
+    private void close(Generation generation) {
+        ProducerFactory<String, DroneDto> factory = generation.factory;
+        if (factory == baseFactory && !ownsBaseFactory) {
+            // Фабрику-бин закроет Spring, здесь закрывается только ее продюсер
+            factory.reset();
+        } else if (factory instanceof DisposableBean disposable) {
+            try {
+                disposable.destroy();
+            } catch (Exception ex) {
+                log.warn("Не удалось закрыть продюсер Kafka: {}", ex.getMessage());
+            }
+        } else {
+            factory.reset();
+        }
+    }
+
+    private static final class Generation {
+
+        private final ProducerFactory<String, DroneDto> factory;
+
+        private final KafkaTemplate<String, DroneDto> template;
+
+        /** Потоки внутри send() этого продюсера */
+        private final AtomicInteger senders = new AtomicInteger();
+
+        private Generation(ProducerFactory<String, DroneDto> factory, KafkaTemplate<String, DroneDto> template) {
+            this.factory = factory;
+            this.template = template;
+        }
+    }
+}
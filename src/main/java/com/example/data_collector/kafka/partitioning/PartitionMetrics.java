@@ -0,0 +1,56 @@
+package com.example.data_collector.kafka.partitioning;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Число отправок и задержка подтверждения по каждой партиции, чтобы был виден перекос нагрузки.
+ * Метрики создаются при первой отправке в партицию и далее берутся из кэша.
+ */
+@Component
+public class PartitionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Map<Integer, PartitionMeters>> meters = new ConcurrentHashMap<>();
+
+    public PartitionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(RecordMetadata metadata, long startNanos) {
+        if (metadata == null) {
+            return;
+        }
+        PartitionMeters partitionMeters = meters
+                .computeIfAbsent(metadata.topic(), topic -> new ConcurrentHashMap<>())
+                .computeIfAbsent(metadata.partition(), partition -> register(metadata.topic(), partition));
+        partitionMeters.sends.increment();
+        partitionMeters.ackLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private PartitionMeters register(String topic, int partition) {
+        String partitionTag = String.valueOf(partition);
+        return new PartitionMeters(
+                Counter.builder("drone.kafka.partition.sends")
+                        .tag("topic", topic)
+                        .tag("partition", partitionTag)
+                        .description("Подтвержденные отправки по партициям")
+                        .register(meterRegistry),
+                Timer.builder("drone.kafka.partition.ack")
+                        .tag("topic", topic)
+                        .tag("partition", partitionTag)
+                        .description("Задержка подтверждения брокера по партициям")
+                        .register(meterRegistry));
+    }
+
+    private record PartitionMeters(Counter sends, Timer ackLatency) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.data_collector.kafka.partitioning;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.ReconfigurableProducer;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Выбор ключа и партиции записи согласно {@code drone.partitioning.strategy}.
+ * <p>
+ * В режиме {@link PartitioningStrategy#LOAD_AWARE} поток каждого устройства измеряется посекундно.
+ * Пока устройство не "горячее", запись попадает в ту же партицию, что выбрал бы партиционер Kafka по ключу.
+ * "Горячее" устройство (выше {@code hot-key-threshold} записей/с) распределяется по {@code hot-key-spread}
+ * соседним партициям по хешу модели. Порядок сохраняется внутри пары (устройство, модель),
+ * кроме короткого момента смены состояния устройства. Состояние снимается с гистерезисом при падении потока вдвое.
+ */
+@Component
+public class PartitionRouter {
+
+    private final PartitioningStrategy strategy;
+
+    private final int geohashPrecision;
+
+    private final long hotKeyThreshold;
+
+    private final int hotKeySpread;
+
+    private final ReconfigurableProducer producer;
+
+    private final Map<String, KeyLoad> loads = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> partitionCounts = new ConcurrentHashMap<>();
+
+    public PartitionRouter(@Value("${drone.partitioning.strategy:detected-by}") PartitioningStrategy strategy,
+                           @Value("${drone.partitioning.geohash-precision:5}") int geohashPrecision,
+                           @Value("${drone.partitioning.hot-key-threshold:500}") long hotKeyThreshold,
+                           @Value("${drone.partitioning.hot-key-spread:4}") int hotKeySpread,
+                           ReconfigurableProducer producer) {
+        this.strategy = strategy;
+        this.geohashPrecision = geohashPrecision;
+        this.hotKeyThreshold = hotKeyThreshold;
+        this.hotKeySpread = hotKeySpread;
+        this.producer = producer;
+    }
+
+    public String key(DroneDto droneDto) {
+        return switch (strategy) {
+            case DETECTED_BY, LOAD_AWARE -> droneDto.getDetectedBy();
+            case COMPOSITE -> droneDto.getDetectedBy() + ":" + droneDto.getModel();
+            case GEOHASH -> GeoHash.encode(droneDto.latitudeValue(), droneDto.longitudeValue(), geohashPrecision);
+        };
+    }
+
+    /**
+     * @return номер партиции или {@code null}, если партицию выбирает Kafka по ключу
+     */
+    public Integer partition(String topic, DroneDto droneDto, String key) {
+        if (strategy != PartitioningStrategy.LOAD_AWARE || key == null) {
+            return null;
+        }
+        int partitions = partitionCount(topic);
+        if (partitions <= 1) {
+            return null;
+        }
+
+        KeyLoad load = loads.computeIfAbsent(key, k -> new KeyLoad());
+        load.current.increment();
+
+        int base = Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % partitions;
+        if (!load.hot) {
+            return base;
+        }
+        String model = droneDto.getModel();
+        int offset = Utils.toPositive(model != null ? model.hashCode() : 0) % Math.min(hotKeySpread, partitions);
+        return (base + offset) % partitions;
+    }
+
+    /**
+     * Пересчитывает поток по ключам за прошедшую секунду и удаляет неактивные ключи.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void rollWindow() {
+        if (strategy != PartitioningStrategy.LOAD_AWARE) {
+            return;
+        }
+        loads.values().removeIf(load -> {
+            long rate = load.current.sumThenReset();
+            load.hot = load.hot ? rate > hotKeyThreshold / 2 : rate > hotKeyThreshold;
+            return rate == 0 && !load.hot;
+        });
+    }
+
+    @Scheduled(fixedRate = 30_000)
+    public void refreshPartitionCounts() {
+        partitionCounts.clear();
+    }
+
+    private int partitionCount(String topic) {
+        Integer count = partitionCounts.get(topic);
+        if (count == null) {
+            var partitions = producer.template().partitionsFor(topic);
+            count = partitions != null ? partitions.size() : 0;
+            partitionCounts.put(topic, count);
+        }
+        return count;
+    }
+
+    private static final class KeyLoad {
+
+        private final LongAdder current = new LongAdder();
+
+        private volatile boolean hot;
+    }
+}
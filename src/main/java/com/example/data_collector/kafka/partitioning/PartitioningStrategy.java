@@ -0,0 +1,28 @@
+package com.example.data_collector.kafka.partitioning;
+
+/**
+ * Стратегия выбора ключа и партиции записи о БПЛА.
+ */
+public enum PartitioningStrategy {
+
+    /**
+     * Ключ - устройство обнаружения, партицию выбирает Kafka (поведение по умолчанию).
+     */
+    DETECTED_BY,
+
+    /**
+     * Ключ - пара (устройство обнаружения, модель).
+     */
+    COMPOSITE,
+
+    /**
+     * Ключ - ячейка geohash по координатам цели.
+     */
+    GEOHASH,
+
+    /**
+     * Ключ - устройство обнаружения; записи "горячих" устройств распределяются по ограниченному
+     * набору партиций по модели, сохраняя порядок внутри пары (устройство, модель).
+     */
+    LOAD_AWARE
+}
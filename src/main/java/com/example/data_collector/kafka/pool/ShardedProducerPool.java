@@ -0,0 +1,97 @@
+package com.example.data_collector.kafka.pool;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.ReconfigurableProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Пул из нескольких продюсеров Kafka: у каждого свой поток отправки, аккумулятор и буфер.
+ * Запись направляется в шард по хешу ключа, поэтому все записи с одним ключом идут через один продюсер
+ * и сохраняют порядок. Фабрики шардов копируются с автоконфигурированной фабрики с собственным
+ * {@code client.id}, поэтому метрики клиента Kafka публикуются по каждому шарду отдельно.
+ * Параметр {@code buffer.memory} действует на каждый продюсер. Каждый шард - {@link ReconfigurableProducer},
+ * поэтому его настройки можно менять без остановки отправки.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.producer.pool", name = "enabled", havingValue = "true")
+public class ShardedProducerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedProducerPool.class);
+
+    private final List<ReconfigurableProducer> producers;
+
+    private final Counter[] sends;
+
+    public ShardedProducerPool(ProducerFactory<String, DroneDto> producerFactory,
+                               @Value("${drone.producer.pool.size:0}") int size,
+                               @Value("${spring.kafka.topic.drone}") String topic,
+                               @Value("${drone.producer.reconfigure.warmup-timeout-ms:5000}") long warmupTimeoutMs,
+                               MeterRegistry meterRegistry) {
+        int shards = size > 0 ? size : Runtime.getRuntime().availableProcessors();
+        Object baseClientId = producerFactory.getConfigurationProperties().get(ProducerConfig.CLIENT_ID_CONFIG);
+        String clientIdPrefix = baseClientId == null ? "drone-producer" : baseClientId.toString();
+
+        this.producers = new ArrayList<>(shards);
+        this.sends = new Counter[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            ProducerFactory<String, DroneDto> factory = producerFactory.copyWithConfigurationOverride(
+                    Map.of(ProducerConfig.CLIENT_ID_CONFIG, clientIdPrefix + "-" + shard));
+            producers.add(new ReconfigurableProducer(new KafkaTemplate<>(factory), topic, warmupTimeoutMs, true));
+            sends[shard] = Counter.builder("drone.producer.pool.sends")
+                    .tag("shard", String.valueOf(shard))
+                    .description("Записи, отправленные через шард пула продюсеров")
+                    .register(meterRegistry);
+        }
+        log.info("Пул продюсеров Kafka: {} шардов", shards);
+    }
+
+    /**
+     * Продюсер шарда для ключа записи; учитывает отправку в метриках шарда.
+     */
+    public ReconfigurableProducer producer(String key) {
+        int shard = shard(key);
+        sends[shard].increment();
+        return producers.get(shard);
+    }
+
+    int shard(String key) {
+        return key == null ? 0 : Math.floorMod(spread(key.hashCode()), producers.size());
+    }
+
+    public int size() {
+        return producers.size();
+    }
+
+    public List<ReconfigurableProducer> producers() {
+        return producers;
+    }
+
+    /**
+     * Дожидается отправки накопленных записей во всех шардах и закрывает продюсеры.
+     */
+    @PreDestroy
+    public void close() {
+        for (ReconfigurableProducer producer : producers) {
+            producer.close();
+        }
+    }
+
+    private static int spread(int hash) {
+        // Перемешиваем старшие биты, иначе близкие строковые ключи (radar-1, radar-2) попадают в соседние шарды
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.data_collector.kafka.priority;
+
+/**
+ * Полоса отправки записи в Kafka.
+ */
+public enum Lane {
+    /** Приоритетные записи: отдельный продюсер без ожидания пакета, отдельный топик и резерв лимита отправок */
+    CRITICAL("critical"),
+    /** Остальной поток через основной продюсер */
+    BULK("bulk");
+
+    private final String tag;
+
+    Lane(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.data_collector.kafka.priority;
+
+import com.example.data_collector.dto.DroneDto;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Определяет полосу записи по правилам {@link PriorityRule}: запись приоритетна, если соответствует
+ * хотя бы одному правилу. Правила разбираются при создании, проверка записи не выделяет память.
+ */
+public final class PriorityClassifier {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final Rule[] rules;
+
+    public PriorityClassifier(List<PriorityRule> rules) {
+        this.rules = new Rule[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            this.rules[i] = new Rule(i, rules.get(i));
+        }
+    }
+
+    public Lane classify(DroneDto droneDto) {
+        for (Rule rule : rules) {
+            if (rule.matches(droneDto)) {
+                return Lane.CRITICAL;
+            }
+        }
+        return Lane.BULK;
+    }
+
+    public int ruleCount() {
+        return rules.length;
+    }
+
+    private static final class Rule {
+
+        private final double minSpeed;
+
+        private final double maxSpeed;
+
+        private final double minAltitude;
+
+        private final double maxAltitude;
+
+        /** Единичные векторы центров зон (x, y, z подряд) */
+        private final double[] zoneCenters;
+
+        /** Косинус углового радиуса каждой зоны */
+        private final double[] zoneMinDots;
+
+        private final Set<String> models;
+
+        private final Set<String> sensors;
+
+        private Rule(int index, PriorityRule rule) {
+            this.minSpeed = rule.minSpeed() != null ? rule.minSpeed() : Double.NEGATIVE_INFINITY;
+            this.maxSpeed = rule.maxSpeed() != null ? rule.maxSpeed() : Double.POSITIVE_INFINITY;
+            this.minAltitude = rule.minAltitude() != null ? rule.minAltitude() : Double.NEGATIVE_INFINITY;
+            this.maxAltitude = rule.maxAltitude() != null ? rule.maxAltitude() : Double.POSITIVE_INFINITY;
+            this.models = normalize(rule.models());
+            this.sensors = normalize(rule.sensors());
+
+            List<PriorityRule.Zone> zones = rule.zones() != null ? rule.zones() : List.of();
+            this.zoneCenters = new double[zones.size() * 3];
+            this.zoneMinDots = new double[zones.size()];
+            for (int i = 0; i < zones.size(); i++) {
+                PriorityRule.Zone zone = zones.get(i);
+                if (!(zone.radiusKm() > 0)) {
+                    throw new IllegalArgumentException("Радиус зоны в правиле приоритета " + index + " должен быть положительным");
+                }
+                double latitude = Math.toRadians(zone.latitude());
+                double longitude = Math.toRadians(zone.longitude());
+                zoneCenters[i * 3] = Math.cos(latitude) * Math.cos(longitude);
+                zoneCenters[i * 3 + 1] = Math.cos(latitude) * Math.sin(longitude);
+                zoneCenters[i * 3 + 2] = Math.sin(latitude);
+                zoneMinDots[i] = Math.cos(Math.min(Math.PI, zone.radiusKm() / EARTH_RADIUS_KM));
+            }
+
+            boolean empty = rule.minSpeed() == null && rule.maxSpeed() == null
+                    && rule.minAltitude() == null && rule.maxAltitude() == null
+                    && zoneMinDots.length == 0 && models == null && sensors == null;
+            if (empty) {
+                throw new IllegalArgumentException("Правило приоритета " + index + " не содержит условий");
+            }
+        }
+
+        private boolean matches(DroneDto droneDto) {
+            double speed = droneDto.speedValue();
+            if (speed < minSpeed || speed > maxSpeed) {
+                return false;
+            }
+            double altitude = droneDto.flightAltitudeValue();
+            if (altitude < minAltitude || altitude > maxAltitude) {
+                return false;
+            }
+            if (models != null && !contains(models, droneDto.getModel())) {
+                return false;
+            }
+            if (sensors != null && !contains(sensors, droneDto.getDetectedBy())) {
+                return false;
+            }
+            return zoneMinDots.length == 0 || inAnyZone(droneDto.latitudeValue(), droneDto.longitudeValue());
+        }
+
+        private boolean inAnyZone(double latitudeDegrees, double longitudeDegrees) {
+            double latitude = Math.toRadians(latitudeDegrees);
+            double longitude = Math.toRadians(longitudeDegrees);
+            double x = Math.cos(latitude) * Math.cos(longitude);
+            double y = Math.cos(latitude) * Math.sin(longitude);
+            double z = Math.sin(latitude);
+            for (int i = 0; i < zoneMinDots.length; i++) {
+                double dot = x * zoneCenters[i * 3] + y * zoneCenters[i * 3 + 1] + z * zoneCenters[i * 3 + 2];
+                if (dot >= zoneMinDots[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean contains(Set<String> values, String value) {
+            return value != null && values.contains(value);
+        }
+
+        private static Set<String> normalize(Set<String> values) {
+            if (values == null || values.isEmpty()) {
+                return null;
+            }
+            // Сравнение без учета регистра без приведения строки записи к нижнему регистру
+            Set<String> normalized = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            normalized.addAll(values);
+            return normalized;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.data_collector.kafka.priority;
+
+import com.example.data_collector.dto.DroneDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Приоритетная полоса отправки в Kafka.
+ * <p>
+ * Записи, соответствующие правилам {@code drone.priority.rules}, отправляются в топик {@code drone.priority.topic}
+ * через отдельный продюсер с собственным буфером и минимальным {@code linger.ms}, поэтому не ждут в аккумуляторе
+ * и очереди запросов основного продюсера, который можно настраивать на крупные пакеты. Часть лимита
+ * {@code drone.backpressure.max-in-flight} зарезервирована за полосой (см. {@code InFlightLimiter}).
+ * Задержка от отправки до подтверждения брокера публикуется по каждой полосе в {@code drone.ingest.lane}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.priority", name = "enabled", havingValue = "true")
+public class PriorityLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(PriorityLanes.class);
+
+    private final PriorityClassifier classifier;
+
+    private final String topic;
+
+    private final ProducerFactory<String, DroneDto> factory;
+
+    private final KafkaTemplate<String, DroneDto> template;
+
+    private final Timer[] timers;
+
+    public PriorityLanes(ProducerFactory<String, DroneDto> producerFactory,
+                         Environment environment,
+                         @Value("${drone.priority.topic:drone-topic-critical}") String topic,
+                         @Value("${drone.priority.producer.linger-ms:0}") int lingerMs,
+                         @Value("${drone.priority.producer.batch-size:16384}") int batchSize,
+                         @Value("${drone.priority.producer.compression-type:none}") String compressionType,
+                         @Value("${drone.priority.producer.buffer-memory:33554432}") long bufferMemory,
+                         MeterRegistry meterRegistry) {
+        List<PriorityRule> rules = Binder.get(environment)
+                .bind("drone.priority.rules", Bindable.listOf(PriorityRule.class))
+                .orElse(List.of());
+        this.classifier = new PriorityClassifier(rules);
+        this.topic = topic;
+
+        Object baseClientId = producerFactory.getConfigurationProperties().get(ProducerConfig.CLIENT_ID_CONFIG);
+        String clientId = (baseClientId == null ? "drone-producer" : baseClientId.toString()) + "-critical";
+        this.factory = producerFactory.copyWithConfigurationOverride(Map.of(
+                ProducerConfig.CLIENT_ID_CONFIG, clientId,
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+                ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory));
+        this.template = new KafkaTemplate<>(factory);
+
+        Lane[] lanes = Lane.values();
+        this.timers = new Timer[lanes.length];
+        for (Lane lane : lanes) {
+            timers[lane.ordinal()] = Timer.builder("drone.ingest.lane")
+                    .tag("lane", lane.tag())
+                    .description("Время от отправки записи до подтверждения брокера по полосам")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+        if (classifier.ruleCount() == 0) {
+            log.warn("Приоритетная полоса включена, но правила drone.priority.rules не заданы");
+        } else {
+            log.info("Приоритетная полоса: {} правил, топик {}", classifier.ruleCount(), topic);
+        }
+    }
+
+    public Lane classify(DroneDto droneDto) {
+        return classifier.classify(droneDto);
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    public KafkaTemplate<String, DroneDto> template() {
+        return template;
+    }
+
+    /**
+     * Записывает задержку подтверждения записи полосы от {@code startNanos} (значение {@link System#nanoTime()}).
+     */
+    public void record(Lane lane, long startNanos) {
+        timers[lane.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer timer(Lane lane) {
+        return timers[lane.ordinal()];
+    }
+
+    /**
+     * Дожидается отправки накопленных приоритетных записей и закрывает продюсер полосы.
+     */
+    @PreDestroy
+    public void close() {
+        try {
+            template.flush();
+        } catch (RuntimeException ex) {
+            log.warn("Не удалось дослать записи приоритетной полосы: {}", ex.getMessage());
+        }
+        if (factory instanceof DisposableBean disposable) {
+            try {
+                disposable.destroy();
+            } catch (Exception ex) {
+                log.warn("Не удалось закрыть продюсер приоритетной полосы: {}", ex.getMessage());
+            }
+        } else {
+            factory.reset();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.data_collector.kafka.priority;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Правило из {@code drone.priority.rules}. Запись соответствует правилу, если выполнены все заданные условия;
+ * незаданные условия не проверяются. Списки моделей и устройств сравниваются без учета регистра.
+ *
+ * @param minSpeed    минимальная скорость, включительно
+ * @param maxSpeed    максимальная скорость, включительно
+ * @param minAltitude минимальная высота полета, включительно
+ * @param maxAltitude максимальная высота полета, включительно
+ * @param zones       охраняемые зоны; достаточно попадания в любую из них
+ * @param models      модели БПЛА
+ * @param sensors     устройства обнаружения
+ */
+public record PriorityRule(Double minSpeed,
+                           Double maxSpeed,
+                           Double minAltitude,
+                           Double maxAltitude,
+                           List<Zone> zones,
+                           Set<String> models,
+                           Set<String> sensors) {
+
+    /**
+     * Круговая зона на поверхности Земли.
+     */
+    public record Zone(double latitude, double longitude, double radiusKm) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.data_collector.kafka.serialization;
+
+import com.example.data_collector.dto.DroneDto;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Компактный бинарный формат записи о БПЛА.
+ * <pre>
+ * byte    версия формата (сейчас 1)
+ * byte    маска присутствия полей: speed, latitude, longitude, flightAltitude, model, detectedBy
+ * double  speed, latitude, longitude, flightAltitude (big-endian, всегда 4 x 8 байт)
+ * varint  длина model в байтах UTF-8, затем байты (только если поле присутствует)
+ * varint  длина detectedBy в байтах UTF-8, затем байты (только если поле присутствует)
+ * </pre>
+ * Новые версии формата должны дописывать поля в конец, чтобы декодер старой версии оставался совместимым.
+ */
+public final class DroneDtoBinaryCodec {
+
+    public static final byte VERSION_1 = 1;
+
+    private static final int SPEED = 1;
+    private static final int LATITUDE = 1 << 1;
+    private static final int LONGITUDE = 1 << 2;
+    private static final int FLIGHT_ALTITUDE = 1 << 3;
+    private static final int MODEL = 1 << 4;
+    private static final int DETECTED_BY = 1 << 5;
+
+    private static final int FIXED_SIZE = 2 + 4 * Double.BYTES;
+
+    private DroneDtoBinaryCodec() {
+    }
+
+    public static byte[] encode(DroneDto droneDto) {
+        byte[] model = utf8(droneDto.getModel());
+        byte[] detectedBy = utf8(droneDto.getDetectedBy());
+
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(model, detectedBy));
+        writeTo(buffer, droneDto, model, detectedBy);
+        return buffer.array();
+    }
+
+    public static DroneDto decode(ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != VERSION_1) {
+                throw new SerializationException("Неподдерживаемая версия бинарного формата БПЛА: " + version);
+            }
+            int mask = buffer.get();
+            double speed = buffer.getDouble();
+            double latitude = buffer.getDouble();
+            double longitude = buffer.getDouble();
+            double flightAltitude = buffer.getDouble();
+
+            String model = (mask & MODEL) != 0 ? readString(buffer) : null;
+            String detectedBy = (mask & DETECTED_BY) != 0 ? readString(buffer) : null;
+
+            DroneDto droneDto = DroneDto.of(model, speed, latitude, longitude, flightAltitude, detectedBy);
+            if ((mask & SPEED) == 0) {
+                droneDto.setSpeed(null);
+            }
+            if ((mask & LATITUDE) == 0) {
+                droneDto.setLatitude(null);
+            }
+            if ((mask & LONGITUDE) == 0) {
+                droneDto.setLongitude(null);
+            }
+            if ((mask & FLIGHT_ALTITUDE) == 0) {
+                droneDto.setFlightAltitude(null);
+            }
+            return droneDto;
+        } catch (RuntimeException ex) {
+            if (ex instanceof SerializationException) {
+                throw ex;
+            }
+            throw new SerializationException("Повреждённая бинарная запись БПЛА", ex);
+        }
+    }
+
+    private static void writeTo(ByteBuffer buffer, DroneDto droneDto, byte[] model, byte[] detectedBy) {
+        int mask = (droneDto.hasSpeed() ? SPEED : 0)
+                | (droneDto.hasLatitude() ? LATITUDE : 0)
+                | (droneDto.hasLongitude() ? LONGITUDE : 0)
+                | (droneDto.hasFlightAltitude() ? FLIGHT_ALTITUDE : 0)
+                | (model != null ? MODEL : 0)
+                | (detectedBy != null ? DETECTED_BY : 0);
+
+        buffer.put(VERSION_1);
+        buffer.put((byte) mask);
+        buffer.putDouble(droneDto.speedValue());
+        buffer.putDouble(droneDto.latitudeValue());
+        buffer.putDouble(droneDto.longitudeValue());
+        buffer.putDouble(droneDto.flightAltitudeValue());
+        if (model != null) {
+            writeBytes(buffer, model);
+        }
+        if (detectedBy != null) {
+            writeBytes(buffer, detectedBy);
+        }
+    }
+
+    private static int encodedSize(byte[] model, byte[] detectedBy) {
+        int size = FIXED_SIZE;
+        if (model != null) {
+            size += varIntSize(model.length) + model.length;
+        }
+        if (detectedBy != null) {
+            size += varIntSize(detectedBy.length) + detectedBy.length;
+        }
+        return size;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        int value = bytes.length;
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new SerializationException("Некорректная длина строки в бинарной записи БПЛА");
+            }
+            b = buffer.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        if (length < 0 || length > buffer.remaining()) {
+            throw new SerializationException("Некорректная длина строки в бинарной записи БПЛА");
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
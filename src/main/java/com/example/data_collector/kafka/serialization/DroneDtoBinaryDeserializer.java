@@ -0,0 +1,18 @@
+package com.example.data_collector.kafka.serialization;
+
+import com.example.data_collector.dto.DroneDto;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Kafka десериализатор данных о БПЛА из компактного бинарного формата {@link DroneDtoBinaryCodec}.
+ * Предназначен для потребителей топика, записанного {@link DroneDtoBinarySerializer}.
+ */
+public class DroneDtoBinaryDeserializer implements Deserializer<DroneDto> {
+
+    @Override
+    public DroneDto deserialize(String topic, byte[] data) {
+        return data != null ? DroneDtoBinaryCodec.decode(ByteBuffer.wrap(data)) : null;
+    }
+}
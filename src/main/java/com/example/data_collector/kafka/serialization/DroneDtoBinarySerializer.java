@@ -0,0 +1,16 @@
+package com.example.data_collector.kafka.serialization;
+
+import com.example.data_collector.dto.DroneDto;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka сериализатор данных о БПЛА в компактный бинарный формат {@link DroneDtoBinaryCodec}.
+ * Подключается через {@code spring.kafka.producer.value-serializer}.
+ */
+public class DroneDtoBinarySerializer implements Serializer<DroneDto> {
+
+    @Override
+    public byte[] serialize(String topic, DroneDto data) {
+        return data != null ? DroneDtoBinaryCodec.encode(data) : null;
+    }
+}
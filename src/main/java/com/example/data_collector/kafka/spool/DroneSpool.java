@@ -0,0 +1,394 @@
+package com.example.data_collector.kafka.spool;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.serialization.DroneDtoBinaryCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Локальный журнал упреждающей записи для данных о БПЛА, не доставленных в Kafka.
+ * <p>
+ * Записи добавляются в конец сегментов фиксированного размера, отображенных в память.
+ * Формат записи: {@code int длина, int CRC32C, байты DroneDtoBinaryCodec}; нулевая длина означает конец данных сегмента.
+ * Длина записывается последней, поэтому незавершенная запись при сбое не считается валидной.
+ * Позиция чтения сохраняется в файле {@code spool.checkpoint}; прочитанные сегменты удаляются.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.spool", name = "enabled", havingValue = "true")
+public class DroneSpool {
+
+    private static final Logger log = LoggerFactory.getLogger(DroneSpool.class);
+
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final String SEGMENT_PREFIX = "spool-";
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final long maxDiskBytes;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private final FileChannel checkpoint;
+
+    private final AtomicLong pendingRecords = new AtomicLong();
+
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    private final Counter appended;
+
+    private final Counter rejected;
+
+    private long nextSegmentId;
+
+    private int readOffset;
+
+    private boolean dirty;
+
+    public DroneSpool(@Value("${drone.spool.directory:./spool}") Path directory,
+                      @Value("${drone.spool.segment-size:67108864}") int segmentSize,
+                      @Value("${drone.spool.max-disk-bytes:1073741824}") long maxDiskBytes,
+                      @Value("${drone.spool.fsync:interval}") FsyncPolicy fsyncPolicy,
+                      MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxDiskBytes = maxDiskBytes;
+        this.fsyncPolicy = fsyncPolicy;
+
+        try {
+            Files.createDirectories(directory);
+            this.checkpoint = FileChannel.open(directory.resolve("spool.checkpoint"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            recover();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Не удалось открыть спул " + directory, ex);
+        }
+
+        Gauge.builder("drone.spool.depth", pendingRecords, AtomicLong::get)
+                .description("Число записей в спуле, ожидающих отправки в Kafka")
+                .register(meterRegistry);
+        Gauge.builder("drone.spool.bytes", pendingBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.appended = Counter.builder("drone.spool.appended")
+                .description("Записи, сохраненные в спул")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("drone.spool.rejected")
+                .description("Записи, не поместившиеся в спул из-за лимита диска")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Добавляет запись в конец спула.
+     *
+     * @return {@code false}, если запись не помещается в лимит диска
+     */
+    public synchronized boolean append(DroneDto droneDto) {
+        byte[] payload = DroneDtoBinaryCodec.encode(droneDto);
+        int recordSize = HEADER_SIZE + payload.length;
+
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writeOffset + recordSize + Integer.BYTES > segmentSize) {
+            if (tail != null && segments.size() == 1 && readOffset >= tail.writeOffset) {
+                // Единственный сегмент полностью отправлен - освобождаем место до создания нового
+                dropHead();
+                saveCheckpoint();
+            }
+            if ((long) (segments.size() + 1) * segmentSize > maxDiskBytes
+                    || recordSize + Integer.BYTES > segmentSize) {
+                rejected.increment();
+                return false;
+            }
+            try {
+                tail = openSegment(nextSegmentId++);
+            } catch (IOException ex) {
+                log.error("Не удалось создать сегмент спула: {}", ex.getMessage(), ex);
+                rejected.increment();
+                return false;
+            }
+            segments.addLast(tail);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        MappedByteBuffer buffer = tail.buffer;
+        int offset = tail.writeOffset;
+        buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        buffer.put(offset + HEADER_SIZE, payload);
+        buffer.putInt(offset, payload.length);
+        tail.writeOffset += recordSize;
+
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            buffer.force(offset, recordSize);
+        } else {
+            dirty = true;
+        }
+
+        pendingRecords.incrementAndGet();
+        pendingBytes.addAndGet(recordSize);
+        appended.increment();
+        return true;
+    }
+
+    /**
+     * Возвращает до {@code max} самых старых записей, не удаляя их из спула.
+     */
+    public synchronized List<DroneDto> peek(int max) {
+        List<DroneDto> records = new ArrayList<>(Math.min(max, (int) Math.min(pendingRecords.get(), Integer.MAX_VALUE)));
+        Iterator<Segment> iterator = segments.iterator();
+        int offset = readOffset;
+        while (records.size() < max && iterator.hasNext()) {
+            Segment segment = iterator.next();
+            while (records.size() < max && offset < segment.writeOffset) {
+                int length = segment.buffer.getInt(offset);
+                records.add(DroneDtoBinaryCodec.decode(segment.buffer.slice(offset + HEADER_SIZE, length)));
+                offset += HEADER_SIZE + length;
+            }
+            offset = 0;
+        }
+        return records;
+    }
+
+    /**
+     * Удаляет из начала спула {@code count} записей, доставленных в Kafka, и сохраняет позицию чтения.
+     */
+    public synchronized void acknowledge(int count) {
+        int acknowledged = 0;
+        long released = 0;
+        while (acknowledged < count && !segments.isEmpty()) {
+            Segment head = segments.peekFirst();
+            if (readOffset >= head.writeOffset) {
+                if (head == segments.peekLast()) {
+                    break;
+                }
+                dropHead();
+                continue;
+            }
+            int recordSize = HEADER_SIZE + head.buffer.getInt(readOffset);
+            readOffset += recordSize;
+            released += recordSize;
+            acknowledged++;
+        }
+        Segment head = segments.peekFirst();
+        if (head != null && readOffset >= head.writeOffset && head != segments.peekLast()) {
+            dropHead();
+        }
+
+        pendingRecords.addAndGet(-acknowledged);
+        pendingBytes.addAndGet(-released);
+        saveCheckpoint();
+    }
+
+    /**
+     * Есть ли записи, ожидающие отправки. Пока спул не пуст, новые записи также пишутся в спул,
+     * чтобы сохранить порядок доставки.
+     */
+    public boolean hasBacklog() {
+        return pendingRecords.get() > 0;
+    }
+
+    public long depth() {
+        return pendingRecords.get();
+    }
+
+    @Scheduled(fixedDelayString = "${drone.spool.fsync-interval-ms:1000}")
+    public synchronized void flush() {
+        if (!dirty || fsyncPolicy != FsyncPolicy.INTERVAL) {
+            return;
+        }
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+        dirty = false;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                segment.buffer.force();
+            }
+            closeQuietly(segment.channel);
+        }
+        segments.clear();
+        closeQuietly(checkpoint);
+    }
+
+    private void recover() throws IOException {
+        ByteBuffer position = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        long checkpointSegment = -1;
+        int checkpointOffset = 0;
+        if (checkpoint.read(position, 0) == position.capacity()) {
+            position.flip();
+            checkpointSegment = position.getLong();
+            checkpointOffset = position.getInt();
+        }
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        nextSegmentId = checkpointSegment + 1;
+        for (Path file : files) {
+            long id = segmentId(file);
+            if (id < checkpointSegment) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            Segment segment = openSegment(id);
+            segment.writeOffset = scan(segment);
+            segments.addLast(segment);
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+        }
+
+        Segment head = segments.peekFirst();
+        readOffset = head != null && head.id == checkpointSegment ? Math.min(checkpointOffset, head.writeOffset) : 0;
+
+        long records = 0;
+        long bytes = 0;
+        int offset = readOffset;
+        for (Segment segment : segments) {
+            while (offset < segment.writeOffset) {
+                int recordSize = HEADER_SIZE + segment.buffer.getInt(offset);
+                offset += recordSize;
+                bytes += recordSize;
+                records++;
+            }
+            offset = 0;
+        }
+        pendingRecords.set(records);
+        pendingBytes.set(bytes);
+
+        if (records > 0) {
+            log.warn("В спуле {} найдено {} неотправленных записей", directory, records);
+        }
+    }
+
+    /**
+     * Находит конец валидных данных сегмента: первую нулевую длину или запись с неверной контрольной суммой.
+     */
+    private int scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        CRC32C crc = new CRC32C();
+        while (offset + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(offset + HEADER_SIZE, length));
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                log.warn("Повреждённая запись в сегменте спула {} по смещению {}, остаток сегмента отброшен",
+                        segment.id, offset);
+                buffer.putInt(offset, 0);
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        return offset;
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(id, path, channel, buffer);
+    }
+
+    private void dropHead() {
+        Segment head = segments.pollFirst();
+        readOffset = 0;
+        closeQuietly(head.channel);
+        try {
+            Files.deleteIfExists(head.path);
+        } catch (IOException ex) {
+            log.warn("Не удалось удалить сегмент спула {}: {}", head.path, ex.getMessage());
+        }
+    }
+
+    private void saveCheckpoint() {
+        Segment head = segments.peekFirst();
+        ByteBuffer position = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        // Без сегментов сохраняется номер следующего сегмента, чтобы он не был удален при восстановлении
+        position.putLong(head != null ? head.id : nextSegmentId).putInt(head != null ? readOffset : 0).flip();
+        try {
+            checkpoint.write(position, 0);
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                checkpoint.force(false);
+            }
+        } catch (IOException ex) {
+            log.warn("Не удалось сохранить позицию чтения спула: {}", ex.getMessage());
+        }
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            log.debug("Ошибка закрытия файла спула: {}", ex.getMessage());
+        }
+    }
+
+    private static final class Segment {
+
+        private final long id;
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        private int writeOffset;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.data_collector.kafka.spool;
+
+/**
+ * Политика сброса спула на диск.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Сброс после каждой записи: максимальная надежность, самая высокая задержка.
+     */
+    ALWAYS,
+
+    /**
+     * Периодический сброс с интервалом {@code drone.spool.fsync-interval-ms}.
+     */
+    INTERVAL,
+
+    /**
+     * Сброс выполняет операционная система; при сбое питания возможна потеря последних записей.
+     */
+    NEVER
+}
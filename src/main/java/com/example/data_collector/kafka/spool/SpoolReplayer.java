@@ -0,0 +1,97 @@
+package com.example.data_collector.kafka.spool;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.KafkaProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фоновая отправка накопленных в спуле записей в Kafka в порядке их поступления.
+ * Записи удаляются из спула только после подтверждения брокера; доставка - "как минимум один раз".
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.spool", name = "enabled", havingValue = "true")
+public class SpoolReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(SpoolReplayer.class);
+
+    private final DroneSpool spool;
+
+    private final KafkaProducer kafkaProducer;
+
+    private final int batchSize;
+
+    private final Counter replayed;
+
+    public SpoolReplayer(DroneSpool spool,
+                         KafkaProducer kafkaProducer,
+                         @Value("${drone.spool.replay-batch-size:500}") int batchSize,
+                         MeterRegistry meterRegistry) {
+        this.spool = spool;
+        this.kafkaProducer = kafkaProducer;
+        this.batchSize = batchSize;
+        this.replayed = Counter.builder("drone.spool.replayed")
+                .description("Записи, доставленные из спула в Kafka")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${drone.spool.replay-interval-ms:1000}")
+    public void replay() {
+        while (spool.hasBacklog()) {
+            List<DroneDto> records = spool.peek(batchSize);
+            if (records.isEmpty()) {
+                return;
+            }
+
+            int delivered = deliver(records);
+            spool.acknowledge(delivered);
+            replayed.increment(delivered);
+
+            if (delivered < records.size()) {
+                log.debug("Kafka недоступна, в спуле осталось {} записей", spool.depth());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Отправляет пачку записей конвейером и возвращает длину подтвержденного префикса.
+     */
+    private int deliver(List<DroneDto> records) {
+        List<CompletableFuture<SendResult<String, DroneDto>>> futures = new ArrayList<>(records.size());
+        try {
+            for (DroneDto droneDto : records) {
+                futures.add(kafkaProducer.sendDroneDataAsync(droneDto));
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Отправка из спула приостановлена: {}", ex.getMessage());
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(KafkaProducer.SEND_TIMEOUT_SECONDS);
+        int delivered = 0;
+        for (CompletableFuture<SendResult<String, DroneDto>> future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered++;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception ex) {
+                break;
+            }
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.data_collector.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Таймеры этапов приема записи с гистограммами для расчета перцентилей в Prometheus.
+ * Все таймеры регистрируются при старте, поэтому запись измерения не выделяет память.
+ */
+@Component
+public class IngestStageMetrics {
+
+    public enum Stage {
+        /** Разбор JSON тела запроса */
+        PARSE("parse"),
+        /** Проверка записи валидатором */
+        VALIDATE("validate"),
+        /** Вызов {@code kafkaTemplate.send} до постановки записи в буфер продюсера */
+        ENQUEUE("enqueue"),
+        /** Ожидание подтверждения брокера после постановки в буфер */
+        ACK("ack");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer[] timers;
+
+    public IngestStageMetrics(MeterRegistry meterRegistry) {
+        Stage[] stages = Stage.values();
+        timers = new Timer[stages.length];
+        for (Stage stage : stages) {
+            timers[stage.ordinal()] = Timer.builder("drone.ingest.stage")
+                    .tag("stage", stage.tag)
+                    .description("Длительность этапов приема записи о БПЛА")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Записывает длительность этапа от {@code startNanos} (значение {@link System#nanoTime()}) до текущего момента.
+     */
+    public void record(Stage stage, long startNanos) {
+        timers[stage.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer timer(Stage stage) {
+        return timers[stage.ordinal()];
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.data_collector.metrics;
+
+import com.example.data_collector.dto.DroneDto;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Измеряет время разбора тела запроса в {@link DroneDto}: чтение выполняется конвертером
+ * между {@link #beforeBodyRead} и {@link #afterBodyRead}.
+ * Время начала передается в обертке сообщения, которую Spring отдает конвертеру и затем {@link #afterBodyRead}:
+ * состояние на поток не заводится, что важно при обработке запросов виртуальными потоками.
+ */
+@ControllerAdvice
+public class ParseTimingAdvice extends RequestBodyAdviceAdapter {
+
+    private final IngestStageMetrics stageMetrics;
+
+    public ParseTimingAdvice(IngestStageMetrics stageMetrics) {
+        this.stageMetrics = stageMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == DroneDto.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        return new TimedInputMessage(inputMessage, System.nanoTime());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        if (inputMessage instanceof TimedInputMessage timed) {
+            stageMetrics.record(IngestStageMetrics.Stage.PARSE, timed.startNanos());
+        }
+        return body;
+    }
+
+    private record TimedInputMessage(HttpInputMessage delegate, long startNanos) implements HttpInputMessage {
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+    }
+}
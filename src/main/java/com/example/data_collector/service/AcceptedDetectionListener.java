@@ -0,0 +1,13 @@
+package com.example.data_collector.service;
+
+import com.example.data_collector.dto.DroneDto;
+
+/**
+ * Получатель записей, принятых {@link DroneService}: запись прошла валидацию и отправлена в Kafka
+ * (или поглощена дедупликацией/прореживанием). Вызывается в потоке обработки запроса,
+ * поэтому реализация не должна блокироваться.
+ */
+public interface AcceptedDetectionListener {
+
+    void onAccepted(DroneDto droneDto, long timestampMillis);
+}
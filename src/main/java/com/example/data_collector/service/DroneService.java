@@ -1,8 +1,12 @@
 package com.example.data_collector.service;
 
+import com.example.data_collector.dto.BatchResponse;
 import com.example.data_collector.dto.DroneDto;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Сервисный слой для обработки данных БПЛА.
@@ -11,4 +15,21 @@ import java.util.Map;
 public interface DroneService {
 
     Map<String, String> sendToKafka(DroneDto droneDto);
-}
\ No newline at end of file
+
+    /**
+     * Отправляет запись без блокировки вызывающего потока.
+     * Future завершается после подтверждения брокера или ошибкой Kafka.
+     */
+    CompletableFuture<Map<String, String>> sendToKafkaAsync(DroneDto droneDto);
+
+    /**
+     * Помещает запись в буфер продюсера и возвращает ответ, не дожидаясь подтверждения брокера.
+     */
+    Map<String, String> enqueueToKafka(DroneDto droneDto);
+
+    /**
+     * Потоково читает пакет записей (JSON-массив или NDJSON), валидирует каждую запись отдельно
+     * и отправляет корректные записи в Kafka без ожидания подтверждения по каждой.
+     */
+    BatchResponse sendBatchToKafka(InputStream body) throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.example.data_collector.service.admission;
+
+import java.util.List;
+
+/**
+ * Класс устройств обнаружения из {@code drone.admission.classes} с общим для них лимитом частоты.
+ *
+ * @param rate    записей в секунду на каждое устройство класса; 0 - без ограничения
+ * @param burst   число записей, которое устройство может отправить подряд после простоя
+ * @param sensors имена устройств; {@code *} в конце имени задает префикс
+ */
+public record SensorClass(double rate, int burst, List<String> sensors) {
+}
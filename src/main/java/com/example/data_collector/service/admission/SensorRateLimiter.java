@@ -0,0 +1,266 @@
+package com.example.data_collector.service.admission;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.exception.SensorRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение частоты приема записей по устройствам обнаружения и для сервиса в целом.
+ * <p>
+ * Каждое устройство получает корзину маркеров с частотой и запасом своего класса ({@code drone.admission.classes},
+ * остальные - {@code default-rate}/{@code default-burst}). Корзина реализована алгоритмом GCRA: ее состояние -
+ * одно число, теоретическое время следующей записи, которое обновляется CAS без блокировок. Корзины хранятся
+ * в {@link ConcurrentHashMap}, поэтому разные устройства не конкурируют; корзины простаивающих устройств
+ * удаляются фоновой очисткой. Устройства сверх {@code max-sensors} делят одну общую корзину класса по умолчанию.
+ * <p>
+ * Запись, прошедшая лимит устройства, дополнительно проверяется общим лимитом {@code global-rate};
+ * при отказе общего лимита маркер устройства возвращается.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.admission", name = "enabled", havingValue = "true")
+public class SensorRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorRateLimiter.class);
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Map<String, Limit> exactSensors = new HashMap<>();
+
+    private final List<String> prefixes = new ArrayList<>();
+
+    private final List<Limit> prefixLimits = new ArrayList<>();
+
+    private final Limit defaultLimit;
+
+    private final Bucket global;
+
+    private final Bucket overflow;
+
+    private final int maxSensors;
+
+    private final long idleNanos;
+
+    private final Counter sensorRejections;
+
+    private final Counter globalRejections;
+
+    private final Counter evicted;
+
+    public SensorRateLimiter(Environment environment,
+                             @Value("${drone.admission.global-rate:0}") double globalRate,
+                             @Value("${drone.admission.global-burst:1000}") int globalBurst,
+                             @Value("${drone.admission.default-rate:50}") double defaultRate,
+                             @Value("${drone.admission.default-burst:100}") int defaultBurst,
+                             @Value("${drone.admission.max-sensors:100000}") int maxSensors,
+                             @Value("${drone.admission.idle-evict-ms:60000}") long idleEvictMs,
+                             MeterRegistry meterRegistry) {
+        Map<String, SensorClass> classes = Binder.get(environment)
+                .bind("drone.admission.classes", Bindable.mapOf(String.class, SensorClass.class))
+                .orElse(Map.of());
+        this.defaultLimit = Limit.of(defaultRate, defaultBurst);
+        classes.forEach((name, sensorClass) -> {
+            Limit limit = Limit.of(sensorClass.rate(), sensorClass.burst());
+            for (String sensor : sensorClass.sensors() != null ? sensorClass.sensors() : List.<String>of()) {
+                if (sensor.endsWith("*")) {
+                    prefixes.add(sensor.substring(0, sensor.length() - 1));
+                    prefixLimits.add(limit);
+                } else {
+                    exactSensors.put(sensor, limit);
+                }
+            }
+        });
+        Limit globalLimit = Limit.of(globalRate, globalBurst);
+        long now = System.nanoTime();
+        this.global = globalLimit != null ? new Bucket(globalLimit, now) : null;
+        this.overflow = defaultLimit != null ? new Bucket(defaultLimit, now) : null;
+        this.maxSensors = maxSensors;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMs);
+
+        this.sensorRejections = Counter.builder("drone.admission.rejected")
+                .tag("scope", "sensor")
+                .description("Записи, отклоненные ограничением частоты")
+                .register(meterRegistry);
+        this.globalRejections = Counter.builder("drone.admission.rejected")
+                .tag("scope", "global")
+                .description("Записи, отклоненные ограничением частоты")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("drone.admission.evicted")
+                .description("Корзины простаивающих устройств, удаленные из памяти")
+                .register(meterRegistry);
+        Gauge.builder("drone.admission.sensors", buckets, Map::size)
+                .description("Устройства обнаружения с активной корзиной лимита")
+                .register(meterRegistry);
+        log.info("Ограничение частоты приема: {} классов устройств, общий лимит {}/с",
+                classes.size(), globalLimit != null ? globalRate : "нет");
+    }
+
+    /**
+     * Пропускает запись или выбрасывает {@link SensorRateLimitedException}.
+     */
+    public void admit(DroneDto droneDto) {
+        SensorRateLimitedException rejection = tryAdmit(droneDto, System.nanoTime());
+        if (rejection != null) {
+            throw rejection;
+        }
+    }
+
+    /**
+     * @return {@code null}, если запись пропущена, иначе исключение с причиной отказа (не выброшенное)
+     */
+    public SensorRateLimitedException tryAdmit(DroneDto droneDto) {
+        return tryAdmit(droneDto, System.nanoTime());
+    }
+
+    SensorRateLimitedException tryAdmit(DroneDto droneDto, long nowNanos) {
+        String sensor = droneDto.getDetectedBy();
+        Bucket bucket = sensor != null ? bucket(sensor, nowNanos) : null;
+        if (bucket != null) {
+            long wait = bucket.tryAcquire(nowNanos);
+            if (wait > 0) {
+                sensorRejections.increment();
+                return new SensorRateLimitedException(sensor, retryAfterSeconds(wait));
+            }
+        }
+        if (global != null) {
+            long wait = global.tryAcquire(nowNanos);
+            if (wait > 0) {
+                if (bucket != null) {
+                    bucket.refund();
+                }
+                globalRejections.increment();
+                return new SensorRateLimitedException(null, retryAfterSeconds(wait));
+            }
+        }
+        return null;
+    }
+
+    private Bucket bucket(String sensor, long nowNanos) {
+        Bucket bucket = buckets.get(sensor);
+        if (bucket != null) {
+            return bucket;
+        }
+        Limit limit = limit(sensor);
+        if (limit == null) {
+            return null;
+        }
+        if (buckets.size() >= maxSensors) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(sensor, key -> new Bucket(limit, nowNanos));
+    }
+
+    Limit limit(String sensor) {
+        Limit limit = exactSensors.get(sensor);
+        if (limit != null || exactSensors.containsKey(sensor)) {
+            return limit;
+        }
+        for (int i = 0; i < prefixes.size(); i++) {
+            if (sensor.startsWith(prefixes.get(i))) {
+                return prefixLimits.get(i);
+            }
+        }
+        return defaultLimit;
+    }
+
+    /**
+     * Удаляет корзины устройств, не присылавших записей дольше {@code idle-evict-ms}.
+     * Такая корзина уже полна, поэтому новая корзина, созданная при гонке с очисткой, ведет себя так же.
+     */
+    @Scheduled(fixedDelayString = "${drone.admission.idle-evict-ms:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long nowNanos) {
+        long threshold = nowNanos - idleNanos;
+        buckets.values().removeIf(bucket -> {
+            if (bucket.theoreticalArrival.get() - threshold < 0) {
+                evicted.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    int sensorCount() {
+        return buckets.size();
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Параметры GCRA: интервал между записями и допустимое опережение расписания.
+     * {@code null} вместо лимита означает отсутствие ограничения.
+     */
+    record Limit(long intervalNanos, long toleranceNanos) {
+
+        static Limit of(double rate, int burst) {
+            if (!(rate > 0)) {
+                return null;
+            }
+            long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+            return new Limit(interval, interval * Math.max(0, burst - 1));
+        }
+    }
+
+    static final class Bucket {
+
+        private final long intervalNanos;
+
+        private final long toleranceNanos;
+
+        /** Теоретическое время поступления следующей записи (TAT) по {@link System#nanoTime()} */
+        private final AtomicLong theoreticalArrival;
+
+        /**
+         * Создает полную корзину: с момента {@code nowNanos} доступен весь запас.
+         */
+        Bucket(Limit limit, long nowNanos) {
+            this.intervalNanos = limit.intervalNanos();
+            this.toleranceNanos = limit.toleranceNanos();
+            this.theoreticalArrival = new AtomicLong(nowNanos);
+        }
+
+        /**
+         * @return 0, если маркер получен, иначе время в наносекундах до появления маркера
+         */
+        long tryAcquire(long nowNanos) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long start = current - nowNanos > 0 ? current : nowNanos;
+                long wait = start - toleranceNanos - nowNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        void refund() {
+            theoreticalArrival.addAndGet(-intervalNanos);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.data_collector.service.conflation;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.KafkaProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Прореживание потока обнаружений по принципу "последнее побеждает".
+ * <p>
+ * Внутри окна {@code drone.conflation.window-ms} для каждой пары (устройство обнаружения, модель)
+ * хранится только последняя запись; по закрытии окна в топик {@code drone.conflation.topic}
+ * отправляется по одной записи на ключ. При {@code keep-raw=true} исходный топик продолжает получать все записи.
+ * <p>
+ * Запись, которую не удалось отправить, возвращается в окно и уходит со следующим сбросом,
+ * если после нее по тому же ключу не было принято более новых записей. Для этого каждой принятой записи
+ * присваивается возрастающее поколение, а для ключа хранится поколение последней принятой записи
+ * до подтверждения ее доставки: ошибка доставки может прийти через {@code delivery.timeout.ms},
+ * когда более новая запись уже отправлена, и старая не должна ее перекрыть.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.conflation", name = "enabled", havingValue = "true")
+public class DetectionConflator {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectionConflator.class);
+
+    private final Map<ConflationKey, Pending> latest = new ConcurrentHashMap<>();
+
+    /** Поколение последней принятой записи по ключу; удаляется после доставки этой записи */
+    private final Map<ConflationKey, Long> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final KafkaProducer kafkaProducer;
+
+    private final String topic;
+
+    private final boolean keepRaw;
+
+    private final Counter absorbed;
+
+    private final Counter superseded;
+
+    private final Counter flushed;
+
+    private final Counter failed;
+
+    public DetectionConflator(KafkaProducer kafkaProducer,
+                              @Value("${drone.conflation.topic}") String topic,
+                              @Value("${drone.conflation.keep-raw:true}") boolean keepRaw,
+                              MeterRegistry meterRegistry) {
+        this.kafkaProducer = kafkaProducer;
+        this.topic = topic;
+        this.keepRaw = keepRaw;
+
+        this.absorbed = Counter.builder("drone.conflation.absorbed")
+                .description("Записи, принятые в окно прореживания")
+                .register(meterRegistry);
+        this.superseded = Counter.builder("drone.conflation.superseded")
+                .description("Записи, замененные более новыми внутри окна")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("drone.conflation.flushed")
+                .description("Записи, отправленные в прореженный топик")
+                .register(meterRegistry);
+        this.failed = Counter.builder("drone.conflation.failed")
+                .description("Неудачные отправки в прореженный топик; запись повторяется в следующем окне")
+                .register(meterRegistry);
+        Gauge.builder("drone.conflation.pending", latest, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Помещает запись в текущее окно, заменяя предыдущую запись с тем же ключом.
+     */
+    public void absorb(DroneDto droneDto) {
+        absorbed.increment();
+        latest.compute(new ConflationKey(droneDto.getDetectedBy(), droneDto.getModel()), (key, previous) -> {
+            if (previous != null) {
+                superseded.increment();
+            }
+            // Под блокировкой ключа в latest, чтобы поколения по ключу менялись в порядке приема записей
+            long generation = sequence.incrementAndGet();
+            generations.put(key, generation);
+            return new Pending(droneDto, generation);
+        });
+    }
+
+    /**
+     * Должны ли записи по-прежнему отправляться в исходный топик.
+     */
+    public boolean keepRaw() {
+        return keepRaw;
+    }
+
+    @Scheduled(fixedRateString = "${drone.conflation.window-ms:100}")
+    public void flush() {
+        // Снимок ключей: возвращенные в окно записи не отправляются повторно в том же сбросе
+        for (ConflationKey key : List.copyOf(latest.keySet())) {
+            Pending pending = latest.remove(key);
+            if (pending == null) {
+                continue;
+            }
+            try {
+                kafkaProducer.sendDroneDataAsync(topic, pending.droneDto()).whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        flushed.increment();
+                        generations.remove(key, pending.generation());
+                        return;
+                    }
+                    failed.increment();
+                    retry(key, pending);
+                    log.debug("Ошибка отправки прореженной записи в Kafka, повтор в следующем окне: {}",
+                            ex.getMessage());
+                });
+            } catch (RuntimeException ex) {
+                retry(key, pending);
+                log.debug("Отправка прореженных записей отложена до следующего окна: {}", ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Возвращает запись в окно, если после нее по ключу не было принято более новых записей.
+     */
+    private void retry(ConflationKey key, Pending pending) {
+        latest.compute(key, (k, current) -> current == null
+                && generations.getOrDefault(k, 0L) == pending.generation() ? pending : current);
+    }
+
+    private record Pending(DroneDto droneDto, long generation) {
+    }
+
+    private record ConflationKey(String detectedBy, String model) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.data_collector.service.dedup;
+
+import com.example.data_collector.dto.DroneDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Подавление повторных обнаружений одной и той же цели.
+ * <p>
+ * Ключ - устройство обнаружения, модель и координаты, высота и скорость, квантованные с заданными допусками.
+ * Первое обнаружение с данным ключом пропускается и открывает окно; повторы внутри окна отбрасываются.
+ * Если пропущенную запись не удалось отправить, окно снимается через {@link #release(DroneDto)},
+ * чтобы повтор от устройства не был принят за дубликат и потерян.
+ * Записи по разные стороны границы шага квантования считаются разными.
+ * Кэш построен на {@link ConcurrentHashMap} (блокировки на уровне корзин) и атомарных отметках времени,
+ * размер ограничен: при заполнении новые ключи не кэшируются до очередной очистки.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.dedup", name = "enabled", havingValue = "true")
+public class DuplicateDetectionFilter {
+
+    private final Map<DetectionKey, AtomicLong> lastForwarded = new ConcurrentHashMap<>();
+
+    private final long windowNanos;
+
+    private final double coordinateTolerance;
+
+    private final double altitudeTolerance;
+
+    private final double speedTolerance;
+
+    private final int maxEntries;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    private final Counter overflows;
+
+    public DuplicateDetectionFilter(@Value("${drone.dedup.window-ms:1000}") long windowMs,
+                                    @Value("${drone.dedup.coordinate-tolerance:0.0001}") double coordinateTolerance,
+                                    @Value("${drone.dedup.altitude-tolerance:5.0}") double altitudeTolerance,
+                                    @Value("${drone.dedup.speed-tolerance:2.0}") double speedTolerance,
+                                    @Value("${drone.dedup.max-entries:100000}") int maxEntries,
+                                    MeterRegistry meterRegistry) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.coordinateTolerance = coordinateTolerance;
+        this.altitudeTolerance = altitudeTolerance;
+        this.speedTolerance = speedTolerance;
+        this.maxEntries = maxEntries;
+
+        this.hits = Counter.builder("drone.dedup.hits")
+                .description("Отброшенные повторные обнаружения")
+                .register(meterRegistry);
+        this.misses = Counter.builder("drone.dedup.misses")
+                .description("Пропущенные в Kafka обнаружения")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("drone.dedup.evictions")
+                .description("Ключи, удаленные из кэша по истечении окна")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("drone.dedup.overflows")
+                .description("Обнаружения, не закэшированные из-за заполнения кэша")
+                .register(meterRegistry);
+        Gauge.builder("drone.dedup.size", lastForwarded, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code true}, если запись повторяет уже отправленную внутри окна и должна быть отброшена
+     */
+    public boolean isDuplicate(DroneDto droneDto) {
+        return isDuplicate(droneDto, System.nanoTime());
+    }
+
+    boolean isDuplicate(DroneDto droneDto, long now) {
+        DetectionKey key = key(droneDto);
+
+        AtomicLong forwardedAt = lastForwarded.get(key);
+        if (forwardedAt == null) {
+            if (lastForwarded.size() >= maxEntries) {
+                overflows.increment();
+                misses.increment();
+                return false;
+            }
+            forwardedAt = lastForwarded.putIfAbsent(key, new AtomicLong(now));
+            if (forwardedAt == null) {
+                misses.increment();
+                return false;
+            }
+        }
+
+        long last = forwardedAt.get();
+        if (now - last < windowNanos || !forwardedAt.compareAndSet(last, now)) {
+            // CAS не удался - окно только что открыл другой поток с той же записью
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Снимает окно, открытое записью, отправка которой завершилась ошибкой.
+     */
+    public void release(DroneDto droneDto) {
+        lastForwarded.remove(key(droneDto));
+    }
+
+    @Scheduled(fixedDelayString = "${drone.dedup.window-ms:1000}")
+    public void evictExpired() {
+        evictExpired(System.nanoTime());
+    }
+
+    void evictExpired(long now) {
+        lastForwarded.values().removeIf(forwardedAt -> {
+            if (now - forwardedAt.get() >= windowNanos) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private DetectionKey key(DroneDto droneDto) {
+        return new DetectionKey(
+                droneDto.getDetectedBy(),
+                droneDto.getModel(),
+                quantize(droneDto.hasLatitude(), droneDto.latitudeValue(), coordinateTolerance),
+                quantize(droneDto.hasLongitude(), droneDto.longitudeValue(), coordinateTolerance),
+                quantize(droneDto.hasFlightAltitude(), droneDto.flightAltitudeValue(), altitudeTolerance),
+                quantize(droneDto.hasSpeed(), droneDto.speedValue(), speedTolerance));
+    }
+
+    private static long quantize(boolean present, double value, double step) {
+        return present ? (long) Math.floor(value / step) : Long.MIN_VALUE;
+    }
+
+    private record DetectionKey(String detectedBy, String model, long latitude, long longitude,
+                                long altitude, long speed) {
+    }
+}
@@ -1,25 +1,308 @@
 package com.example.data_collector.service.impl;
 
+import com.example.data_collector.dto.BatchRecordResult;
+import com.example.data_collector.dto.BatchResponse;
 import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.exception.IngestOverloadedException;
+import com.example.data_collector.exception.SensorRateLimitedException;
 import com.example.data_collector.kafka.KafkaProducer;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.AcceptedDetectionListener;
 import com.example.data_collector.service.DroneService;
+import com.example.data_collector.service.admission.SensorRateLimiter;
+import com.example.data_collector.service.conflation.DetectionConflator;
+import com.example.data_collector.service.dedup.DuplicateDetectionFilter;
+import com.example.data_collector.validation.DroneDtoValidator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class DroneServiceImpl implements DroneService {
 
+    private static final Logger log = LoggerFactory.getLogger(DroneServiceImpl.class);
+
+    private static final Map<String, String> ABSORBED_RESPONSE = Map.of(
+            "message", KafkaProducer.ACCEPTED_MESSAGE
+    );
+
     private final KafkaProducer kafkaProducer;
 
-    public DroneServiceImpl(KafkaProducer kafkaProducer) {
+    private final DroneDtoValidator validator;
+
+    private final ObjectReader droneReader;
+
+    private final int maxBatchSize;
+
+    private final DuplicateDetectionFilter duplicateFilter;
+
+    private final DetectionConflator conflator;
+
+    private final IngestStageMetrics stageMetrics;
+
+    private final AcceptedDetectionListener[] acceptedListeners;
+
+    private final SensorRateLimiter rateLimiter;
+
+    public DroneServiceImpl(KafkaProducer kafkaProducer,
+                            DroneDtoValidator validator,
+                            ObjectMapper objectMapper,
+                            @Value("${drone.batch.max-size:1000}") int maxBatchSize,
+                            ObjectProvider<DuplicateDetectionFilter> duplicateFilter,
+                            ObjectProvider<DetectionConflator> conflator,
+                            IngestStageMetrics stageMetrics,
+                            ObjectProvider<AcceptedDetectionListener> acceptedListeners,
+                            ObjectProvider<SensorRateLimiter> rateLimiter) {
         this.kafkaProducer = kafkaProducer;
+        this.validator = validator;
+        this.droneReader = objectMapper.readerFor(DroneDto.class);
+        this.maxBatchSize = maxBatchSize;
+        this.duplicateFilter = duplicateFilter.getIfAvailable();
+        this.conflator = conflator.getIfAvailable();
+        this.stageMetrics = stageMetrics;
+        this.acceptedListeners = acceptedListeners.orderedStream().toArray(AcceptedDetectionListener[]::new);
+        this.rateLimiter = rateLimiter.getIfAvailable();
     }
 
     public Map<String, String> sendToKafka(DroneDto droneDto) {
-        String result = kafkaProducer.sendDroneData(droneDto);
+        admit(droneDto);
+        if (skipRawSend(droneDto)) {
+            accepted(droneDto);
+            return ABSORBED_RESPONSE;
+        }
+        String result;
+        try {
+            result = kafkaProducer.sendDroneData(droneDto);
+        } catch (RuntimeException ex) {
+            failed(droneDto);
+            throw ex;
+        }
+        accepted(droneDto);
         return Map.of(
                 "message", result
         );
     }
-}
\ No newline at end of file
+
+    public CompletableFuture<Map<String, String>> sendToKafkaAsync(DroneDto droneDto) {
+        admit(droneDto);
+        if (skipRawSend(droneDto)) {
+            accepted(droneDto);
+            return CompletableFuture.completedFuture(ABSORBED_RESPONSE);
+        }
+        CompletableFuture<String> future;
+        try {
+            future = kafkaProducer.sendDroneDataDeferred(droneDto);
+        } catch (RuntimeException ex) {
+            failed(droneDto);
+            throw ex;
+        }
+        return future
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        failed(droneDto);
+                    }
+                })
+                .thenApply(result -> {
+                    accepted(droneDto);
+                    return Map.of(
+                            "message", result
+                    );
+                });
+    }
+
+    public Map<String, String> enqueueToKafka(DroneDto droneDto) {
+        admit(droneDto);
+        if (skipRawSend(droneDto)) {
+            accepted(droneDto);
+            return ABSORBED_RESPONSE;
+        }
+        String result;
+        try {
+            result = kafkaProducer.enqueueDroneData(droneDto);
+        } catch (RuntimeException ex) {
+            failed(droneDto);
+            throw ex;
+        }
+        accepted(droneDto);
+        return Map.of(
+                "message", result
+        );
+    }
+
+    public BatchResponse sendBatchToKafka(InputStream body) throws IOException {
+        List<BatchRecordResult> results = new ArrayList<>();
+        List<PendingSend> pending = new ArrayList<>();
+
+        try (MappingIterator<DroneDto> records = droneReader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                DroneDto droneDto;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    if (index >= maxBatchSize) {
+                        results.add(BatchRecordResult.rejected(index, List.of(
+                                "Превышен максимальный размер пакета (" + maxBatchSize + "), остальные записи не обработаны")));
+                        break;
+                    }
+                    droneDto = records.nextValue();
+                } catch (JsonParseException ex) {
+                    // После синтаксической ошибки позиция в потоке потеряна, дальнейшее чтение невозможно
+                    results.add(BatchRecordResult.rejected(index, List.of(
+                            "Некорректный формат записи, остальные записи не обработаны")));
+                    break;
+                } catch (JsonMappingException ex) {
+                    results.add(BatchRecordResult.rejected(index++, List.of("Некорректный формат записи")));
+                    continue;
+                }
+
+                List<String> errors = validate(droneDto);
+                if (errors.isEmpty() && rateLimiter != null) {
+                    SensorRateLimitedException rejection = rateLimiter.tryAdmit(droneDto);
+                    if (rejection != null) {
+                        errors = List.of(rejection.getMessage());
+                    }
+                }
+                if (errors.isEmpty() && skipRawSend(droneDto)) {
+                    accepted(droneDto);
+                    results.add(BatchRecordResult.accepted(index));
+                } else if (errors.isEmpty()) {
+                    pending.add(new PendingSend(index, droneDto, send(droneDto)));
+                    results.add(null);
+                } else {
+                    results.add(BatchRecordResult.rejected(index, errors));
+                }
+                index++;
+            }
+        }
+
+        awaitAcks(pending, results);
+        return new BatchResponse(results);
+    }
+
+    /**
+     * Проверяет лимиты частоты приема; при превышении выбрасывает {@link SensorRateLimitedException}.
+     */
+    private void admit(DroneDto droneDto) {
+        if (rateLimiter != null) {
+            rateLimiter.admit(droneDto);
+        }
+    }
+
+    /**
+     * Повторное обнаружение внутри окна дедупликации считается принятым, но в Kafka не отправляется.
+     * Если включено прореживание, запись помещается в окно; без отправки в исходный топик
+     * она считается обработанной сразу после этого. Приоритетная запись в окно не попадает и сразу
+     * отправляется через приоритетную полосу, чтобы не ждать сброса окна за обычными записями.
+     */
+    private boolean skipRawSend(DroneDto droneDto) {
+        if (duplicateFilter != null && duplicateFilter.isDuplicate(droneDto)) {
+            return true;
+        }
+        if (conflator != null && !kafkaProducer.isCritical(droneDto)) {
+            conflator.absorb(droneDto);
+            return !conflator.keepRaw();
+        }
+        return false;
+    }
+
+    private void accepted(DroneDto droneDto) {
+        if (acceptedListeners.length == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (AcceptedDetectionListener listener : acceptedListeners) {
+            listener.onAccepted(droneDto, now);
+        }
+    }
+
+    /**
+     * Запись не дошла до Kafka: окно дедупликации снимается, чтобы повтор от устройства был отправлен.
+     */
+    private void failed(DroneDto droneDto) {
+        if (duplicateFilter != null) {
+            duplicateFilter.release(droneDto);
+        }
+    }
+
+    private List<String> validate(DroneDto droneDto) {
+        if (droneDto == null) {
+            return List.of("Запись не может быть пустой");
+        }
+        long start = System.nanoTime();
+        List<String> errors = validator.validate(droneDto);
+        stageMetrics.record(IngestStageMetrics.Stage.VALIDATE, start);
+        return errors;
+    }
+
+    private CompletableFuture<String> send(DroneDto droneDto) {
+        try {
+            return kafkaProducer.sendDroneDataDeferred(droneDto);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Ожидает подтверждения всех отправленных записей с общим дедлайном,
+     * равным таймауту одиночной отправки.
+     */
+    private void awaitAcks(List<PendingSend> pending, List<BatchRecordResult> results) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(KafkaProducer.SEND_TIMEOUT_SECONDS);
+        boolean interrupted = false;
+
+        for (PendingSend send : pending) {
+            String error = null;
+            try {
+                if (interrupted) {
+                    error = "Прервана отправка в Kafka";
+                } else {
+                    send.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                error = "Прервана отправка в Kafka";
+            } catch (TimeoutException ex) {
+                error = "Таймаут отправки в Kafka";
+            } catch (ExecutionException ex) {
+                error = ex.getCause() instanceof KafkaException || ex.getCause() instanceof IngestOverloadedException
+                        ? ex.getCause().getMessage()
+                        : "Ошибка отправки в Kafka";
+                log.warn("Ошибка отправки записи пакета {} в Kafka: {}", send.index(), ex.getMessage());
+            }
+            if (error == null) {
+                accepted(send.droneDto());
+                results.set(send.index(), BatchRecordResult.accepted(send.index()));
+            } else {
+                failed(send.droneDto());
+                results.set(send.index(), BatchRecordResult.rejected(send.index(), List.of(error)));
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record PendingSend(int index, DroneDto droneDto, CompletableFuture<String> future) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.data_collector.service.recent;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.dto.RecentDetection;
+import com.example.data_collector.service.AcceptedDetectionListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кольцевой буфер последних принятых записей вне кучи.
+ * <p>
+ * Каждое поле хранится отдельной колонкой в direct {@link ByteBuffer}; модель и устройство - как целые
+ * идентификаторы из {@link StringInterner}. Запись в буфер не создает объектов в куче.
+ * Слот держит ссылки на свои идентификаторы и отпускает их при перезаписи, так что строки,
+ * вытесненные из буфера, не занимают лимит {@code drone.recent.max-distinct-ids}.
+ * Емкость - наибольшая степень двойки, умещающаяся в {@code drone.recent.memory-budget-bytes}
+ * по {@link #SLOT_BYTES} байт на запись; новые записи вытесняют самые старые.
+ * <p>
+ * Писатели занимают позицию атомарным счетчиком и не блокируют друг друга и читателей.
+ * Каждый слот защищен seqlock: перед записью номер позиции слота сбрасывается, после записи публикуется
+ * с release-семантикой. Читатель проверяет номер до и после чтения колонок и пропускает слот,
+ * если тот записывается или уже перезаписан.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.recent", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RecentDetectionsBuffer implements AcceptedDetectionListener {
+
+    /** Номер позиции, время, 4 числа, 2 идентификатора */
+    static final int SLOT_BYTES = 6 * Long.BYTES + 2 * Integer.BYTES;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private static final long EMPTY = -1;
+
+    /** Размер колонки из 8-байтовых значений не должен превышать предел {@link ByteBuffer} */
+    private static final int MAX_CAPACITY = 1 << 27;
+
+    /** Писатели с разных потоков могут публиковать записи с небольшим нарушением порядка времени */
+    private static final long MAX_CLOCK_SKEW_MS = 1000;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final ByteBuffer positions;
+
+    private final ByteBuffer times;
+
+    private final ByteBuffer speeds;
+
+    private final ByteBuffer latitudes;
+
+    private final ByteBuffer longitudes;
+
+    private final ByteBuffer altitudes;
+
+    private final ByteBuffer models;
+
+    private final ByteBuffer sensors;
+
+    private final AtomicLong head = new AtomicLong();
+
+    private final StringInterner modelIds;
+
+    private final StringInterner sensorIds;
+
+    public RecentDetectionsBuffer(@Value("${drone.recent.memory-budget-bytes:16777216}") long memoryBudgetBytes,
+                                  @Value("${drone.recent.max-distinct-ids:65536}") int maxDistinctIds,
+                                  MeterRegistry meterRegistry) {
+        long slots = Math.min(memoryBudgetBytes / SLOT_BYTES, MAX_CAPACITY);
+        if (slots < 1) {
+            throw new IllegalArgumentException("drone.recent.memory-budget-bytes меньше размера одной записи ("
+                    + SLOT_BYTES + " байт)");
+        }
+        this.capacity = Integer.highestOneBit((int) slots);
+        this.mask = capacity - 1;
+        this.positions = column(Long.BYTES);
+        this.times = column(Long.BYTES);
+        this.speeds = column(Double.BYTES);
+        this.latitudes = column(Double.BYTES);
+        this.longitudes = column(Double.BYTES);
+        this.altitudes = column(Double.BYTES);
+        this.models = column(Integer.BYTES);
+        this.sensors = column(Integer.BYTES);
+        for (int slot = 0; slot < capacity; slot++) {
+            positions.putLong(slot * Long.BYTES, EMPTY);
+            models.putInt(slot * Integer.BYTES, -1);
+            sensors.putInt(slot * Integer.BYTES, -1);
+        }
+        this.modelIds = new StringInterner(maxDistinctIds);
+        this.sensorIds = new StringInterner(maxDistinctIds);
+
+        FunctionCounter.builder("drone.recent.written", head, AtomicLong::get)
+                .description("Записи, помещенные в буфер недавних обнаружений")
+                .register(meterRegistry);
+        Gauge.builder("drone.recent.capacity", this, RecentDetectionsBuffer::capacity)
+                .description("Емкость буфера недавних обнаружений")
+                .register(meterRegistry);
+        Gauge.builder("drone.recent.sensors", sensorIds, StringInterner::size)
+                .description("Устройства обнаружения, записи которых есть в буфере")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onAccepted(DroneDto droneDto, long timestampMillis) {
+        int modelId = modelIds.acquire(droneDto.getModel());
+        int sensorId = sensorIds.acquire(droneDto.getDetectedBy());
+        long position = head.getAndIncrement();
+        int slot = (int) (position & mask);
+
+        LONGS.setOpaque(positions, slot * Long.BYTES, EMPTY);
+        VarHandle.storeStoreFence();
+        times.putLong(slot * Long.BYTES, timestampMillis);
+        speeds.putDouble(slot * Double.BYTES, droneDto.hasSpeed() ? droneDto.speedValue() : Double.NaN);
+        latitudes.putDouble(slot * Double.BYTES, droneDto.hasLatitude() ? droneDto.latitudeValue() : Double.NaN);
+        longitudes.putDouble(slot * Double.BYTES, droneDto.hasLongitude() ? droneDto.longitudeValue() : Double.NaN);
+        altitudes.putDouble(slot * Double.BYTES,
+                droneDto.hasFlightAltitude() ? droneDto.flightAltitudeValue() : Double.NaN);
+        // Обмен атомарный: при одновременной записи в слот двумя писателями каждая старая ссылка отпускается один раз
+        int oldModelId = (int) INTS.getAndSet(models, slot * Integer.BYTES, modelId);
+        int oldSensorId = (int) INTS.getAndSet(sensors, slot * Integer.BYTES, sensorId);
+        LONGS.setRelease(positions, slot * Long.BYTES, position);
+        modelIds.release(oldModelId);
+        sensorIds.release(oldSensorId);
+    }
+
+    /**
+     * Записи не старше {@code sinceMillis}, от новых к старым.
+     *
+     * @param detectedBy устройство обнаружения или {@code null} для всех устройств
+     */
+    public List<RecentDetection> query(String detectedBy, long sinceMillis, int limit) {
+        int sensorFilter = -1;
+        if (detectedBy != null) {
+            sensorFilter = sensorIds.find(detectedBy);
+            if (sensorFilter < 0) {
+                return List.of();
+            }
+        }
+
+        List<RecentDetection> result = new ArrayList<>();
+        long end = head.get();
+        long start = Math.max(0, end - capacity);
+        for (long position = end - 1; position >= start && result.size() < limit; position--) {
+            int slot = (int) (position & mask);
+            if ((long) LONGS.getAcquire(positions, slot * Long.BYTES) != position) {
+                continue;
+            }
+            long time = times.getLong(slot * Long.BYTES);
+            int sensorId = sensors.getInt(slot * Integer.BYTES);
+            int modelId = models.getInt(slot * Integer.BYTES);
+            double speed = speeds.getDouble(slot * Double.BYTES);
+            double latitude = latitudes.getDouble(slot * Double.BYTES);
+            double longitude = longitudes.getDouble(slot * Double.BYTES);
+            double altitude = altitudes.getDouble(slot * Double.BYTES);
+            // Имена читаются до проверки слота: пока слот не перезаписан, его идентификаторы не выданы другим строкам
+            String model = modelIds.name(modelId);
+            String sensor = sensorIds.name(sensorId);
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getOpaque(positions, slot * Long.BYTES) != position) {
+                continue;
+            }
+
+            if (time < sinceMillis - MAX_CLOCK_SKEW_MS) {
+                break;
+            }
+            if (time < sinceMillis || (sensorFilter >= 0 && (sensorId != sensorFilter || !detectedBy.equals(sensor)))) {
+                continue;
+            }
+            result.add(new RecentDetection(model, speed, latitude, longitude, altitude,
+                    sensor, Instant.ofEpochMilli(time)));
+        }
+        return result;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private ByteBuffer column(int valueBytes) {
+        return ByteBuffer.allocateDirect(capacity * valueBytes).order(ByteOrder.nativeOrder());
+    }
+}
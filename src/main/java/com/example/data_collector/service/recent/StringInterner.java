@@ -0,0 +1,122 @@
+package com.example.data_collector.service.recent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Сопоставление строк (модели, устройства обнаружения) с целыми идентификаторами для хранения в буфере.
+ * <p>
+ * Идентификатор занимается {@link #acquire(String)} на каждый слот буфера, который на него ссылается,
+ * и освобождается {@link #release(int)} при перезаписи слота; идентификатор без ссылок возвращается в пул
+ * и выдается следующей новой строке. Поэтому лимит относится к строкам, присутствующим в буфере сейчас:
+ * сверх него возвращается {@code -1}, пока старые записи не будут вытеснены.
+ * <p>
+ * Повторное получение известного идентификатора не блокируется; регистрация новой строки и возврат
+ * идентификатора в пул выполняются под блокировкой.
+ */
+final class StringInterner {
+
+    /** Счетчик ссылок идентификатора, возвращенного в пул */
+    private static final int FREE = -1;
+
+    private final int maxSize;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private final AtomicIntegerArray refs;
+
+    private volatile String[] names = new String[64];
+
+    private int size;
+
+    private int[] freeIds = new int[16];
+
+    private int freeCount;
+
+    StringInterner(int maxSize) {
+        this.maxSize = maxSize;
+        this.refs = new AtomicIntegerArray(maxSize);
+    }
+
+    /**
+     * @return идентификатор строки с занятой ссылкой или {@code -1}, если строка пустая или лимит исчерпан
+     */
+    int acquire(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            for (int count = refs.get(id); count > 0; count = refs.get(id)) {
+                if (refs.compareAndSet(id, count, count + 1)) {
+                    if (value.equals(names[id])) {
+                        return id;
+                    }
+                    // Идентификатор успели освободить и выдать другой строке
+                    release(id);
+                    break;
+                }
+            }
+        }
+        return register(value);
+    }
+
+    void release(int id) {
+        if (id >= 0 && refs.decrementAndGet(id) == 0) {
+            reclaim(id);
+        }
+    }
+
+    int find(String value) {
+        Integer id = ids.get(value);
+        return id != null ? id : -1;
+    }
+
+    String name(int id) {
+        return id < 0 ? null : names[id];
+    }
+
+    /** Число строк, на которые есть ссылки из буфера */
+    int size() {
+        return ids.size();
+    }
+
+    private synchronized int register(String value) {
+        Integer existing = ids.get(value);
+        if (existing != null) {
+            // Под блокировкой идентификатор из словаря не может быть возвращен в пул
+            refs.incrementAndGet(existing);
+            return existing;
+        }
+        int id;
+        String[] current = names;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else if (size < maxSize) {
+            id = size++;
+            if (id == current.length) {
+                current = Arrays.copyOf(current, Math.min(maxSize, id * 2));
+            }
+        } else {
+            return -1;
+        }
+        current[id] = value;
+        names = current;
+        ids.put(value, id);
+        refs.set(id, 1);
+        return id;
+    }
+
+    private synchronized void reclaim(int id) {
+        // Ссылку могли снова занять до получения блокировки
+        if (refs.compareAndSet(id, 0, FREE)) {
+            ids.remove(names[id], id);
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+            }
+            freeIds[freeCount++] = id;
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package com.example.data_collector.service.spatial;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.dto.RecentDetection;
+import com.example.data_collector.service.AcceptedDetectionListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Пространственный индекс последних положений БПЛА на равномерной сетке широта/долгота.
+ * <p>
+ * Цель идентифицируется парой (устройство обнаружения, модель), как при прореживании; в индексе хранится
+ * только ее последнее положение. Ячейка сетки размером {@code drone.spatial.cell-degrees} хранит координаты
+ * и время своих точек в примитивных массивах, поэтому запрос просматривает только ячейки, пересекающие
+ * область, без обращения к объектам остальных точек.
+ * <p>
+ * Каждая ячейка защищена собственной блокировкой: обновления в разных ячейках и запросы к ним
+ * не конкурируют. Обновления одной цели упорядочены блокировкой цели, которая берется раньше блокировки
+ * ячейки; две ячейки одновременно не блокируются. Точки старше {@code drone.spatial.max-age-ms}
+ * не попадают в ответы и удаляются фоновой очисткой вместе с опустевшими ячейками.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.spatial", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SpatialGridIndex implements AcceptedDetectionListener {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    private final Map<TrackKey, Track> tracks = new ConcurrentHashMap<>();
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+
+    private final double cellDegrees;
+
+    private final int latitudeCells;
+
+    private final int longitudeCells;
+
+    private final long maxAgeMillis;
+
+    private final int maxTracks;
+
+    private final Counter overflows;
+
+    private final Counter expired;
+
+    public SpatialGridIndex(@Value("${drone.spatial.cell-degrees:0.1}") double cellDegrees,
+                            @Value("${drone.spatial.max-age-ms:60000}") long maxAgeMillis,
+                            @Value("${drone.spatial.max-tracks:1000000}") int maxTracks,
+                            MeterRegistry meterRegistry) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("drone.spatial.cell-degrees должен быть в диапазоне (0, 90]");
+        }
+        this.cellDegrees = cellDegrees;
+        this.latitudeCells = (int) Math.ceil(180 / cellDegrees);
+        this.longitudeCells = (int) Math.ceil(360 / cellDegrees);
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxTracks = maxTracks;
+
+        this.overflows = Counter.builder("drone.spatial.overflows")
+                .description("Обновления новых целей, отброшенные из-за заполнения индекса")
+                .register(meterRegistry);
+        this.expired = Counter.builder("drone.spatial.expired")
+                .description("Цели, удаленные из индекса по истечении срока")
+                .register(meterRegistry);
+        Gauge.builder("drone.spatial.tracks", tracks, Map::size)
+                .description("Цели в пространственном индексе")
+                .register(meterRegistry);
+        Gauge.builder("drone.spatial.cells", cells, Map::size)
+                .description("Непустые ячейки пространственного индекса")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onAccepted(DroneDto droneDto, long timestampMillis) {
+        if (!droneDto.hasLatitude() || !droneDto.hasLongitude()) {
+            return;
+        }
+        RecentDetection detection = new RecentDetection(
+                droneDto.getModel(),
+                droneDto.hasSpeed() ? droneDto.speedValue() : Double.NaN,
+                droneDto.latitudeValue(),
+                droneDto.longitudeValue(),
+                droneDto.hasFlightAltitude() ? droneDto.flightAltitudeValue() : Double.NaN,
+                droneDto.getDetectedBy(),
+                Instant.ofEpochMilli(timestampMillis));
+        update(new TrackKey(droneDto.getDetectedBy(), droneDto.getModel()), detection, timestampMillis);
+    }
+
+    private void update(TrackKey key, RecentDetection detection, long time) {
+        long cellKey = cellKey(latitudeIndex(detection.getLatitude()), longitudeIndex(detection.getLongitude()));
+        while (true) {
+            Track track = tracks.get(key);
+            if (track == null) {
+                if (tracks.size() >= maxTracks) {
+                    overflows.increment();
+                    return;
+                }
+                Track created = new Track(key);
+                track = tracks.putIfAbsent(key, created);
+                if (track == null) {
+                    track = created;
+                }
+            }
+            synchronized (track) {
+                if (track.removed) {
+                    // Цель только что удалена очисткой - повторяем с новой записью в таблице целей
+                    continue;
+                }
+                if (time >= track.time) {
+                    move(track, cellKey, detection, time);
+                    track.time = time;
+                }
+                return;
+            }
+        }
+    }
+
+    private void move(Track track, long cellKey, RecentDetection detection, long time) {
+        Cell current = track.cell;
+        if (current != null && current.key == cellKey) {
+            synchronized (current) {
+                current.set(track.slot, detection, time);
+            }
+            return;
+        }
+        if (current != null) {
+            detach(track, current);
+        }
+        while (true) {
+            Cell cell = cells.computeIfAbsent(cellKey, Cell::new);
+            synchronized (cell) {
+                if (!cell.retired) {
+                    cell.add(track, detection, time);
+                    track.cell = cell;
+                    return;
+                }
+            }
+            // Пустая ячейка выводится из таблицы очисткой; после удаления будет создана новая
+            cells.remove(cellKey, cell);
+        }
+    }
+
+    /**
+     * Цели в радиусе {@code radiusKm} от точки, от ближних к дальним.
+     */
+    public List<RecentDetection> nearby(double latitude, double longitude, double radiusKm, int limit) {
+        return nearby(latitude, longitude, radiusKm, limit, System.currentTimeMillis());
+    }
+
+    List<RecentDetection> nearby(double latitude, double longitude, double radiusKm, int limit, long now) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90, latitude + latitudeDelta);
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        double farthestCos = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        if (maxLatitude < 90 && minLatitude > -90 && latitudeDelta < farthestCos * 180) {
+            double longitudeDelta = latitudeDelta / farthestCos;
+            minLongitude = wrapLongitude(longitude - longitudeDelta);
+            maxLongitude = wrapLongitude(longitude + longitudeDelta);
+        }
+
+        NearbyCollector collector = new NearbyCollector(latitude, longitude, radiusKm);
+        scan(minLatitude, maxLatitude, minLongitude, maxLongitude, now - maxAgeMillis, collector);
+        return collector.result(limit);
+    }
+
+    /**
+     * Цели внутри прямоугольника. Если {@code minLongitude > maxLongitude}, прямоугольник пересекает
+     * 180-й меридиан.
+     */
+    public List<RecentDetection> within(double minLatitude, double minLongitude,
+                                        double maxLatitude, double maxLongitude, int limit) {
+        return within(minLatitude, minLongitude, maxLatitude, maxLongitude, limit, System.currentTimeMillis());
+    }
+
+    List<RecentDetection> within(double minLatitude, double minLongitude,
+                                 double maxLatitude, double maxLongitude, int limit, long now) {
+        BoxCollector collector = new BoxCollector(limit);
+        scan(minLatitude, maxLatitude, minLongitude, maxLongitude, now - maxAgeMillis, collector);
+        return collector.result;
+    }
+
+    private void scan(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                      long cutoff, Collector collector) {
+        if (minLongitude > maxLongitude) {
+            scan(minLatitude, maxLatitude, minLongitude, 180, cutoff, collector);
+            scan(minLatitude, maxLatitude, -180, maxLongitude, cutoff, collector);
+            return;
+        }
+        int minRow = latitudeIndex(minLatitude);
+        int maxRow = latitudeIndex(maxLatitude);
+        int minColumn = longitudeIndex(minLongitude);
+        int maxColumn = longitudeIndex(maxLongitude);
+
+        long rangeCells = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (rangeCells > cells.size()) {
+            // Область больше числа занятых ячеек - дешевле перебрать их, чем искать каждую ячейку области
+            for (Cell cell : cells.values()) {
+                int row = (int) (cell.key / longitudeCells);
+                int column = (int) (cell.key % longitudeCells);
+                if (row >= minRow && row <= maxRow && column >= minColumn && column <= maxColumn
+                        && !scanCell(cell, minLatitude, maxLatitude, minLongitude, maxLongitude, cutoff, collector)) {
+                    return;
+                }
+            }
+            return;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                Cell cell = cells.get(cellKey(row, column));
+                if (cell != null
+                        && !scanCell(cell, minLatitude, maxLatitude, minLongitude, maxLongitude, cutoff, collector)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code false}, если сборщик заполнен и просмотр можно прекратить
+     */
+    private static boolean scanCell(Cell cell, double minLatitude, double maxLatitude,
+                                    double minLongitude, double maxLongitude, long cutoff, Collector collector) {
+        synchronized (cell) {
+            double[] latitudes = cell.latitudes;
+            double[] longitudes = cell.longitudes;
+            long[] times = cell.times;
+            for (int i = 0; i < cell.size; i++) {
+                double latitude = latitudes[i];
+                double longitude = longitudes[i];
+                if (times[i] >= cutoff
+                        && latitude >= minLatitude && latitude <= maxLatitude
+                        && longitude >= minLongitude && longitude <= maxLongitude
+                        && !collector.accept(cell, i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${drone.spatial.evict-interval-ms:1000}")
+    public void evictExpired() {
+        evictExpired(System.currentTimeMillis());
+    }
+
+    void evictExpired(long now) {
+        long cutoff = now - maxAgeMillis;
+        for (Track track : tracks.values()) {
+            if (track.time >= cutoff) {
+                continue;
+            }
+            synchronized (track) {
+                if (track.removed || track.time >= cutoff) {
+                    continue;
+                }
+                if (track.cell != null) {
+                    detach(track, track.cell);
+                }
+                track.removed = true;
+                tracks.remove(track.key, track);
+                expired.increment();
+            }
+        }
+    }
+
+    private void detach(Track track, Cell cell) {
+        synchronized (cell) {
+            cell.remove(track);
+            if (cell.size == 0) {
+                cell.retired = true;
+                cells.remove(cell.key, cell);
+            }
+        }
+    }
+
+    int size() {
+        return tracks.size();
+    }
+
+    int cellCount() {
+        return cells.size();
+    }
+
+    private int latitudeIndex(double latitude) {
+        return Math.min(latitudeCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int longitudeIndex(double longitude) {
+        return Math.min(longitudeCells - 1, Math.max(0, (int) Math.floor((longitude + 180) / cellDegrees)));
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * longitudeCells + column;
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+
+    private interface Collector {
+
+        /**
+         * @return {@code false}, если больше точек не требуется
+         */
+        boolean accept(Cell cell, int slot);
+    }
+
+    private static final class BoxCollector implements Collector {
+
+        private final List<RecentDetection> result = new ArrayList<>();
+
+        private final int limit;
+
+        private BoxCollector(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean accept(Cell cell, int slot) {
+            if (result.size() >= limit) {
+                return false;
+            }
+            result.add(cell.detections[slot]);
+            return result.size() < limit;
+        }
+    }
+
+    /**
+     * Точка внутри радиуса, если угол между единичными векторами точки и центра не больше r / R,
+     * то есть скалярное произведение не меньше cos(r / R): на каждую точку - три умножения без тригонометрии.
+     * Для сортировки по расстоянию {@code 1 - dot} (монотонно растет с расстоянием) упаковывается как float
+     * в старшие биты ключа вместе с номером точки, и ключи сортируются как примитивный массив.
+     */
+    private static final class NearbyCollector implements Collector {
+
+        private final double x;
+
+        private final double y;
+
+        private final double z;
+
+        private final double minDot;
+
+        private final List<RecentDetection> hits = new ArrayList<>();
+
+        private long[] keys = new long[64];
+
+        private NearbyCollector(double latitude, double longitude, double radiusKm) {
+            double latitudeRadians = Math.toRadians(latitude);
+            double longitudeRadians = Math.toRadians(longitude);
+            this.x = Math.cos(latitudeRadians) * Math.cos(longitudeRadians);
+            this.y = Math.cos(latitudeRadians) * Math.sin(longitudeRadians);
+            this.z = Math.sin(latitudeRadians);
+            this.minDot = Math.cos(Math.min(Math.PI, radiusKm / EARTH_RADIUS_KM));
+        }
+
+        @Override
+        public boolean accept(Cell cell, int slot) {
+            double dot = cell.xs[slot] * x + cell.ys[slot] * y + cell.zs[slot] * z;
+            if (dot >= minDot) {
+                int index = hits.size();
+                if (index == keys.length) {
+                    keys = Arrays.copyOf(keys, index * 2);
+                }
+                float distance = (float) Math.max(0, 1 - dot);
+                keys[index] = (long) Float.floatToRawIntBits(distance) << 32 | index;
+                hits.add(cell.detections[slot]);
+            }
+            return true;
+        }
+
+        private List<RecentDetection> result(int limit) {
+            int count = Math.min(limit, hits.size());
+            if (count < hits.size()) {
+                selectSmallest(keys, hits.size(), count);
+            }
+            Arrays.sort(keys, 0, count);
+            List<RecentDetection> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(hits.get((int) keys[i]));
+            }
+            return result;
+        }
+
+        /**
+         * Частичная сортировка (quickselect): переставляет {@code a[0, size)} так, что первые {@code k}
+         * элементов - наименьшие. Сортируются затем только они, а не все точки внутри радиуса.
+         */
+        private static void selectSmallest(long[] a, int size, int k) {
+            int left = 0;
+            int right = size - 1;
+            while (left < right) {
+                long pivot = a[(left + right) >>> 1];
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (a[i] < pivot) {
+                        i++;
+                    }
+                    while (a[j] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        long swap = a[i];
+                        a[i++] = a[j];
+                        a[j--] = swap;
+                    }
+                }
+                if (k - 1 <= j) {
+                    right = j;
+                } else if (k - 1 >= i) {
+                    left = i;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record TrackKey(String detectedBy, String model) {
+    }
+
+    /**
+     * Цель; ячейка и время изменяются под блокировкой цели, позиция в ячейке - под блокировкой ячейки.
+     */
+    private static final class Track {
+
+        private final TrackKey key;
+
+        private Cell cell;
+
+        private int slot;
+
+        private volatile long time = Long.MIN_VALUE;
+
+        private boolean removed;
+
+        private Track(TrackKey key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Ячейка сетки; все поля изменяются и читаются под блокировкой ячейки.
+     * Удаление точки переносит на ее место последнюю точку ячейки.
+     */
+    private static final class Cell {
+
+        private final long key;
+
+        private double[] latitudes = new double[INITIAL_CELL_CAPACITY];
+
+        private double[] longitudes = new double[INITIAL_CELL_CAPACITY];
+
+        /** Координаты точки как единичного вектора для проверки расстояния */
+        private double[] xs = new double[INITIAL_CELL_CAPACITY];
+
+        private double[] ys = new double[INITIAL_CELL_CAPACITY];
+
+        private double[] zs = new double[INITIAL_CELL_CAPACITY];
+
+        private long[] times = new long[INITIAL_CELL_CAPACITY];
+
+        private Track[] tracks = new Track[INITIAL_CELL_CAPACITY];
+
+        private RecentDetection[] detections = new RecentDetection[INITIAL_CELL_CAPACITY];
+
+        private int size;
+
+        private boolean retired;
+
+        private Cell(long key) {
+            this.key = key;
+        }
+
+        private void add(Track track, RecentDetection detection, long time) {
+            if (size == tracks.length) {
+                int capacity = size * 2;
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+                times = Arrays.copyOf(times, capacity);
+                tracks = Arrays.copyOf(tracks, capacity);
+                detections = Arrays.copyOf(detections, capacity);
+            }
+            int slot = size++;
+            tracks[slot] = track;
+            track.slot = slot;
+            set(slot, detection, time);
+        }
+
+        private void set(int slot, RecentDetection detection, long time) {
+            double latitude = detection.getLatitude();
+            double longitude = detection.getLongitude();
+            latitudes[slot] = latitude;
+            longitudes[slot] = longitude;
+            double latitudeRadians = Math.toRadians(latitude);
+            double longitudeRadians = Math.toRadians(longitude);
+            xs[slot] = Math.cos(latitudeRadians) * Math.cos(longitudeRadians);
+            ys[slot] = Math.cos(latitudeRadians) * Math.sin(longitudeRadians);
+            zs[slot] = Math.sin(latitudeRadians);
+            times[slot] = time;
+            detections[slot] = detection;
+        }
+
+        private void remove(Track track) {
+            int slot = track.slot;
+            int last = --size;
+            if (slot != last) {
+                latitudes[slot] = latitudes[last];
+                longitudes[slot] = longitudes[last];
+                xs[slot] = xs[last];
+                ys[slot] = ys[last];
+                zs[slot] = zs[last];
+                times[slot] = times[last];
+                detections[slot] = detections[last];
+                tracks[slot] = tracks[last];
+                tracks[slot].slot = slot;
+            }
+            tracks[last] = null;
+            detections[last] = null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.data_collector.validation;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.exception.DroneValidationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Быстрая проверка {@link DroneDto} без рефлексии и метаданных Bean Validation.
+ * <p>
+ * Проверяет те же ограничения и возвращает те же сообщения, что аннотации на {@link DroneDto}
+ * в реализации Hibernate Validator: {@code @NotBlank} отклоняет строки из символов не выше пробела,
+ * {@code NaN} нарушает все числовые ограничения, {@code @Positive}/{@code @Max} не проверяются при отсутствии значения.
+ * Если поля не нарушают ограничений, никаких объектов не создается.
+ */
+@Component
+public class DroneDtoValidator {
+
+    /**
+     * @return сообщения о нарушениях в порядке объявления полей; пустой неизменяемый список, если нарушений нет
+     */
+    public List<String> validate(DroneDto droneDto) {
+        List<String> errors = null;
+
+        if (isBlank(droneDto.getModel())) {
+            errors = add(errors, "Модель БПЛА не может быть пустой");
+        }
+
+        if (!droneDto.hasSpeed()) {
+            errors = add(errors, "Скорость БПЛА обязательна");
+        } else {
+            double speed = droneDto.speedValue();
+            if (!(speed > 0)) {
+                errors = add(errors, "Скорость должна быть положительной");
+            }
+            if (!(speed <= 600)) {
+                errors = add(errors, "Скорость должна быть меньше 600 км/ч");
+            }
+        }
+
+        if (!droneDto.hasLatitude()) {
+            errors = add(errors, "Широта обязательна");
+        } else {
+            double latitude = droneDto.latitudeValue();
+            if (!(latitude >= -90.0)) {
+                errors = add(errors, "Широта не может быть меньше -90");
+            }
+            if (!(latitude <= 90.0)) {
+                errors = add(errors, "Широта не может быть больше 90");
+            }
+        }
+
+        if (!droneDto.hasLongitude()) {
+            errors = add(errors, "Долгота обязательна");
+        } else {
+            double longitude = droneDto.longitudeValue();
+            if (!(longitude >= -180.0)) {
+                errors = add(errors, "Долгота не может быть меньше -180");
+            }
+            if (!(longitude <= 180.0)) {
+                errors = add(errors, "Долгота не может быть больше 180");
+            }
+        }
+
+        if (!droneDto.hasFlightAltitude()) {
+            errors = add(errors, "Высота полёта обязательна");
+        } else {
+            double flightAltitude = droneDto.flightAltitudeValue();
+            if (!(flightAltitude > 0)) {
+                errors = add(errors, "Высота полёта должна быть положительной");
+            }
+            if (!(flightAltitude <= 10_000)) {
+                errors = add(errors, "Высота полёта не может быть больше 10 000 метров");
+            }
+        }
+
+        if (isBlank(droneDto.getDetectedBy())) {
+            errors = add(errors, "Устройство обнаружения не может быть пустым");
+        }
+
+        return errors != null ? errors : List.of();
+    }
+
+    /**
+     * Проверяет запись и выбрасывает {@link DroneValidationException} при нарушениях.
+     */
+    public void requireValid(DroneDto droneDto) {
+        List<String> errors = validate(droneDto);
+        if (!errors.isEmpty()) {
+            throw new DroneValidationException(errors);
+        }
+    }
+
+    /**
+     * Та же проверка, что {@code String.trim().length() > 0} в Hibernate Validator, без создания строки.
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> add(List<String> errors, String message) {
+        if (errors == null) {
+            errors = new ArrayList<>(2);
+        }
+        errors.add(message);
+        return errors;
+    }
+}
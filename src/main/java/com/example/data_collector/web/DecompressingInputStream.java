@@ -0,0 +1,116 @@
+package com.example.data_collector.web;
+
+import com.example.data_collector.exception.RequestBodyTooLargeException;
+import com.example.data_collector.exception.RequestDecodingException;
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Потоковая распаковка тела запроса с ограничением распакованного размера.
+ * Данные распаковываются по мере чтения парсером, тело целиком в памяти не собирается.
+ * При превышении лимита выбрасывается {@link RequestBodyTooLargeException}, при повреждении сжатых данных -
+ * {@link RequestDecodingException}; оба исключения не проверяемые, поэтому проходят через Jackson без обертки.
+ */
+public final class DecompressingInputStream extends InputStream {
+
+    public static final String GZIP = "gzip";
+
+    public static final String ZSTD = "zstd";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Окно zstd не больше 8 МБ (RFC 9659): иначе декодер может запросить до 2 ГБ памяти под окно */
+    private static final int ZSTD_MAX_WINDOW_LOG = 23;
+
+    private final InputStream decoder;
+
+    private final String encoding;
+
+    private final long maxBytes;
+
+    private long total;
+
+    private DecompressingInputStream(InputStream decoder, String encoding, long maxBytes) {
+        this.decoder = decoder;
+        this.encoding = encoding;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param encoding значение {@code Content-Encoding}
+     */
+    public static boolean supports(String encoding) {
+        return switch (normalize(encoding)) {
+            case GZIP, "x-gzip", ZSTD -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @param encoding значение {@code Content-Encoding}
+     * @return распаковывающий поток или {@code null}, если способ сжатия не поддерживается
+     */
+    public static InputStream open(String encoding, InputStream compressed, long maxBytes) {
+        String normalized = normalize(encoding);
+        try {
+            return switch (normalized) {
+                case GZIP, "x-gzip" -> new DecompressingInputStream(
+                        new GZIPInputStream(compressed, BUFFER_SIZE), GZIP, maxBytes);
+                case ZSTD -> new DecompressingInputStream(
+                        new ZstdInputStream(compressed).setLongMax(ZSTD_MAX_WINDOW_LOG), ZSTD, maxBytes);
+                default -> null;
+            };
+        } catch (IOException ex) {
+            // Заголовок gzip читается сразу при создании потока
+            throw new RequestDecodingException(normalized, ex);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b;
+        try {
+            b = decoder.read();
+        } catch (IOException ex) {
+            throw new RequestDecodingException(encoding, ex);
+        }
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read;
+        try {
+            read = decoder.read(buffer, offset, length);
+        } catch (IOException ex) {
+            throw new RequestDecodingException(encoding, ex);
+        }
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        decoder.close();
+    }
+
+    private static String normalize(String encoding) {
+        return encoding.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void count(int read) {
+        total += read;
+        if (total > maxBytes) {
+            throw new RequestBodyTooLargeException(maxBytes);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.data_collector.web;
+
+import com.example.data_collector.exception.RequestBodyTooLargeException;
+import com.example.data_collector.exception.UnsupportedContentEncodingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Прием сжатых тел запросов на {@code /api/drones}: {@code Content-Encoding: gzip} или {@code zstd}.
+ * <p>
+ * Тело распаковывается потоково по мере чтения парсером ({@link DecompressingInputStream}); для обработчика
+ * запрос выглядит несжатым: заголовки {@code Content-Encoding} и {@code Content-Length} скрыты.
+ * Поддерживается и неблокирующее чтение тела ({@link ReadListener}).
+ * Неподдерживаемый способ сжатия отклоняется до обработчика; ошибки распаковки и превышение
+ * {@code drone.compression.max-decompressed-bytes} возникают при чтении тела и обрабатываются
+ * {@code GlobalExceptionHandler}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "drone.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private static final String PATH_PREFIX = "/api/drones";
+
+    private final long maxDecompressedBytes;
+
+    private final HandlerExceptionResolver exceptionResolver;
+
+    private final Counter gzipRequests;
+
+    private final Counter zstdRequests;
+
+    public RequestDecompressionFilter(@Value("${drone.compression.max-decompressed-bytes:4194304}") long maxDecompressedBytes,
+                                      @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                                      MeterRegistry meterRegistry) {
+        this.maxDecompressedBytes = maxDecompressedBytes;
+        this.exceptionResolver = exceptionResolver;
+        this.gzipRequests = requestCounter(meterRegistry, DecompressingInputStream.GZIP);
+        this.zstdRequests = requestCounter(meterRegistry, DecompressingInputStream.ZSTD);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String encoding) {
+        return Counter.builder("drone.ingest.compressed")
+                .tag("encoding", encoding)
+                .description("Запросы со сжатым телом")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.isBlank() || encoding.trim().equalsIgnoreCase("identity")) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!DecompressingInputStream.supports(encoding)) {
+            // Фильтр работает до DispatcherServlet: ответ формируется тем же GlobalExceptionHandler
+            exceptionResolver.resolveException(request, response, null, new UnsupportedContentEncodingException(encoding));
+            return;
+        }
+
+        if (encoding.trim().toLowerCase(Locale.ROOT).equals(DecompressingInputStream.ZSTD)) {
+            zstdRequests.increment();
+        } else {
+            gzipRequests.increment();
+        }
+        DecompressedInputStream body = new DecompressedInputStream(request.getInputStream(), encoding, maxDecompressedBytes);
+        try {
+            chain.doFilter(new DecompressedRequest(request, body), response);
+        } finally {
+            // При асинхронной обработке тело дочитывается после выхода из фильтра
+            if (!request.isAsyncStarted()) {
+                body.close();
+            }
+        }
+    }
+
+    private static final class DecompressedRequest extends HttpServletRequestWrapper {
+
+        private final ServletInputStream inputStream;
+
+        private DecompressedRequest(HttpServletRequest request, ServletInputStream body) {
+            super(request);
+            this.inputStream = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(inputStream, charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return hidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(DecompressedRequest::hidden);
+            return Collections.enumeration(names);
+        }
+
+        private static boolean hidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Распакованное тело. В блокирующем режиме распаковщик создается при первом чтении и читает исходный поток.
+     * В неблокирующем ({@link #setReadListener}) сжатое тело сначала дочитывается в память по мере поступления
+     * (не больше лимита распакованного размера), и только затем распаковывается: чтение из распаковщика
+     * не должно блокироваться на сети.
+     */
+    static final class DecompressedInputStream extends ServletInputStream {
+
+        private final ServletInputStream compressed;
+
+        private final String encoding;
+
+        private final long maxBytes;
+
+        private InputStream body;
+
+        private volatile boolean ready = true;
+
+        private boolean finished;
+
+        DecompressedInputStream(ServletInputStream compressed, String encoding, long maxBytes) {
+            this.compressed = compressed;
+            this.encoding = encoding;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = body().read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = body().read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            ready = false;
+            compressed.setReadListener(new BufferingReadListener(readListener));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                body.close();
+            } else {
+                compressed.close();
+            }
+        }
+
+        private InputStream body() {
+            if (body == null) {
+                body = DecompressingInputStream.open(encoding, compressed, maxBytes);
+            }
+            return body;
+        }
+
+        private final class BufferingReadListener implements ReadListener {
+
+            private final ReadListener delegate;
+
+            private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+            private final byte[] chunk = new byte[8192];
+
+            private BufferingReadListener(ReadListener delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (compressed.isReady()) {
+                    int read = compressed.read(chunk);
+                    if (read < 0) {
+                        return;
+                    }
+                    buffer.write(chunk, 0, read);
+                    if (buffer.size() > maxBytes) {
+                        // Контейнер передаст исключение в onError
+                        throw new RequestBodyTooLargeException(maxBytes);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() throws IOException {
+                body = DecompressingInputStream.open(encoding, new ByteArrayInputStream(buffer.toByteArray()), maxBytes);
+                ready = true;
+                delegate.onDataAvailable();
+                if (finished) {
+                    delegate.onAllDataRead();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                delegate.onError(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.data_collector;
+
+import com.example.data_collector.dto.DroneDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@EmbeddedKafka(partitions = 1, topics = {"drone-topic"})
+@TestPropertySource(properties = {
+        "spring.kafka.topic.drone=drone-topic",
+        "drone.ack-mode=async"
+})
+class DroneControllerAsyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private KafkaTemplate<String, DroneDto> kafkaTemplate;
+
+    private DroneDto validDroneDto;
+
+    @BeforeEach
+    void setUp() {
+        validDroneDto = new DroneDto();
+        validDroneDto.setModel("Model");
+        validDroneDto.setSpeed(50.0);
+        validDroneDto.setLatitude(70.0);
+        validDroneDto.setLongitude(90.0);
+        validDroneDto.setFlightAltitude(120.0);
+        validDroneDto.setDetectedBy("DetectedBy");
+    }
+
+    @Test
+    void whenValidDroneData_thenAsyncSuccess() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is("Данные о БПЛА приняты в обработку")));
+    }
+
+    @Test
+    void whenKafkaTimeout_thenAsyncServiceUnavailable() throws Exception {
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error", is("Ошибка обработки сообщения")))
+                .andExpect(jsonPath("$.uuid").exists());
+    }
+
+    @Test
+    void whenKafkaFails_thenAsyncServiceUnavailable() throws Exception {
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker down")));
+
+        MvcResult mvcResult = mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message", is("Временные проблемы с обработкой данных. Пожалуйста, повторите запрос позже")));
+    }
+}
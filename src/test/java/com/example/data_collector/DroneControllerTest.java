@@ -9,6 +9,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
+import org.apache.kafka.clients.producer.BufferExhaustedException;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.test.context.TestPropertySource;
@@ -16,20 +18,35 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @EmbeddedKafka(partitions = 1, topics = {"drone-topic"})
 @TestPropertySource(properties = {
-        "spring.kafka.topic.drone=drone-topic"
+        "spring.kafka.topic.drone=drone-topic",
+        // Лимит частоты только для устройства flood-radar: 1 запись/с без запаса
+        "drone.admission.enabled=true",
+        "drone.admission.default-rate=0",
+        "drone.admission.classes.flood.rate=1",
+        "drone.admission.classes.flood.burst=1",
+        "drone.admission.classes.flood.sensors[0]=flood-radar"
 })
 class DroneControllerTest {
 
@@ -48,6 +65,9 @@ class DroneControllerTest {
     @Autowired
     private LoggingAspect loggingAspect;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private DroneDto validDroneDto;
 
     @BeforeEach
@@ -175,6 +195,17 @@ class DroneControllerTest {
                 .andExpect(jsonPath("$.time").exists());
     }
 
+    @Test
+    void whenSpeedMissing_thenValidationError() throws Exception {
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"model\":\"Model\",\"latitude\":70.0,\"longitude\":90.0,"
+                                + "\"flightAltitude\":120.0,\"detectedBy\":\"DetectedBy\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Ошибка валидации входных данных")))
+                .andExpect(jsonPath("$.message", containsString("Скорость БПЛА обязательна")));
+    }
+
     @Test
     void whenKafkaTimeout_thenServiceUnavailable() throws Exception {
         CompletableFuture<SendResult<String, DroneDto>> future =
@@ -240,4 +271,281 @@ class DroneControllerTest {
                 .andExpect(jsonPath("$.uuid").exists())
                 .andExpect(jsonPath("$.time").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenBatchJsonArray_thenPerRecordSummary() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        DroneDto invalidDroneDto = new DroneDto();
+        invalidDroneDto.setModel("Model");
+        invalidDroneDto.setSpeed(700.0);
+        invalidDroneDto.setLatitude(70.0);
+        invalidDroneDto.setLongitude(90.0);
+        invalidDroneDto.setFlightAltitude(120.0);
+        invalidDroneDto.setDetectedBy("DetectedBy");
+
+        mockMvc.perform(post("/api/drones/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DroneDto[]{validDroneDto, invalidDroneDto, validDroneDto})))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.results[1].status", is("rejected")))
+                .andExpect(jsonPath("$.results[1].errors[0]", is("Скорость должна быть меньше 600 км/ч")))
+                .andExpect(jsonPath("$.results[2].status", is("accepted")));
+
+        verify(kafkaTemplate, times(2)).send(any(String.class), any(String.class), any(DroneDto.class));
+    }
+
+    @Test
+    void whenBatchNdjsonWithMalformedRecord_thenOtherRecordsAccepted() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        String valid = objectMapper.writeValueAsString(validDroneDto);
+        String ndjson = valid + "\n{\"speed\": \"fast\"}\n" + valid + "\n";
+
+        mockMvc.perform(post("/api/drones/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.results[1].errors[0]", is("Некорректный формат записи")));
+    }
+
+    @Test
+    void whenBodyCompressed_thenDecompressedBeforeParsing() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+        String valid = objectMapper.writeValueAsString(validDroneDto);
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "gzip")
+                        .content(gzip(valid.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/drones/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("Content-Encoding", "zstd")
+                        .content(Zstd.compress((valid + "\n" + valid + "\n").getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(2)));
+
+        verify(kafkaTemplate, times(3)).send(any(String.class), any(String.class), any(DroneDto.class));
+    }
+
+    @Test
+    void whenDecompressedBodyExceedsLimit_thenPayloadTooLarge() throws Exception {
+        // 5 МБ пробелов сжимаются в несколько килобайт, лимит по умолчанию - 4 МБ
+        byte[] bomb = new byte[5 * 1024 * 1024];
+        Arrays.fill(bomb, (byte) ' ');
+
+        for (String path : new String[]{"/api/drones", "/api/drones/batch"}) {
+            mockMvc.perform(post(path)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .header("Content-Encoding", "gzip")
+                            .content(gzip(bomb)))
+                    .andExpect(status().isPayloadTooLarge())
+                    .andExpect(jsonPath("$.error", is("Слишком большой запрос")))
+                    .andExpect(jsonPath("$.uuid").exists());
+        }
+        verify(kafkaTemplate, never()).send(any(String.class), any(String.class), any(DroneDto.class));
+    }
+
+    @Test
+    void whenCompressedBodyCorruptOrEncodingUnsupported_thenRejected() throws Exception {
+        byte[] compressed = gzip(objectMapper.writeValueAsBytes(validDroneDto));
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "gzip")
+                        .content(truncated))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Некорректный формат запроса")));
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "br")
+                        .content(compressed))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string("Accept-Encoding", "gzip, zstd"))
+                .andExpect(jsonPath("$.error", is("Неподдерживаемое сжатие запроса")));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void whenBatchKafkaFails_thenRecordRejected() throws Exception {
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker down")));
+
+        mockMvc.perform(post("/api/drones/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DroneDto[]{validDroneDto})))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(0)))
+                .andExpect(jsonPath("$.results[0].errors[0]", is("Ошибка отправки в Kafka")));
+    }
+
+    @Test
+    void whenProducerBufferExhausted_thenTooManyRequests() throws Exception {
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new KafkaException("Send failed", new BufferExhaustedException("Buffer full"))));
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", is("Превышена допустимая нагрузка")))
+                .andExpect(jsonPath("$.uuid").exists())
+                .andExpect(jsonPath("$.time").exists());
+    }
+
+    @Test
+    void whenSensorExceedsRateLimit_thenTooManyRequests() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+        validDroneDto.setDetectedBy("flood-radar");
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error", is("Превышена допустимая частота записей")))
+                .andExpect(jsonPath("$.message", containsString("'flood-radar'")))
+                .andExpect(jsonPath("$.uuid").exists());
+
+        validDroneDto.setDetectedBy("DetectedBy");
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenValidDroneData_thenStageTimersRecorded() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+        long[] before = {stageCount("parse"), stageCount("validate"), stageCount("enqueue"), stageCount("ack")};
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isOk());
+
+        assertThat(new long[]{stageCount("parse"), stageCount("validate"), stageCount("enqueue"), stageCount("ack")})
+                .containsExactly(before[0] + 1, before[1] + 1, before[2] + 1, before[3] + 1);
+    }
+
+    @Test
+    void whenValidationError_thenErrorCounterIncremented() throws Exception {
+        validDroneDto.setSpeed(-10.0);
+        double before = meterRegistry.get("drone.api.errors").tag("type", "validation").counter().count();
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(meterRegistry.get("drone.api.errors").tag("type", "validation").counter().count())
+                .isEqualTo(before + 1);
+    }
+
+    @Test
+    void whenDroneAccepted_thenReturnedByRecentQuery() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+        validDroneDto.setDetectedBy("recent-radar");
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/drones/recent")
+                        .param("detectedBy", "recent-radar")
+                        .param("since", "2020-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].model", is("Model")))
+                .andExpect(jsonPath("$[0].latitude", is(70.0)))
+                .andExpect(jsonPath("$[0].time").exists());
+    }
+
+    @Test
+    void whenDroneAccepted_thenReturnedByNearbyQuery() throws Exception {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaTemplate.send(any(String.class), any(String.class), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+        validDroneDto.setDetectedBy("spatial-radar");
+        validDroneDto.setLatitude(-45.0);
+        validDroneDto.setLongitude(-120.0);
+
+        mockMvc.perform(post("/api/drones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDroneDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/drones/nearby")
+                        .param("latitude", "-45.01")
+                        .param("longitude", "-120.0")
+                        .param("radiusKm", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].detectedBy", is("spatial-radar")));
+
+        mockMvc.perform(get("/api/drones/bbox")
+                        .param("minLatitude", "-46")
+                        .param("minLongitude", "-121")
+                        .param("maxLatitude", "-44")
+                        .param("maxLongitude", "-119"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void whenNearbyParametersInvalid_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/drones/nearby")
+                        .param("latitude", "95")
+                        .param("longitude", "0")
+                        .param("radiusKm", "5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Ошибка валидации входных данных")));
+
+        mockMvc.perform(get("/api/drones/nearby").param("latitude", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Некорректный параметр запроса")));
+    }
+
+    @Test
+    void whenRecentSinceInvalid_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/drones/recent").param("since", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Некорректный параметр запроса")));
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.get("drone.ingest.stage").tag("stage", stage).timer().count();
+    }
+}
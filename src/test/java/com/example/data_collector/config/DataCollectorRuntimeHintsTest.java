@@ -0,0 +1,37 @@
+package com.example.data_collector.config;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.dto.DroneDtoJsonDeserializer;
+import com.example.data_collector.dto.ErrorResponse;
+import com.example.data_collector.dto.ErrorResponseJsonSerializer;
+import com.example.data_collector.kafka.priority.PriorityRule;
+import com.example.data_collector.kafka.serialization.DroneDtoBinarySerializer;
+import com.example.data_collector.service.admission.SensorClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataCollectorRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void serializersAndBoundTypesAreRegistered() {
+        new DataCollectorRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(DroneDto.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ErrorResponse.class)).accepts(hints);
+        for (Class<?> type : new Class<?>[]{DroneDtoJsonDeserializer.class, ErrorResponseJsonSerializer.class,
+                JsonSerializer.class, DroneDtoBinarySerializer.class}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type).withMemberCategory(
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.reflection().onType(PriorityRule.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(PriorityRule.Zone.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(SensorClass.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.data_collector.dto;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DroneDtoJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Test
+    void whenAllFieldsPresent_thenParsed() throws Exception {
+        DroneDto droneDto = objectMapper.readValue("""
+                {"model":"Mavic","speed":72.5,"latitude":-55.75,"longitude":37,"flightAltitude":"350","detectedBy":"radar-1","extra":{"a":[1,2]}}
+                """, DroneDto.class);
+
+        assertThat(droneDto.getModel()).isEqualTo("Mavic");
+        assertThat(droneDto.getSpeed()).isEqualTo(72.5);
+        assertThat(droneDto.getLatitude()).isEqualTo(-55.75);
+        assertThat(droneDto.getLongitude()).isEqualTo(37.0);
+        assertThat(droneDto.getFlightAltitude()).isEqualTo(350.0);
+        assertThat(droneDto.getDetectedBy()).isEqualTo("radar-1");
+    }
+
+    @Test
+    void whenFieldsNullOrMissing_thenGettersReturnNull() throws Exception {
+        DroneDto droneDto = objectMapper.readValue("""
+                {"model":null,"speed":null,"latitude":""}
+                """, DroneDto.class);
+
+        assertThat(droneDto.getModel()).isNull();
+        assertThat(droneDto.getSpeed()).isNull();
+        assertThat(droneDto.getLatitude()).isNull();
+        assertThat(droneDto.getLongitude()).isNull();
+        assertThat(droneDto.hasFlightAltitude()).isFalse();
+        assertThat(droneDto.getDetectedBy()).isNull();
+    }
+
+    @Test
+    void whenNumberMalformed_thenFormatException() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"speed\":\"fast\"}", DroneDto.class))
+                .isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> objectMapper.readValue("{\"speed\":[1]}", DroneDto.class))
+                .isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> objectMapper.readValue("[]", DroneDto.class))
+                .isInstanceOf(MismatchedInputException.class);
+    }
+
+    @Test
+    void whenSerialized_thenSameShapeAsBean() throws Exception {
+        DroneDto droneDto = DroneDto.of("Mavic", 72.5, 55.75, 37.6, 350.0, "radar-1");
+        droneDto.setSpeed(null);
+
+        assertThat(objectMapper.writeValueAsString(droneDto)).isEqualTo(
+                "{\"model\":\"Mavic\",\"speed\":null,\"latitude\":55.75,\"longitude\":37.6,"
+                        + "\"flightAltitude\":350.0,\"detectedBy\":\"radar-1\"}");
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsString(droneDto), DroneDto.class))
+                .usingRecursiveComparison().isEqualTo(droneDto);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.data_collector.exception;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThrottledExceptionLoggerTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(1000);
+
+    private final ThrottledExceptionLogger logger = new ThrottledExceptionLogger(1000);
+
+    @Test
+    void whenRepeatedWithinInterval_thenSuppressedAndCountedOnNextLog() {
+        KafkaException ex = new KafkaException("Таймаут отправки в Kafka");
+
+        assertThat(logger.tryLog(ex, null, 0)).isZero();
+        assertThat(logger.tryLog(ex, null, 1)).isEqualTo(-1);
+        assertThat(logger.tryLog(ex, null, INTERVAL - 1)).isEqualTo(-1);
+        assertThat(logger.tryLog(ex, null, INTERVAL)).isEqualTo(2);
+        assertThat(logger.tryLog(ex, null, INTERVAL + 1)).isEqualTo(-1);
+    }
+
+    @Test
+    void whenDifferentSourceOrCause_thenLoggedSeparately() {
+        KafkaException timeout = new KafkaException("Таймаут отправки в Kafka");
+        KafkaException parse = new KafkaException("Ошибка", new JsonParseException(null, "Unexpected end-of-input"));
+
+        assertThat(logger.tryLog(timeout, "10.0.0.1", 0)).isZero();
+        assertThat(logger.tryLog(timeout, "10.0.0.2", 1)).isZero();
+        assertThat(logger.tryLog(parse, "10.0.0.1", 2)).isZero();
+        assertThat(logger.tryLog(timeout, "10.0.0.1", 3)).isEqualTo(-1);
+    }
+
+    @Test
+    void whenGroupsFullAndIdle_thenIdleGroupsEvicted() {
+        long start = System.nanoTime();
+        for (int i = 0; i < 1024; i++) {
+            logger.tryLog(new KafkaException("Ошибка"), "10.0.0." + i, start);
+        }
+
+        // Спустя два интервала старые группы простаивают, новый источник получает собственную группу
+        long later = start + 2 * INTERVAL;
+        assertThat(logger.tryLog(new KafkaException("Ошибка"), "10.0.1.1", later)).isZero();
+        assertThat(logger.size()).isEqualTo(1);
+        assertThat(logger.tryLog(new KafkaException("Ошибка"), "10.0.1.2", later + 1)).isZero();
+        assertThat(logger.tryLog(new KafkaException("Ошибка"), "10.0.1.1", later + 2)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.data_collector.ingest;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.serialization.DroneDtoBinaryCodec;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.DroneService;
+import com.example.data_collector.validation.DroneDtoValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BinaryIngestListenerTest {
+
+    private static final Map<String, String> ACCEPTED = Map.of("message", "ok");
+
+    private final DroneService droneService = mock(DroneService.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TcpIngestListener tcpListener;
+
+    private UdpIngestListener udpListener;
+
+    @AfterEach
+    void tearDown() {
+        if (tcpListener != null) {
+            tcpListener.stop();
+        }
+        if (udpListener != null) {
+            udpListener.stop();
+        }
+    }
+
+    @Test
+    void whenTcpFramesSent_thenEachRecordAcknowledged() throws Exception {
+        when(droneService.sendToKafkaAsync(any(DroneDto.class))).thenReturn(CompletableFuture.completedFuture(ACCEPTED));
+        tcpListener = tcpListener(1024);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), tcpListener.getPort())) {
+            socket.setSoTimeout(5000);
+            ByteBuffer frames = ByteBuffer.allocate(1024);
+            BinaryIngestProtocol.writeRecord(frames, 1, DroneDtoBinaryCodec.encode(validDrone()));
+            BinaryIngestProtocol.writeRecord(frames, 2, DroneDtoBinaryCodec.encode(invalidDrone()));
+            BinaryIngestProtocol.writeRecord(frames, 3, new byte[]{9, 9, 9});
+            send(socket.getOutputStream(), frames);
+
+            Map<Integer, AckStatus> acks = readAcks(new DataInputStream(socket.getInputStream()), 3);
+
+            assertThat(acks).containsExactlyInAnyOrderEntriesOf(Map.of(
+                    1, AckStatus.ACCEPTED, 2, AckStatus.INVALID, 3, AckStatus.MALFORMED));
+        }
+        assertThat(meterRegistry.get("drone.ingest.binary.records")
+                .tags("transport", "tcp", "status", "accepted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenTcpWindowFull_thenReadingPausedUntilAcknowledged() throws Exception {
+        List<CompletableFuture<Map<String, String>>> sends = new ArrayList<>();
+        when(droneService.sendToKafkaAsync(any(DroneDto.class))).thenAnswer(invocation -> {
+            CompletableFuture<Map<String, String>> future = new CompletableFuture<>();
+            synchronized (sends) {
+                sends.add(future);
+            }
+            return future;
+        });
+        tcpListener = tcpListener(4);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), tcpListener.getPort())) {
+            socket.setSoTimeout(5000);
+            ByteBuffer frames = ByteBuffer.allocate(4096);
+            byte[] record = DroneDtoBinaryCodec.encode(validDrone());
+            for (int sequence = 0; sequence < 10; sequence++) {
+                BinaryIngestProtocol.writeRecord(frames, sequence, record);
+            }
+            send(socket.getOutputStream(), frames);
+
+            verify(droneService, timeout(2000).times(4)).sendToKafkaAsync(any(DroneDto.class));
+            Thread.sleep(100);
+            verify(droneService, times(4)).sendToKafkaAsync(any(DroneDto.class));
+
+            // Завершение отправок освобождает окно; остальные записи дочитываются из буфера
+            when(droneService.sendToKafkaAsync(any(DroneDto.class)))
+                    .thenReturn(CompletableFuture.completedFuture(ACCEPTED));
+            synchronized (sends) {
+                sends.forEach(future -> future.complete(ACCEPTED));
+            }
+            Map<Integer, AckStatus> acks = readAcks(new DataInputStream(socket.getInputStream()), 10);
+            assertThat(acks).hasSize(10).containsOnlyKeys(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        }
+    }
+
+    @Test
+    void whenUdpDatagramSent_thenAcknowledgedAndOverflowRejected() throws Exception {
+        when(droneService.sendToKafkaAsync(any(DroneDto.class))).thenReturn(new CompletableFuture<>());
+        udpListener = new UdpIngestListener(0, 2, 64, 5, 100, 60_000, 1 << 20, droneService, new DroneDtoValidator(),
+                new IngestStageMetrics(meterRegistry), meterRegistry);
+        udpListener.start();
+
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setSoTimeout(2000);
+            ByteBuffer frames = ByteBuffer.allocate(1024);
+            BinaryIngestProtocol.writeRecord(frames, 1, DroneDtoBinaryCodec.encode(invalidDrone()));
+            byte[] record = DroneDtoBinaryCodec.encode(validDrone());
+            for (int sequence = 2; sequence <= 4; sequence++) {
+                BinaryIngestProtocol.writeRecord(frames, sequence, record);
+            }
+            socket.send(new DatagramPacket(frames.array(), frames.position(),
+                    InetAddress.getLoopbackAddress(), udpListener.getPort()));
+
+            DatagramPacket packet = new DatagramPacket(new byte[UdpIngestListener.MAX_ACK_DATAGRAM_BYTES],
+                    UdpIngestListener.MAX_ACK_DATAGRAM_BYTES);
+            socket.receive(packet);
+            Map<Integer, AckStatus> acks = readAcks(new DataInputStream(
+                    new ByteArrayInputStream(packet.getData(), 0, packet.getLength())), 1);
+
+            // Первая запись не прошла валидацию, две ждут Kafka, последняя сверх окна отправителя
+            assertThat(acks).containsExactlyInAnyOrderEntriesOf(Map.of(1, AckStatus.INVALID, 4, AckStatus.OVERLOADED));
+        }
+        verify(droneService, times(2)).sendToKafkaAsync(any(DroneDto.class));
+    }
+
+    private TcpIngestListener tcpListener(int maxPending) {
+        TcpIngestListener listener = new TcpIngestListener(0, 1, 4096, maxPending, 64, 5, droneService,
+                new DroneDtoValidator(), new IngestStageMetrics(meterRegistry), meterRegistry);
+        listener.start();
+        return listener;
+    }
+
+    private static void send(OutputStream out, ByteBuffer frames) throws IOException {
+        out.write(frames.array(), 0, frames.position());
+        out.flush();
+    }
+
+    /**
+     * Читает кадры подтверждений, пока не наберется {@code minAcks} подтверждений.
+     */
+    private static Map<Integer, AckStatus> readAcks(DataInputStream in, int minAcks) throws IOException {
+        Map<Integer, AckStatus> acks = new HashMap<>();
+        while (acks.size() < minAcks) {
+            in.readInt();
+            assertThat(in.readByte()).isEqualTo(BinaryIngestProtocol.ACK_FRAME);
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                acks.put(in.readInt(), AckStatus.fromCode(in.readByte()));
+            }
+        }
+        return acks;
+    }
+
+    private static DroneDto validDrone() {
+        return DroneDto.of("DJI Mavic 3", 54.5, 55.75, 37.61, 120.0, "radar-1");
+    }
+
+    private static DroneDto invalidDrone() {
+        return DroneDto.of("", 700.0, -100.0, 37.61, 120.0, "radar-1");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.pool.ShardedProducerPool;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AdaptiveLingerControllerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final IngestStageMetrics stageMetrics = new IngestStageMetrics(meterRegistry);
+
+    @SuppressWarnings("unchecked")
+    private final ProducerFactory<String, DroneDto> producerFactory = mock(ProducerFactory.class);
+
+    private AdaptiveLingerController controller;
+
+    private long now;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(producerFactory.getConfigurationProperties()).thenReturn(Map.of());
+        when(producerFactory.copyWithConfigurationOverride(any())).thenAnswer(invocation -> {
+            // Новый продюсер прогревается запросом метаданных до переключения на него
+            ProducerFactory<String, DroneDto> factory = mock(ProducerFactory.class);
+            when(factory.createProducer()).thenReturn(mock(Producer.class));
+            return factory;
+        });
+        controller = new AdaptiveLingerController(new ReconfigurableProducer(new KafkaTemplate<>(producerFactory), "drone-topic", 1000),
+                stageMetrics, 0, 8, 2000, 500, 100,
+                new DefaultListableBeanFactory().getBeanProvider(ShardedProducerPool.class), meterRegistry);
+        now = System.nanoTime();
+    }
+
+    @Test
+    void whenBurst_thenLingerDoublesUpToMax() {
+        for (int expected : new int[]{1, 2, 4, 8, 8}) {
+            tick(5000, 5);
+            assertThat(controller.lingerMs()).isEqualTo(expected);
+        }
+        verify(producerFactory).copyWithConfigurationOverride(Map.of(ProducerConfig.LINGER_MS_CONFIG, 8));
+        verify(producerFactory, times(4)).copyWithConfigurationOverride(any());
+        // Исходный продюсер закрыт один раз - при первом переключении
+        verify(producerFactory).reset();
+    }
+
+    @Test
+    void whenRateBetweenThresholds_thenLingerKept() {
+        tick(5000, 5);
+        tick(5000, 5);
+        tick(1000, 5);
+        assertThat(controller.lingerMs()).isEqualTo(2);
+        verify(producerFactory, times(2)).copyWithConfigurationOverride(any());
+    }
+
+    @Test
+    void whenQuietOrAckLatencyOverBudget_thenLingerHalves() {
+        tick(5000, 5);
+        tick(5000, 5);
+        tick(5000, 5);
+        tick(5000, 150);
+        assertThat(controller.lingerMs()).isEqualTo(2);
+        tick(100, 5);
+        tick(0, 0);
+        assertThat(controller.lingerMs()).isZero();
+    }
+
+    private void tick(int sendsPerSecond, long ackMillis) {
+        for (int i = 0; i < sendsPerSecond; i++) {
+            stageMetrics.timer(IngestStageMetrics.Stage.ENQUEUE).record(10, TimeUnit.MICROSECONDS);
+            stageMetrics.timer(IngestStageMetrics.Stage.ACK).record(ackMillis, TimeUnit.MILLISECONDS);
+        }
+        now += SECOND;
+        controller.adjust(now);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.exception.IngestOverloadedException;
+import com.example.data_collector.kafka.priority.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InFlightLimiterTest {
+
+    @Test
+    void whenBulkSaturated_thenReservedPermitsRemainForCriticalLane() {
+        InFlightLimiter limiter = new InFlightLimiter(10, 1, true, 3, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 7; i++) {
+            limiter.acquire(Lane.BULK);
+        }
+        assertThatThrownBy(() -> limiter.acquire(Lane.BULK)).isInstanceOf(IngestOverloadedException.class);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(Lane.CRITICAL);
+        }
+        assertThatThrownBy(() -> limiter.acquire(Lane.CRITICAL)).isInstanceOf(IngestOverloadedException.class);
+        assertThat(limiter.inFlight()).isEqualTo(10);
+
+        limiter.release();
+        limiter.acquire(Lane.CRITICAL);
+    }
+
+    @Test
+    void whenPriorityDisabled_thenReservationIgnored() {
+        InFlightLimiter limiter = new InFlightLimiter(10, 1, false, 3, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+        assertThatThrownBy(limiter::acquire).isInstanceOf(IngestOverloadedException.class);
+    }
+}
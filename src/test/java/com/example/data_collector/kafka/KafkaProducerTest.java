@@ -0,0 +1,84 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.partitioning.PartitionMetrics;
+import com.example.data_collector.kafka.partitioning.PartitionRouter;
+import com.example.data_collector.kafka.priority.Lane;
+import com.example.data_collector.kafka.priority.PriorityLanes;
+import com.example.data_collector.kafka.spool.DroneSpool;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class KafkaProducerTest {
+
+    private static final DroneDto CRITICAL = DroneDto.of("Shahed-136", 150.0, 55.75, 37.6, 120.0, "radar-1");
+
+    private static final DroneDto BULK = DroneDto.of("DJI Mavic 3", 20.0, 55.75, 37.6, 120.0, "radar-1");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReconfigurableProducer producer = mock(ReconfigurableProducer.class);
+
+    private final PriorityLanes priorityLanes = mock(PriorityLanes.class);
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, DroneDto> criticalTemplate = mock(KafkaTemplate.class);
+
+    private final DroneSpool spool = mock(DroneSpool.class);
+
+    private final KafkaProducer kafkaProducer = new KafkaProducer();
+
+    @BeforeEach
+    void setUp() {
+        PartitionRouter partitionRouter = mock(PartitionRouter.class);
+        when(partitionRouter.key(any())).thenAnswer(invocation -> invocation.<DroneDto>getArgument(0).getDetectedBy());
+        // Mockito по умолчанию вернул бы раздел 0; без явного раздела его выбирает продюсер
+        when(partitionRouter.partition(anyString(), any(), anyString())).thenReturn(null);
+        when(priorityLanes.classify(CRITICAL)).thenReturn(Lane.CRITICAL);
+        when(priorityLanes.classify(BULK)).thenReturn(Lane.BULK);
+        when(priorityLanes.topic()).thenReturn("drone-topic-critical");
+        when(priorityLanes.template()).thenReturn(criticalTemplate);
+        when(criticalTemplate.send(anyString(), anyString(), any(DroneDto.class))).thenReturn(new CompletableFuture<>());
+        when(spool.hasBacklog()).thenReturn(true);
+        when(spool.append(any())).thenReturn(true);
+
+        ReflectionTestUtils.setField(kafkaProducer, "topic", "drone-topic");
+        ReflectionTestUtils.setField(kafkaProducer, "producer", producer);
+        ReflectionTestUtils.setField(kafkaProducer, "inFlightLimiter", new InFlightLimiter(100, 1, false, 0, meterRegistry));
+        ReflectionTestUtils.setField(kafkaProducer, "partitionRouter", partitionRouter);
+        ReflectionTestUtils.setField(kafkaProducer, "partitionMetrics", new PartitionMetrics(meterRegistry));
+        ReflectionTestUtils.setField(kafkaProducer, "stageMetrics", new IngestStageMetrics(meterRegistry));
+        ReflectionTestUtils.setField(kafkaProducer, "spool", spool);
+        ReflectionTestUtils.setField(kafkaProducer, "priorityLanes", priorityLanes);
+    }
+
+    @Test
+    void whenSpoolHasBacklog_thenCriticalRecordSentThroughPriorityLane() {
+        assertThat(kafkaProducer.sendDroneDataDeferred(CRITICAL)).isNotDone();
+        assertThat(kafkaProducer.enqueueDroneData(CRITICAL)).isEqualTo(KafkaProducer.BUFFERED_MESSAGE);
+
+        verify(criticalTemplate, times(2)).send(eq("drone-topic-critical"), eq("radar-1"), eq(CRITICAL));
+        verify(spool, never()).append(any());
+    }
+
+    @Test
+    void whenSpoolHasBacklog_thenBulkRecordQueuedBehindIt() {
+        assertThat(kafkaProducer.sendDroneDataDeferred(BULK)).isCompletedWithValue(KafkaProducer.SPOOLED_MESSAGE);
+        assertThat(kafkaProducer.enqueueDroneData(BULK)).isEqualTo(KafkaProducer.SPOOLED_MESSAGE);
+
+        verify(spool, times(2)).append(BULK);
+        verifyNoInteractions(producer, criticalTemplate);
+    }
+}
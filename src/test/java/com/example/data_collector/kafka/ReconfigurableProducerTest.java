@@ -0,0 +1,110 @@
+package com.example.data_collector.kafka;
+
+import com.example.data_collector.dto.DroneDto;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReconfigurableProducerTest {
+
+    private static final DroneDto DRONE = DroneDto.of("Model", 50.0, 55.75, 37.6, 120.0, "radar-1");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenReconfiguredDuringSend_thenOldProducerClosedOnlyAfterSendReturns() throws Exception {
+        ProducerFactory<String, DroneDto> baseFactory = mock(ProducerFactory.class);
+        Producer<String, DroneDto> baseProducer = mock(Producer.class);
+        when(baseFactory.createProducer()).thenReturn(baseProducer);
+        CountDownLatch sendStarted = new CountDownLatch(1);
+        CountDownLatch sendReleased = new CountDownLatch(1);
+        when(baseProducer.send(any(), any())).thenAnswer(invocation -> {
+            sendStarted.countDown();
+            sendReleased.await();
+            return new CompletableFuture<>();
+        });
+
+        ProducerFactory<String, DroneDto> newFactory = mock(ProducerFactory.class);
+        Producer<String, DroneDto> newProducer = mock(Producer.class);
+        when(newFactory.createProducer()).thenReturn(newProducer);
+        when(newProducer.send(any(), any())).thenReturn(new CompletableFuture<>());
+        when(baseFactory.copyWithConfigurationOverride(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20)))
+                .thenReturn(newFactory);
+
+        ReconfigurableProducer producer = new ReconfigurableProducer(new KafkaTemplate<>(baseFactory), "drone-topic", 1000);
+        Thread sender = new Thread(() -> producer.send("drone-topic", null, "radar-1", DRONE));
+        sender.start();
+        sendStarted.await();
+
+        CompletableFuture<Void> reconfigured = CompletableFuture.runAsync(
+                () -> producer.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20)));
+        // Пока send() в старом продюсере не вернулся, новые отправки уже идут в новый, а старый не закрыт
+        while (producer.template().getProducerFactory() != newFactory) {
+            Thread.onSpinWait();
+        }
+        producer.send("drone-topic", 0, "radar-2", DRONE);
+        verify(newProducer).send(any(ProducerRecord.class), any());
+        Future<?> pending = reconfigured;
+        assertThat(pending.isDone()).isFalse();
+        verify(baseFactory, never()).reset();
+
+        sendReleased.countDown();
+        reconfigured.get(5, TimeUnit.SECONDS);
+        sender.join();
+        verify(baseFactory).reset();
+        verify(newFactory, never()).reset();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenNewProducerGetsMetadataAfterRetry_thenSwitchedOnlyAfterWarmup() {
+        ProducerFactory<String, DroneDto> baseFactory = mock(ProducerFactory.class);
+        ProducerFactory<String, DroneDto> newFactory = mock(ProducerFactory.class);
+        Producer<String, DroneDto> newProducer = mock(Producer.class);
+        when(baseFactory.copyWithConfigurationOverride(any())).thenReturn(newFactory);
+        when(newFactory.createProducer()).thenReturn(newProducer);
+        when(newProducer.partitionsFor("drone-topic"))
+                .thenThrow(new TimeoutException("Метаданные топика не получены за max.block.ms"))
+                .thenReturn(List.of());
+        ReconfigurableProducer producer = new ReconfigurableProducer(new KafkaTemplate<>(baseFactory), "drone-topic", 1000);
+
+        assertThat(producer.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20))).isTrue();
+
+        verify(newProducer, times(2)).partitionsFor("drone-topic");
+        assertThat(producer.template().getProducerFactory()).isSameAs(newFactory);
+        verify(baseFactory).reset();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenNewProducerGetsNoMetadata_thenSendingStaysOnOldProducer() {
+        ProducerFactory<String, DroneDto> baseFactory = mock(ProducerFactory.class);
+        ProducerFactory<String, DroneDto> newFactory = mock(ProducerFactory.class);
+        Producer<String, DroneDto> newProducer = mock(Producer.class);
+        when(baseFactory.copyWithConfigurationOverride(any())).thenReturn(newFactory);
+        when(newFactory.createProducer()).thenReturn(newProducer);
+        when(newProducer.partitionsFor("drone-topic"))
+                .thenThrow(new TimeoutException("Метаданные топика не получены за max.block.ms"));
+        ReconfigurableProducer producer = new ReconfigurableProducer(new KafkaTemplate<>(baseFactory), "drone-topic", 250);
+
+        assertThat(producer.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20))).isFalse();
+
+        assertThat(producer.template().getProducerFactory()).isSameAs(baseFactory);
+        verify(baseFactory, never()).reset();
+        verify(newFactory).reset();
+    }
+}
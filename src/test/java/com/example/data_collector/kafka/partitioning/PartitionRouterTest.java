@@ -0,0 +1,85 @@
+package com.example.data_collector.kafka.partitioning;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.ReconfigurableProducer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PartitionRouterTest {
+
+    private static final int PARTITIONS = 12;
+
+    private final KafkaTemplate<String, DroneDto> kafkaTemplate = mock(KafkaTemplate.class);
+
+    @Test
+    void whenCompositeStrategy_thenKeyIncludesModel() {
+        PartitionRouter router = router(PartitioningStrategy.COMPOSITE);
+
+        assertThat(router.key(drone("radar-1", "Mavic"))).isEqualTo("radar-1:Mavic");
+        assertThat(router.partition("drone-topic", drone("radar-1", "Mavic"), "radar-1:Mavic")).isNull();
+    }
+
+    @Test
+    void whenGeohashStrategy_thenKeyIsCell() {
+        PartitionRouter router = router(PartitioningStrategy.GEOHASH);
+
+        assertThat(router.key(drone("radar-1", "Mavic"))).isEqualTo("ucfv0");
+    }
+
+    @Test
+    void whenKeyIsCold_thenSamePartitionAsKafkaDefault() {
+        PartitionRouter router = router(PartitioningStrategy.LOAD_AWARE);
+        int expected = Utils.toPositive(Utils.murmur2("radar-1".getBytes(StandardCharsets.UTF_8))) % PARTITIONS;
+
+        assertThat(router.partition("drone-topic", drone("radar-1", "Mavic"), "radar-1")).isEqualTo(expected);
+    }
+
+    @Test
+    void whenKeyIsHot_thenSpreadByModelWithStableSubKeyPartition() {
+        PartitionRouter router = router(PartitioningStrategy.LOAD_AWARE);
+        for (int i = 0; i < 20; i++) {
+            router.partition("drone-topic", drone("radar-1", "Mavic"), "radar-1");
+        }
+        router.rollWindow();
+
+        Set<Integer> used = new HashSet<>();
+        IntStream.range(0, 50).forEach(i ->
+                used.add(router.partition("drone-topic", drone("radar-1", "Model-" + i), "radar-1")));
+        Integer first = router.partition("drone-topic", drone("radar-1", "Mavic"), "radar-1");
+        Integer second = router.partition("drone-topic", drone("radar-1", "Mavic"), "radar-1");
+
+        assertThat(used).hasSizeGreaterThan(1).hasSizeLessThanOrEqualTo(4);
+        assertThat(first).isEqualTo(second);
+    }
+
+    private PartitionRouter router(PartitioningStrategy strategy) {
+        List<PartitionInfo> partitions = IntStream.range(0, PARTITIONS)
+                .mapToObj(i -> new PartitionInfo("drone-topic", i, null, null, null))
+                .toList();
+        when(kafkaTemplate.partitionsFor("drone-topic")).thenReturn(partitions);
+        return new PartitionRouter(strategy, 5, 10, 4, new ReconfigurableProducer(kafkaTemplate, "drone-topic", 1000));
+    }
+
+    private static DroneDto drone(String detectedBy, String model) {
+        DroneDto droneDto = new DroneDto();
+        droneDto.setModel(model);
+        droneDto.setSpeed(50.0);
+        droneDto.setLatitude(55.7558);
+        droneDto.setLongitude(37.6173);
+        droneDto.setFlightAltitude(120.0);
+        droneDto.setDetectedBy(detectedBy);
+        return droneDto;
+    }
+}
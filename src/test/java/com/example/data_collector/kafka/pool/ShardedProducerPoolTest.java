@@ -0,0 +1,83 @@
+package com.example.data_collector.kafka.pool;
+
+import com.example.data_collector.dto.DroneDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ShardedProducerPoolTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<ProducerFactory<String, DroneDto>> shardFactories = new ArrayList<>();
+
+    private final List<Producer<String, DroneDto>> shardProducers = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private final ProducerFactory<String, DroneDto> producerFactory = mock(ProducerFactory.class);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(producerFactory.getConfigurationProperties()).thenReturn(Map.of());
+        when(producerFactory.copyWithConfigurationOverride(any())).thenAnswer(invocation -> {
+            ProducerFactory<String, DroneDto> shardFactory = mock(ProducerFactory.class);
+            Producer<String, DroneDto> producer = mock(Producer.class);
+            when(shardFactory.createProducer()).thenReturn(producer);
+            shardFactories.add(shardFactory);
+            shardProducers.add(producer);
+            return shardFactory;
+        });
+    }
+
+    @Test
+    void whenSameKey_thenSameShard() {
+        ShardedProducerPool pool = new ShardedProducerPool(producerFactory, 4, "drone-topic", 1000, meterRegistry);
+
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            String key = "radar-" + i;
+            assertThat(pool.shard(key)).isEqualTo(pool.shard(key));
+            shards.add(pool.shard(key));
+        }
+
+        assertThat(pool.size()).isEqualTo(4);
+        assertThat(shards).containsExactlyInAnyOrder(0, 1, 2, 3);
+        verify(producerFactory).copyWithConfigurationOverride(Map.of(ProducerConfig.CLIENT_ID_CONFIG, "drone-producer-3"));
+    }
+
+    @Test
+    void whenTemplateRequested_thenShardSendCounted() {
+        ShardedProducerPool pool = new ShardedProducerPool(producerFactory, 2, "drone-topic", 1000, meterRegistry);
+
+        pool.producer("radar-1");
+        pool.producer("radar-1");
+
+        String shard = String.valueOf(pool.shard("radar-1"));
+        assertThat(meterRegistry.get("drone.producer.pool.sends").tag("shard", shard).counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void whenClosed_thenEveryShardFlushedAndReset() {
+        ShardedProducerPool pool = new ShardedProducerPool(producerFactory, 3, "drone-topic", 1000, meterRegistry);
+
+        pool.close();
+
+        shardProducers.forEach(producer -> verify(producer).flush());
+        shardFactories.forEach(factory -> verify(factory).reset());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.data_collector.kafka.priority;
+
+import com.example.data_collector.dto.DroneDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class PriorityLanesTest {
+
+    private static final PriorityRule.Zone KREMLIN = new PriorityRule.Zone(55.7520, 37.6175, 5);
+
+    @Test
+    void whenAllConditionsOfRuleHold_thenCritical() {
+        PriorityClassifier classifier = new PriorityClassifier(List.of(
+                new PriorityRule(30.0, null, null, 150.0, List.of(KREMLIN), null, null)));
+
+        assertThat(classifier.classify(drone("DJI Mavic 3", 45, 55.7558, 37.6173, 100, "radar-1")))
+                .isEqualTo(Lane.CRITICAL);
+        // Медленно, высоко или вне зоны
+        assertThat(classifier.classify(drone("DJI Mavic 3", 20, 55.7558, 37.6173, 100, "radar-1")))
+                .isEqualTo(Lane.BULK);
+        assertThat(classifier.classify(drone("DJI Mavic 3", 45, 55.7558, 37.6173, 300, "radar-1")))
+                .isEqualTo(Lane.BULK);
+        assertThat(classifier.classify(drone("DJI Mavic 3", 45, 55.85, 37.6173, 100, "radar-1")))
+                .isEqualTo(Lane.BULK);
+    }
+
+    @Test
+    void whenAnyRuleMatches_thenCritical() {
+        PriorityClassifier classifier = new PriorityClassifier(List.of(
+                new PriorityRule(null, null, null, null, null, Set.of("Shahed-136"), null),
+                new PriorityRule(null, null, null, null, null, null, Set.of("perimeter-radar"))));
+
+        assertThat(classifier.classify(drone("SHAHED-136", 50, 10, 10, 1000, "radar-1"))).isEqualTo(Lane.CRITICAL);
+        assertThat(classifier.classify(drone("DJI Mavic 3", 10, 10, 10, 100, "Perimeter-Radar")))
+                .isEqualTo(Lane.CRITICAL);
+        assertThat(classifier.classify(drone("DJI Mavic 3", 10, 10, 10, 100, "radar-1"))).isEqualTo(Lane.BULK);
+    }
+
+    @Test
+    void whenRuleHasNoConditions_thenRejected() {
+        assertThatThrownBy(() -> new PriorityClassifier(List.of(
+                new PriorityRule(null, null, null, null, List.of(), Set.of(), null))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("не содержит условий");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rulesAndProducerOverridesAreTakenFromConfiguration() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("drone.priority.rules[0].min-speed", "30")
+                .withProperty("drone.priority.rules[0].zones[0].latitude", "55.7520")
+                .withProperty("drone.priority.rules[0].zones[0].longitude", "37.6175")
+                .withProperty("drone.priority.rules[0].zones[0].radius-km", "5")
+                .withProperty("drone.priority.rules[1].models[0]", "Shahed-136");
+        ProducerFactory<String, DroneDto> producerFactory = mock(ProducerFactory.class);
+        when(producerFactory.getConfigurationProperties()).thenReturn(Map.of(ProducerConfig.CLIENT_ID_CONFIG, "collector"));
+        when(producerFactory.copyWithConfigurationOverride(anyMap())).thenReturn(mock(ProducerFactory.class));
+
+        PriorityLanes lanes = new PriorityLanes(producerFactory, environment, "drone-topic-critical",
+                0, 16384, "none", 1 << 20, new SimpleMeterRegistry());
+
+        assertThat(lanes.classify(drone("DJI Mavic 3", 45, 55.7558, 37.6173, 100, "radar-1"))).isEqualTo(Lane.CRITICAL);
+        assertThat(lanes.classify(drone("Shahed-136", 10, 10, 10, 100, "radar-1"))).isEqualTo(Lane.CRITICAL);
+        assertThat(lanes.classify(drone("DJI Mavic 3", 10, 55.7558, 37.6173, 100, "radar-1"))).isEqualTo(Lane.BULK);
+        verify(producerFactory).copyWithConfigurationOverride(Map.of(
+                ProducerConfig.CLIENT_ID_CONFIG, "collector-critical",
+                ProducerConfig.LINGER_MS_CONFIG, 0,
+                ProducerConfig.BATCH_SIZE_CONFIG, 16384,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "none",
+                ProducerConfig.BUFFER_MEMORY_CONFIG, (long) (1 << 20)));
+    }
+
+    private static DroneDto drone(String model, double speed, double latitude, double longitude,
+                                  double flightAltitude, String detectedBy) {
+        return DroneDto.of(model, speed, latitude, longitude, flightAltitude, detectedBy);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.data_collector.kafka.serialization;
+
+import com.example.data_collector.dto.DroneDto;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DroneDtoBinarySerializerTest {
+
+    private final DroneDtoBinarySerializer serializer = new DroneDtoBinarySerializer();
+
+    private final DroneDtoBinaryDeserializer deserializer = new DroneDtoBinaryDeserializer();
+
+    private DroneDto droneDto;
+
+    @BeforeEach
+    void setUp() {
+        droneDto = new DroneDto();
+        droneDto.setModel("DJI Mavic 3");
+        droneDto.setSpeed(72.5);
+        droneDto.setLatitude(55.7558);
+        droneDto.setLongitude(37.6173);
+        droneDto.setFlightAltitude(350.0);
+        droneDto.setDetectedBy("Радар-7");
+    }
+
+    @Test
+    void whenRoundTrip_thenAllFieldsPreserved() {
+        DroneDto decoded = deserializer.deserialize("drone-topic", serializer.serialize("drone-topic", droneDto));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(droneDto);
+    }
+
+    @Test
+    void whenFieldsMissing_thenNullsPreserved() {
+        droneDto.setSpeed(null);
+        droneDto.setDetectedBy(null);
+
+        DroneDto decoded = deserializer.deserialize("drone-topic", serializer.serialize("drone-topic", droneDto));
+
+        assertThat(decoded.getSpeed()).isNull();
+        assertThat(decoded.getDetectedBy()).isNull();
+        assertThat(decoded.getModel()).isEqualTo("DJI Mavic 3");
+    }
+
+    @Test
+    void whenUnknownVersion_thenSerializationException() {
+        byte[] data = serializer.serialize("drone-topic", droneDto);
+        data[0] = 99;
+
+        assertThatThrownBy(() -> deserializer.deserialize("drone-topic", data))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void whenTruncated_thenSerializationException() {
+        byte[] data = serializer.serialize("drone-topic", droneDto);
+        byte[] truncated = java.util.Arrays.copyOf(data, data.length - 3);
+
+        assertThatThrownBy(() -> deserializer.deserialize("drone-topic", truncated))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void whenComparedToJson_thenBinaryIsSmaller() {
+        RecordHeaders headers = new RecordHeaders();
+        try (JsonSerializer<DroneDto> jsonSerializer = new JsonSerializer<>()) {
+            jsonSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, true), false);
+            byte[] json = jsonSerializer.serialize("drone-topic", headers, droneDto);
+            int jsonTotal = json.length + headers.lastHeader("__TypeId__").value().length;
+
+            byte[] binary = serializer.serialize("drone-topic", droneDto);
+
+            assertThat(binary.length * 2).isLessThan(jsonTotal);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.data_collector.kafka.spool;
+
+import com.example.data_collector.dto.DroneDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DroneSpoolTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenAppendAndAcknowledge_thenRecordsDrainedInOrder() {
+        DroneSpool spool = open(FsyncPolicy.NEVER, 1024 * 1024);
+        for (int i = 0; i < 50; i++) {
+            assertThat(spool.append(drone("sensor-" + i))).isTrue();
+        }
+
+        assertThat(spool.depth()).isEqualTo(50);
+        List<DroneDto> head = spool.peek(10);
+        assertThat(head).extracting(DroneDto::getDetectedBy).startsWith("sensor-0", "sensor-1");
+
+        spool.acknowledge(10);
+        assertThat(spool.peek(1).get(0).getDetectedBy()).isEqualTo("sensor-10");
+
+        spool.acknowledge(40);
+        assertThat(spool.hasBacklog()).isFalse();
+        assertThat(spool.peek(10)).isEmpty();
+        spool.close();
+    }
+
+    @Test
+    void whenReopened_thenPendingRecordsRecovered() {
+        DroneSpool spool = open(FsyncPolicy.ALWAYS, 1024 * 1024);
+        for (int i = 0; i < 30; i++) {
+            spool.append(drone("sensor-" + i));
+        }
+        spool.acknowledge(12);
+        spool.close();
+
+        DroneSpool reopened = open(FsyncPolicy.ALWAYS, 1024 * 1024);
+
+        assertThat(reopened.depth()).isEqualTo(18);
+        assertThat(reopened.peek(1).get(0).getDetectedBy()).isEqualTo("sensor-12");
+        reopened.close();
+    }
+
+    @Test
+    void whenDiskCapReached_thenAppendRejected() {
+        DroneSpool spool = open(FsyncPolicy.NEVER, 2 * SEGMENT_SIZE);
+
+        int appended = 0;
+        while (spool.append(drone("sensor-" + appended))) {
+            appended++;
+        }
+
+        assertThat(appended).isPositive();
+        assertThat(spool.depth()).isEqualTo(appended);
+
+        spool.acknowledge(appended);
+        assertThat(spool.append(drone("sensor-after-drain"))).isTrue();
+        spool.close();
+    }
+
+    @Test
+    void whenSegmentsDrained_thenFilesDeleted() throws Exception {
+        DroneSpool spool = open(FsyncPolicy.NEVER, 1024 * 1024);
+        for (int i = 0; i < 100; i++) {
+            spool.append(drone("sensor-" + i));
+        }
+        assertThat(segmentFiles()).isGreaterThan(1);
+
+        spool.acknowledge(100);
+
+        assertThat(segmentFiles()).isLessThanOrEqualTo(1);
+        spool.close();
+    }
+
+    private DroneSpool open(FsyncPolicy fsyncPolicy, long maxDiskBytes) {
+        return new DroneSpool(directory, SEGMENT_SIZE, maxDiskBytes, fsyncPolicy, new SimpleMeterRegistry());
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static DroneDto drone(String detectedBy) {
+        DroneDto droneDto = new DroneDto();
+        droneDto.setModel("Model");
+        droneDto.setSpeed(50.0);
+        droneDto.setLatitude(70.0);
+        droneDto.setLongitude(90.0);
+        droneDto.setFlightAltitude(120.0);
+        droneDto.setDetectedBy(detectedBy);
+        return droneDto;
+    }
+}
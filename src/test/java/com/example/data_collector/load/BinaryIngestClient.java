@@ -0,0 +1,183 @@
+package com.example.data_collector.load;
+
+import com.example.data_collector.ingest.AckStatus;
+import com.example.data_collector.ingest.BinaryIngestProtocol;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Клиент бинарного протокола приема ({@link BinaryIngestProtocol}) для нагрузочных прогонов.
+ * Записи отправляются без ожидания; future каждой записи завершается кодом из подтверждения,
+ * которое читает отдельный поток.
+ */
+abstract class BinaryIngestClient implements Closeable {
+
+    private final Map<Integer, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private final String transport;
+
+    private volatile boolean closed;
+
+    private BinaryIngestClient(String transport) {
+        this.transport = transport;
+    }
+
+    static BinaryIngestClient tcp(int port) throws IOException {
+        return new Tcp(port);
+    }
+
+    static BinaryIngestClient udp(int port) throws IOException {
+        return new Udp(port);
+    }
+
+    /**
+     * Отправляет запись в формате {@code DroneDtoBinaryCodec}; future завершается меткой вида {@code "tcp accepted"}.
+     */
+    CompletableFuture<String> send(byte[] record) {
+        int next = sequence.incrementAndGet();
+        CompletableFuture<String> future = new CompletableFuture<>();
+        pending.put(next, future);
+        ByteBuffer frame = ByteBuffer.allocate(BinaryIngestProtocol.LENGTH_BYTES
+                + BinaryIngestProtocol.SEQUENCE_BYTES + record.length);
+        BinaryIngestProtocol.writeRecord(frame, next, record);
+        try {
+            write(frame.array());
+        } catch (IOException ex) {
+            pending.remove(next);
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    abstract void write(byte[] frame) throws IOException;
+
+    void startReader(String name) {
+        Thread reader = new Thread(() -> {
+            try {
+                while (!closed) {
+                    readAcks();
+                }
+            } catch (IOException ex) {
+                if (!closed) {
+                    pending.values().forEach(future -> future.completeExceptionally(ex));
+                }
+            }
+        }, name);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Читает один кадр подтверждений и завершает соответствующие записи.
+     */
+    abstract void readAcks() throws IOException;
+
+    void complete(DataInputStream in) throws IOException {
+        in.readInt();
+        if (in.readByte() != BinaryIngestProtocol.ACK_FRAME) {
+            throw new IOException("Неожиданный тип кадра");
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int acked = in.readInt();
+            AckStatus status = AckStatus.fromCode(in.readByte());
+            CompletableFuture<String> future = pending.remove(acked);
+            if (future != null) {
+                future.complete(transport + " " + status.name().toLowerCase());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+    }
+
+    private static final class Tcp extends BinaryIngestClient {
+
+        private final Socket socket;
+
+        private final OutputStream out;
+
+        private final DataInputStream in;
+
+        private Tcp(int port) throws IOException {
+            super("tcp");
+            this.socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            startReader("binary-ingest-tcp-reader");
+        }
+
+        @Override
+        synchronized void write(byte[] frame) throws IOException {
+            out.write(frame);
+            out.flush();
+        }
+
+        @Override
+        void readAcks() throws IOException {
+            complete(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            socket.close();
+        }
+    }
+
+    private static final class Udp extends BinaryIngestClient {
+
+        private final DatagramSocket socket;
+
+        private final InetSocketAddress server;
+
+        private final DatagramPacket received = new DatagramPacket(new byte[65507], 65507);
+
+        private Udp(int port) throws IOException {
+            super("udp");
+            this.socket = new DatagramSocket();
+            this.server = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+            startReader("binary-ingest-udp-reader");
+        }
+
+        @Override
+        void write(byte[] frame) throws IOException {
+            socket.send(new DatagramPacket(frame, frame.length, server));
+        }
+
+        @Override
+        void readAcks() throws IOException {
+            received.setLength(received.getData().length);
+            socket.receive(received);
+            complete(new DataInputStream(new ByteArrayInputStream(received.getData(), 0, received.getLength())));
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            socket.close();
+        }
+    }
+}
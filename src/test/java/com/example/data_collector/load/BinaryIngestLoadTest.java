@@ -0,0 +1,114 @@
+package com.example.data_collector.load;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.ingest.TcpIngestListener;
+import com.example.data_collector.ingest.UdpIngestListener;
+import com.example.data_collector.kafka.serialization.DroneDtoBinaryCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный прогон бинарного приема по TCP и UDP с EmbeddedKafka, аналог {@link IngestLoadTest}:
+ * записи отправляются по одному постоянному соединению (сокету) с фиксированными частотами,
+ * задержка считается до получения подтверждения. Запуск: {@code mvn -Pload test -Dtest=BinaryIngestLoadTest}.
+ * <p>
+ * Параметры {@code load.rates}, {@code load.duration-seconds}, {@code load.warmup-seconds}, {@code load.mix}
+ * и {@code load.sensors} - как в {@link IngestLoadTest}; {@code load.transports} - {@code tcp,udp}.
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "drone.ingest.tcp.enabled=true",
+        "drone.ingest.tcp.port=0",
+        "drone.ingest.udp.enabled=true",
+        "drone.ingest.udp.port=0"
+})
+@EmbeddedKafka(partitions = 3, topics = {"drone-topic"}, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class BinaryIngestLoadTest {
+
+    private static final long DRAIN_TIMEOUT_MILLIS = 30_000;
+
+    @Autowired
+    private TcpIngestListener tcpListener;
+
+    @Autowired
+    private UdpIngestListener udpListener;
+
+    @Test
+    void openLoopLoad() throws IOException {
+        int[] rates = Arrays.stream(System.getProperty("load.rates", "1000,5000,10000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        long durationMillis = Long.getLong("load.duration-seconds", 10) * 1000;
+        long warmupMillis = Long.getLong("load.warmup-seconds", 5) * 1000;
+        int[] mix = Arrays.stream(System.getProperty("load.mix", "90,8,2").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Records records = new Records(Integer.getInteger("load.sensors", 100), mix);
+
+        for (String transport : System.getProperty("load.transports", "tcp,udp").split(",")) {
+            try (BinaryIngestClient client = "udp".equals(transport.trim())
+                    ? BinaryIngestClient.udp(udpListener.getPort())
+                    : BinaryIngestClient.tcp(tcpListener.getPort())) {
+                OpenLoopLoadGenerator.Request request = sequence -> client.send(records.next());
+
+                if (warmupMillis > 0) {
+                    OpenLoopLoadGenerator.run(rates[0], warmupMillis, DRAIN_TIMEOUT_MILLIS, request);
+                }
+                for (int rate : rates) {
+                    OpenLoopLoadGenerator.Result result =
+                            OpenLoopLoadGenerator.run(rate, durationMillis, DRAIN_TIMEOUT_MILLIS, request);
+                    System.out.print(transport + " " + result.report());
+                    assertThat(result.completed()).isPositive();
+                }
+            }
+        }
+    }
+
+    /**
+     * Заранее закодированные записи; вид записи выбирается случайно согласно долям {@code mix}.
+     */
+    private static final class Records {
+
+        private final byte[][] valid;
+
+        private final byte[] invalid;
+
+        private final byte[] malformed;
+
+        private final int[] mix;
+
+        private final int total;
+
+        private Records(int sensors, int[] mix) {
+            this.valid = new byte[sensors][];
+            for (int i = 0; i < sensors; i++) {
+                valid[i] = DroneDtoBinaryCodec.encode(
+                        DroneDto.of("DJI Mavic 3", 54.5, 55.75 + i * 0.001, 37.61, 120.0, "radar-" + i));
+            }
+            this.invalid = DroneDtoBinaryCodec.encode(DroneDto.of("", 700.0, -100.0, 37.61, 15_000.0, "radar-0"));
+            this.malformed = new byte[]{DroneDtoBinaryCodec.VERSION_1, 0x3F, 1, 2, 3};
+            this.mix = mix;
+            this.total = Arrays.stream(mix).sum();
+        }
+
+        private byte[] next() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pick = random.nextInt(total);
+            if (pick < mix[0]) {
+                return valid[random.nextInt(valid.length)];
+            }
+            return pick < mix[0] + mix[1] ? invalid : malformed;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.data_collector.load;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Отдельно запускаемый EmbeddedKafka для сравнения времени старта сборок ({@code scripts/startup-comparison.sh}):
+ * приложение запускается отдельным процессом и подключается к брокеру по выведенному адресу.
+ * Брокер работает до завершения процесса.
+ * <p>
+ * {@code java -cp target/test-classes:<classpath> com.example.data_collector.load.EmbeddedKafkaLauncher}
+ */
+final class EmbeddedKafkaLauncher {
+
+    private EmbeddedKafkaLauncher() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3, "drone-topic");
+        broker.afterPropertiesSet();
+        Runtime.getRuntime().addShutdownHook(new Thread(broker::destroy));
+        System.out.println("EMBEDDED_KAFKA " + broker.getBrokersAsString());
+        new CountDownLatch(1).await();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.data_collector.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный прогон всего приложения с EmbeddedKafka: смесь корректных, невалидных и синтаксически
+ * ошибочных записей отправляется на {@code /api/drones} с фиксированными частотами.
+ * Не входит в обычную сборку; запуск: {@code mvn -Pload test}.
+ * <p>
+ * Параметры (системные свойства):
+ * <ul>
+ *     <li>{@code load.rates} — частоты запросов в секунду через запятую (по умолчанию {@code 500,1000,2000})</li>
+ *     <li>{@code load.duration-seconds} — длительность каждой ступени (10)</li>
+ *     <li>{@code load.warmup-seconds} — прогрев на первой частоте, в отчет не попадает (5)</li>
+ *     <li>{@code load.mix} — доли valid/invalid/malformed (90,8,2)</li>
+ *     <li>{@code load.sensors} — число различных устройств обнаружения (100)</li>
+ * </ul>
+ * Настройки приложения также передаются системными свойствами, например
+ * {@code -Ddrone.ack-mode=async -Dspring.kafka.producer.properties.linger.ms=5}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EmbeddedKafka(partitions = 3, topics = {"drone-topic"}, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class IngestLoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void openLoopLoad() {
+        int[] rates = Arrays.stream(System.getProperty("load.rates", "500,1000,2000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        long durationMillis = Long.getLong("load.duration-seconds", 10) * 1000;
+        long warmupMillis = Long.getLong("load.warmup-seconds", 5) * 1000;
+        int[] mix = Arrays.stream(System.getProperty("load.mix", "90,8,2").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Payloads payloads = new Payloads(Integer.getInteger("load.sensors", 100), mix);
+        URI uri = URI.create("http://localhost:" + port + "/api/drones");
+
+        OpenLoopLoadGenerator.Request request = sequence -> send(uri, payloads.next());
+
+        if (warmupMillis > 0) {
+            OpenLoopLoadGenerator.run(rates[0], warmupMillis, REQUEST_TIMEOUT.toMillis(), request);
+        }
+        for (int rate : rates) {
+            OpenLoopLoadGenerator.Result result =
+                    OpenLoopLoadGenerator.run(rate, durationMillis, REQUEST_TIMEOUT.toMillis(), request);
+            System.out.print(result.report());
+            assertThat(result.completed()).isPositive();
+        }
+    }
+
+    private CompletableFuture<String> send(URI uri, Payload payload) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload.body()))
+                .build();
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> payload.kind() + " " + response.statusCode());
+    }
+
+    private record Payload(String kind, byte[] body) {
+    }
+
+    /**
+     * Заранее подготовленные тела запросов; вид записи выбирается случайно согласно долям {@code mix}.
+     */
+    private static final class Payloads {
+
+        private final Payload[] valid;
+
+        private final Payload invalid;
+
+        private final Payload malformed;
+
+        private final int[] mix;
+
+        private final int total;
+
+        private Payloads(int sensors, int[] mix) {
+            this.valid = new Payload[sensors];
+            for (int i = 0; i < sensors; i++) {
+                valid[i] = new Payload("valid", json("DJI Mavic 3", 54.5, 55.75 + i * 0.001, 37.61, 120.0, "radar-" + i));
+            }
+            this.invalid = new Payload("invalid", json("", 700.0, -100.0, 37.61, 15_000.0, "radar-0"));
+            this.malformed = new Payload("malformed",
+                    "{\"model\":\"DJI Mavic 3\",\"speed\":".getBytes(StandardCharsets.UTF_8));
+            this.mix = mix;
+            this.total = Arrays.stream(mix).sum();
+        }
+
+        private Payload next() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int pick = random.nextInt(total);
+            if (pick < mix[0]) {
+                return valid[random.nextInt(valid.length)];
+            }
+            return pick < mix[0] + mix[1] ? invalid : malformed;
+        }
+
+        private static byte[] json(String model, double speed, double latitude, double longitude,
+                                   double flightAltitude, String detectedBy) {
+            return String.format(Locale.ROOT,
+                    "{\"model\":\"%s\",\"speed\":%s,\"latitude\":%s,\"longitude\":%s,"
+                            + "\"flightAltitude\":%s,\"detectedBy\":\"%s\"}",
+                    model, speed, latitude, longitude, flightAltitude, detectedBy).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
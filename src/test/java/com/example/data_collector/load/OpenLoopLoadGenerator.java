@@ -0,0 +1,109 @@
+package com.example.data_collector.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с открытым контуром: запросы отправляются по расписанию независимо от ответов.
+ * Задержка считается от запланированного момента отправки, поэтому отставание генератора
+ * или очередь на сервере попадают в перцентили, а не скрываются (coordinated omission).
+ */
+final class OpenLoopLoadGenerator {
+
+    /**
+     * Отправляет запрос с номером {@code sequence}; future завершается меткой исхода, например {@code "valid 200"}.
+     */
+    @FunctionalInterface
+    interface Request {
+        CompletableFuture<String> send(long sequence);
+    }
+
+    private OpenLoopLoadGenerator() {
+    }
+
+    static Result run(int ratePerSecond, long durationMillis, long drainTimeoutMillis, Request request) {
+        Histogram latency = new ConcurrentHistogram(3);
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        LongAdder completed = new LongAdder();
+
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        long issued = 0;
+        for (long intended = start; intended < end; intended = start + issued * periodNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduledAt = intended;
+            CompletableFuture<String> future;
+            try {
+                future = request.send(issued);
+            } catch (RuntimeException ex) {
+                future = CompletableFuture.failedFuture(ex);
+            }
+            future.whenComplete((outcome, ex) -> {
+                latency.recordValue(System.nanoTime() - scheduledAt);
+                String label = ex == null ? outcome : "error " + rootCause(ex).getClass().getSimpleName();
+                outcomes.computeIfAbsent(label, key -> new LongAdder()).increment();
+                completed.increment();
+            });
+            issued++;
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMillis);
+        while (completed.sum() < issued && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, Long> outcomeCounts = new TreeMap<>();
+        outcomes.forEach((label, count) -> outcomeCounts.put(label, count.sum()));
+        long unfinished = issued - completed.sum();
+        if (unfinished > 0) {
+            outcomeCounts.put("unfinished", unfinished);
+        }
+        return new Result(ratePerSecond, issued, completed.sum(), elapsed, latency.copy(), outcomeCounts);
+    }
+
+    private static Throwable rootCause(Throwable ex) {
+        Throwable cause = ex;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    record Result(int targetRate, long issued, long completed, long elapsedNanos,
+                  Histogram latency, Map<String, Long> outcomes) {
+
+        double throughput() {
+            return completed * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        String report() {
+            StringBuilder report = new StringBuilder()
+                    .append(String.format("rate %d/s: issued %d, completed %d, sustained %.0f req/s%n",
+                            targetRate, issued, completed, throughput()))
+                    .append(String.format("  latency ms: p50 %.2f, p99 %.2f, p999 %.2f, max %.2f%n",
+                            millis(latency.getValueAtPercentile(50)),
+                            millis(latency.getValueAtPercentile(99)),
+                            millis(latency.getValueAtPercentile(99.9)),
+                            millis(latency.getMaxValue())));
+            outcomes.forEach((label, count) -> report.append(String.format("  %-40s %d%n", label, count)));
+            return report.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.data_collector.load;
+
+import com.example.data_collector.kafka.priority.Lane;
+import com.example.data_collector.kafka.priority.PriorityLanes;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочный прогон приоритетной полосы: поток обычных записей с возрастающей частотой и одновременно
+ * небольшой постоянный поток приоритетных записей на {@code /api/drones}. Для каждой ступени выводятся
+ * задержки обоих потоков на клиенте и время до подтверждения брокера по полосам ({@code drone.ingest.lane}).
+ * Основной продюсер настроен на крупные пакеты ({@code linger.ms=20}), приоритетный отправляет без ожидания.
+ * Запуск: {@code mvn -Pload test -Dtest=PriorityLaneLoadTest}.
+ * <p>
+ * Параметры (системные свойства):
+ * <ul>
+ *     <li>{@code load.rates} — частоты обычных записей через запятую (по умолчанию {@code 500,1000,2000})</li>
+ *     <li>{@code load.critical-rate} — частота приоритетных записей (50)</li>
+ *     <li>{@code load.duration-seconds} — длительность каждой ступени (10)</li>
+ *     <li>{@code load.warmup-seconds} — прогрев на первой частоте, в отчет не попадает (5)</li>
+ * </ul>
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "drone.priority.enabled=true",
+        "drone.priority.rules[0].sensors[0]=perimeter-radar",
+        "spring.kafka.producer.properties.linger.ms=20",
+        "spring.kafka.producer.batch-size=262144"
+})
+@EmbeddedKafka(partitions = 3, topics = {"drone-topic", "drone-topic-critical"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class PriorityLaneLoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PriorityLanes priorityLanes;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void criticalLaneUnderBulkLoad() throws Exception {
+        int[] rates = Arrays.stream(System.getProperty("load.rates", "500,1000,2000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int criticalRate = Integer.getInteger("load.critical-rate", 50);
+        long durationMillis = Long.getLong("load.duration-seconds", 10) * 1000;
+        long warmupMillis = Long.getLong("load.warmup-seconds", 5) * 1000;
+        URI uri = URI.create("http://localhost:" + port + "/api/drones");
+
+        byte[][] bulk = new byte[100][];
+        for (int i = 0; i < bulk.length; i++) {
+            bulk[i] = json(55.75 + i * 0.001, "radar-" + i);
+        }
+        byte[] critical = json(55.7558, "perimeter-radar");
+        OpenLoopLoadGenerator.Request bulkRequest = sequence -> send(uri, "bulk", bulk[(int) (sequence % bulk.length)]);
+        OpenLoopLoadGenerator.Request criticalRequest = sequence -> send(uri, "critical", critical);
+
+        if (warmupMillis > 0) {
+            runStage(rates[0], criticalRate, warmupMillis, bulkRequest, criticalRequest);
+        }
+        for (int rate : rates) {
+            LaneTotals bulkBefore = LaneTotals.of(priorityLanes.timer(Lane.BULK));
+            LaneTotals criticalBefore = LaneTotals.of(priorityLanes.timer(Lane.CRITICAL));
+            OpenLoopLoadGenerator.Result[] results =
+                    runStage(rate, criticalRate, durationMillis, bulkRequest, criticalRequest);
+            System.out.print("bulk " + results[0].report());
+            System.out.print("critical " + results[1].report());
+            System.out.print(laneReport(Lane.BULK, bulkBefore));
+            System.out.print(laneReport(Lane.CRITICAL, criticalBefore));
+            assertThat(results[1].completed()).isPositive();
+            assertThat(priorityLanes.timer(Lane.CRITICAL).count()).isGreaterThan(criticalBefore.count());
+        }
+    }
+
+    private OpenLoopLoadGenerator.Result[] runStage(int bulkRate, int criticalRate, long durationMillis,
+                                                    OpenLoopLoadGenerator.Request bulkRequest,
+                                                    OpenLoopLoadGenerator.Request criticalRequest) throws Exception {
+        CompletableFuture<OpenLoopLoadGenerator.Result> critical = CompletableFuture.supplyAsync(() ->
+                OpenLoopLoadGenerator.run(criticalRate, durationMillis, REQUEST_TIMEOUT.toMillis(), criticalRequest));
+        OpenLoopLoadGenerator.Result bulk =
+                OpenLoopLoadGenerator.run(bulkRate, durationMillis, REQUEST_TIMEOUT.toMillis(), bulkRequest);
+        return new OpenLoopLoadGenerator.Result[]{bulk, critical.get()};
+    }
+
+    /**
+     * Число подтверждений и среднее время до подтверждения по полосе за ступень; перцентили по полосам
+     * публикуются гистограммой {@code drone_ingest_lane_seconds} в Prometheus.
+     */
+    private String laneReport(Lane lane, LaneTotals before) {
+        LaneTotals after = LaneTotals.of(priorityLanes.timer(lane));
+        long acks = after.count() - before.count();
+        double meanMillis = acks == 0 ? 0 : (after.totalMillis() - before.totalMillis()) / acks;
+        return String.format(Locale.ROOT, "  lane %-8s acks %d, mean ack %.2f ms%n", lane.tag(), acks, meanMillis);
+    }
+
+    private record LaneTotals(long count, double totalMillis) {
+
+        private static LaneTotals of(Timer timer) {
+            return new LaneTotals(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private CompletableFuture<String> send(URI uri, String kind, byte[] body) {
+        HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> kind + " " + response.statusCode());
+    }
+
+    private static byte[] json(double latitude, String detectedBy) {
+        return String.format(Locale.ROOT,
+                "{\"model\":\"DJI Mavic 3\",\"speed\":54.5,\"latitude\":%s,\"longitude\":37.61,"
+                        + "\"flightAltitude\":120.0,\"detectedBy\":\"%s\"}",
+                latitude, detectedBy).getBytes(StandardCharsets.UTF_8);
+    }
+}
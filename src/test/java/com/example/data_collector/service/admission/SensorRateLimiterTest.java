@@ -0,0 +1,118 @@
+package com.example.data_collector.service.admission;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.exception.SensorRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SensorRateLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private long now;
+
+    @Test
+    void whenBurstExhausted_thenRejectedUntilNextToken() {
+        // 10 записей/с, запас 3
+        SensorRateLimiter limiter = limiter(new MockEnvironment(), 0, 10, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAdmit(drone("radar-1"), now)).isNull();
+        }
+        SensorRateLimitedException rejection = limiter.tryAdmit(drone("radar-1"), now);
+        assertThat(rejection).isNotNull();
+        assertThat(rejection.getSensor()).isEqualTo("radar-1");
+        assertThat(rejection.getRetryAfterSeconds()).isEqualTo(1);
+        assertThat(rejection.getStackTrace()).isEmpty();
+
+        // Другое устройство не затронуто, у первого маркер появляется через 100 мс
+        assertThat(limiter.tryAdmit(drone("radar-2"), now)).isNull();
+        assertThat(limiter.tryAdmit(drone("radar-1"), now + 99 * MILLI)).isNotNull();
+        assertThat(limiter.tryAdmit(drone("radar-1"), now + 100 * MILLI)).isNull();
+        assertThat(meterRegistry.get("drone.admission.rejected").tag("scope", "sensor").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void sensorClassesAreMatchedByNameAndPrefix() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("drone.admission.classes.radar.rate", "1000")
+                .withProperty("drone.admission.classes.radar.burst", "5")
+                .withProperty("drone.admission.classes.radar.sensors[0]", "radar-*")
+                .withProperty("drone.admission.classes.trusted.rate", "0")
+                .withProperty("drone.admission.classes.trusted.sensors[0]", "hq-feed");
+        SensorRateLimiter limiter = limiter(environment, 0, 1, 1, 100);
+
+        assertThat(admitted(limiter, "radar-7", 10)).isEqualTo(5);
+        assertThat(admitted(limiter, "hq-feed", 10)).isEqualTo(10);
+        assertThat(admitted(limiter, "camera-1", 10)).isEqualTo(1);
+        // Устройства без лимита корзину не заводят
+        assertThat(limiter.sensorCount()).isEqualTo(2);
+    }
+
+    @Test
+    void whenGlobalLimitHit_thenSensorTokenReturned() {
+        // Общий лимит: запас 2; у устройства запас 3
+        SensorRateLimiter limiter = limiter(new MockEnvironment(), 1, 1, 3, 100);
+
+        assertThat(limiter.tryAdmit(drone("radar-1"), now)).isNull();
+        assertThat(limiter.tryAdmit(drone("radar-2"), now)).isNull();
+        SensorRateLimitedException rejection = limiter.tryAdmit(drone("radar-1"), now);
+        assertThat(rejection).isNotNull();
+        assertThat(rejection.getSensor()).isNull();
+
+        // Через секунду общий лимит снова пропускает, и у radar-1 остался неизрасходованный запас
+        long later = now + TimeUnit.SECONDS.toNanos(2);
+        assertThat(limiter.tryAdmit(drone("radar-1"), later)).isNull();
+        assertThat(limiter.tryAdmit(drone("radar-1"), later)).isNull();
+    }
+
+    @Test
+    void idleSensorsAreEvictedAndNewSensorsBeyondLimitShareBucket() {
+        SensorRateLimiter limiter = limiter(new MockEnvironment(), 0, 1, 1, 2);
+
+        assertThat(limiter.tryAdmit(drone("radar-1"), now)).isNull();
+        assertThat(limiter.tryAdmit(drone("radar-2"), now)).isNull();
+        // Сверх max-sensors: общая корзина с запасом 1
+        assertThat(limiter.tryAdmit(drone("radar-3"), now)).isNull();
+        assertThat(limiter.tryAdmit(drone("radar-4"), now)).isNotNull();
+        assertThat(limiter.sensorCount()).isEqualTo(2);
+
+        // Следующая запись radar-1 и radar-2 ожидалась через 1 с; еще через 1 с простоя корзины удаляются
+        limiter.evictIdle(now + TimeUnit.MILLISECONDS.toNanos(1500));
+        assertThat(limiter.sensorCount()).isEqualTo(2);
+        limiter.evictIdle(now + TimeUnit.MILLISECONDS.toNanos(2500));
+        assertThat(limiter.sensorCount()).isZero();
+        assertThat(limiter.tryAdmit(drone("radar-4"), now + TimeUnit.MILLISECONDS.toNanos(2500))).isNull();
+    }
+
+    private SensorRateLimiter limiter(MockEnvironment environment, double globalRate, double defaultRate,
+                                      int defaultBurst, int maxSensors) {
+        // idle-evict-ms = 1000
+        SensorRateLimiter limiter = new SensorRateLimiter(environment, globalRate, 2, defaultRate, defaultBurst,
+                maxSensors, 1000, meterRegistry);
+        now = System.nanoTime();
+        return limiter;
+    }
+
+    private int admitted(SensorRateLimiter limiter, String sensor, int attempts) {
+        int admitted = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (limiter.tryAdmit(drone(sensor), now) == null) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    private static DroneDto drone(String detectedBy) {
+        return DroneDto.of("DJI Mavic 3", 54.5, 55.75, 37.61, 120.0, detectedBy);
+    }
+}
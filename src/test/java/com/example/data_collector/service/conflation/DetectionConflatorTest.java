@@ -0,0 +1,120 @@
+package com.example.data_collector.service.conflation;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.KafkaProducer;
+import com.example.data_collector.exception.IngestOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DetectionConflatorTest {
+
+    private final KafkaProducer kafkaProducer = mock(KafkaProducer.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DetectionConflator conflator =
+            new DetectionConflator(kafkaProducer, "drone-topic-conflated", false, meterRegistry);
+
+    @Test
+    void whenSeveralRecordsPerKey_thenOnlyLatestFlushed() {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaProducer.sendDroneDataAsync(eq("drone-topic-conflated"), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        conflator.absorb(drone("radar-1", 50.0));
+        conflator.absorb(drone("radar-1", 60.0));
+        conflator.absorb(drone("radar-2", 70.0));
+
+        conflator.flush();
+
+        ArgumentCaptor<DroneDto> sent = ArgumentCaptor.forClass(DroneDto.class);
+        verify(kafkaProducer, times(2)).sendDroneDataAsync(eq("drone-topic-conflated"), sent.capture());
+        assertThat(sent.getAllValues()).extracting(DroneDto::getSpeed).containsExactlyInAnyOrder(60.0, 70.0);
+        assertThat(meterRegistry.counter("drone.conflation.superseded").count()).isEqualTo(1);
+
+        conflator.flush();
+        verifyNoMoreInteractions(kafkaProducer);
+    }
+
+    @Test
+    void whenProducerOverloaded_thenRecordKeptForNextWindow() {
+        when(kafkaProducer.sendDroneDataAsync(eq("drone-topic-conflated"), any(DroneDto.class)))
+                .thenThrow(new IngestOverloadedException("Перегрузка", 1));
+
+        conflator.absorb(drone("radar-1", 50.0));
+        conflator.flush();
+
+        assertThat(meterRegistry.get("drone.conflation.pending").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenSendFails_thenRecordRetriedInNextWindowUnlessSuperseded() {
+        SendResult<String, DroneDto> sendResult = mock(SendResult.class);
+        when(kafkaProducer.sendDroneDataAsync(eq("drone-topic-conflated"), any(DroneDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Ошибка отправки в Kafka")))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Ошибка отправки в Kafka")))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        conflator.absorb(drone("radar-1", 50.0));
+        conflator.flush();
+
+        // Неотправленная запись не повторяется в том же сбросе и ждет следующего окна
+        verify(kafkaProducer, times(1)).sendDroneDataAsync(eq("drone-topic-conflated"), any(DroneDto.class));
+        assertThat(meterRegistry.get("drone.conflation.pending").gauge().value()).isEqualTo(1);
+
+        conflator.flush();
+        conflator.absorb(drone("radar-2", 70.0));
+        // Более новая запись заменяет неотправленную
+        conflator.absorb(drone("radar-1", 60.0));
+        conflator.flush();
+
+        ArgumentCaptor<DroneDto> sent = ArgumentCaptor.forClass(DroneDto.class);
+        verify(kafkaProducer, times(4)).sendDroneDataAsync(eq("drone-topic-conflated"), sent.capture());
+        assertThat(sent.getAllValues().subList(0, 2)).extracting(DroneDto::getSpeed).containsExactly(50.0, 50.0);
+        assertThat(sent.getAllValues().subList(2, 4)).extracting(DroneDto::getSpeed)
+                .containsExactlyInAnyOrder(60.0, 70.0);
+        assertThat(meterRegistry.counter("drone.conflation.failed").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("drone.conflation.flushed").count()).isEqualTo(2);
+        assertThat(meterRegistry.get("drone.conflation.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void whenFailureReportedAfterNewerRecordFlushed_thenStaleRecordNotRetried() {
+        CompletableFuture<SendResult<String, DroneDto>> staleSend = new CompletableFuture<>();
+        when(kafkaProducer.sendDroneDataAsync(eq("drone-topic-conflated"), any(DroneDto.class)))
+                .thenReturn(staleSend)
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        conflator.absorb(drone("radar-1", 50.0));
+        conflator.flush();
+        conflator.absorb(drone("radar-1", 60.0));
+        conflator.flush();
+        // Ошибка первой отправки приходит после доставки более новой записи
+        staleSend.completeExceptionally(new KafkaException("Таймаут доставки в Kafka"));
+
+        assertThat(meterRegistry.get("drone.conflation.pending").gauge().value()).isZero();
+        conflator.flush();
+        verify(kafkaProducer, times(2)).sendDroneDataAsync(eq("drone-topic-conflated"), any(DroneDto.class));
+    }
+
+    private static DroneDto drone(String detectedBy, double speed) {
+        DroneDto droneDto = new DroneDto();
+        droneDto.setModel("Model");
+        droneDto.setSpeed(speed);
+        droneDto.setLatitude(55.0);
+        droneDto.setLongitude(37.0);
+        droneDto.setFlightAltitude(120.0);
+        droneDto.setDetectedBy(detectedBy);
+        return droneDto;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.data_collector.service.dedup;
+
+import com.example.data_collector.dto.DroneDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateDetectionFilterTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(1000);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DuplicateDetectionFilter filter =
+            new DuplicateDetectionFilter(1000, 0.001, 10.0, 5.0, 3, meterRegistry);
+
+    @Test
+    void whenRepeatedWithinToleranceAndWindow_thenDuplicate() {
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), 0)).isFalse();
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1234, 121.0), WINDOW / 2)).isTrue();
+
+        assertThat(meterRegistry.counter("drone.dedup.hits").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("drone.dedup.misses").count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenWindowExpired_thenForwardedAgain() {
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), 0)).isFalse();
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), WINDOW)).isFalse();
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), WINDOW + 1)).isTrue();
+    }
+
+    @Test
+    void whenDifferentSensorOrPosition_thenNotDuplicate() {
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), 0)).isFalse();
+        assertThat(filter.isDuplicate(drone("radar-2", 55.1231, 120.0), 1)).isFalse();
+        assertThat(filter.isDuplicate(drone("radar-1", 55.2231, 120.0), 2)).isFalse();
+    }
+
+    @Test
+    void whenExpiredEntriesEvicted_thenCacheShrinks() {
+        filter.isDuplicate(drone("radar-1", 55.1, 120.0), 0);
+        filter.isDuplicate(drone("radar-2", 55.1, 120.0), WINDOW);
+
+        filter.evictExpired(WINDOW + 1);
+
+        assertThat(meterRegistry.counter("drone.dedup.evictions").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("drone.dedup.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCacheFull_thenNewKeysNotCached() {
+        for (int i = 0; i < 5; i++) {
+            filter.isDuplicate(drone("radar-" + i, 55.1, 120.0), 0);
+        }
+
+        assertThat(filter.isDuplicate(drone("radar-4", 55.1, 120.0), 1)).isFalse();
+        assertThat(meterRegistry.counter("drone.dedup.overflows").count()).isEqualTo(3);
+    }
+
+    @Test
+    void whenReleasedAfterFailedSend_thenRetryWithinWindowForwarded() {
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), 0)).isFalse();
+
+        filter.release(drone("radar-1", 55.1231, 120.0));
+
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), WINDOW / 2)).isFalse();
+        assertThat(filter.isDuplicate(drone("radar-1", 55.1231, 120.0), WINDOW / 2 + 1)).isTrue();
+    }
+
+    private static DroneDto drone(String detectedBy, double latitude, double altitude) {
+        DroneDto droneDto = new DroneDto();
+        droneDto.setModel("Model");
+        droneDto.setSpeed(50.0);
+        droneDto.setLatitude(latitude);
+        droneDto.setLongitude(37.6);
+        droneDto.setFlightAltitude(altitude);
+        droneDto.setDetectedBy(detectedBy);
+        return droneDto;
+    }
+}
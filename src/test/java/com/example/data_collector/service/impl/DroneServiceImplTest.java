@@ -0,0 +1,112 @@
+package com.example.data_collector.service.impl;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.kafka.KafkaProducer;
+import com.example.data_collector.metrics.IngestStageMetrics;
+import com.example.data_collector.service.AcceptedDetectionListener;
+import com.example.data_collector.service.admission.SensorRateLimiter;
+import com.example.data_collector.service.conflation.DetectionConflator;
+import com.example.data_collector.service.dedup.DuplicateDetectionFilter;
+import com.example.data_collector.validation.DroneDtoValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.KafkaException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DroneServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final KafkaProducer kafkaProducer = mock(KafkaProducer.class);
+
+    private final DroneServiceImpl droneService = droneService(
+            new DuplicateDetectionFilter(60_000, 0.0001, 5.0, 2.0, 1000, meterRegistry));
+
+    @Test
+    void whenSendFails_thenRetryWithinDedupWindowDelivered() {
+        DroneDto droneDto = drone();
+        when(kafkaProducer.sendDroneData(droneDto))
+                .thenThrow(new KafkaException("Таймаут отправки в Kafka"))
+                .thenReturn(KafkaProducer.ACCEPTED_MESSAGE);
+
+        assertThatThrownBy(() -> droneService.sendToKafka(droneDto)).isInstanceOf(KafkaException.class);
+        droneService.sendToKafka(droneDto);
+        droneService.sendToKafka(droneDto);
+
+        // Третья запись - уже настоящий повтор внутри окна
+        verify(kafkaProducer, times(2)).sendDroneData(droneDto);
+    }
+
+    @Test
+    void whenDeferredOrBatchSendFails_thenRetryDelivered() throws Exception {
+        DroneDto droneDto = drone();
+        when(kafkaProducer.sendDroneDataDeferred(any(DroneDto.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Ошибка отправки в Kafka")))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Ошибка отправки в Kafka")))
+                .thenReturn(CompletableFuture.completedFuture(KafkaProducer.ACCEPTED_MESSAGE));
+
+        assertThat(droneService.sendToKafkaAsync(droneDto)).isCompletedExceptionally();
+        String record = "{\"model\":\"Model\",\"speed\":50.0,\"latitude\":55.75,\"longitude\":37.6,"
+                + "\"flightAltitude\":120.0,\"detectedBy\":\"radar-1\"}";
+        assertThat(droneService.sendBatchToKafka(
+                new ByteArrayInputStream(record.getBytes(StandardCharsets.UTF_8))).getRejected()).isEqualTo(1);
+        assertThat(droneService.sendToKafkaAsync(droneDto).get()).containsValue(KafkaProducer.ACCEPTED_MESSAGE);
+    }
+
+    @Test
+    void whenConflationWithoutRawTopic_thenCriticalRecordSentImmediately() {
+        DetectionConflator conflator = new DetectionConflator(kafkaProducer, "drone-topic-conflated", false, meterRegistry);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("detectionConflator", conflator);
+        DroneServiceImpl service = droneService(beanFactory);
+        DroneDto critical = drone();
+        DroneDto bulk = DroneDto.of("Model", 50.0, 55.75, 37.6, 120.0, "radar-2");
+        when(kafkaProducer.isCritical(critical)).thenReturn(true);
+        when(kafkaProducer.sendDroneData(critical)).thenReturn(KafkaProducer.ACCEPTED_MESSAGE);
+
+        service.sendToKafka(critical);
+        service.sendToKafka(bulk);
+
+        // Приоритетная запись не ждет сброса окна; обычная остается в окне до него
+        verify(kafkaProducer).sendDroneData(critical);
+        verify(kafkaProducer, never()).sendDroneData(bulk);
+        assertThat(meterRegistry.get("drone.conflation.pending").gauge().value()).isEqualTo(1);
+    }
+
+    private DroneServiceImpl droneService(DuplicateDetectionFilter duplicateFilter) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("duplicateDetectionFilter", duplicateFilter);
+        return droneService(beanFactory);
+    }
+
+    private DroneServiceImpl droneService(DefaultListableBeanFactory beanFactory) {
+        return new DroneServiceImpl(
+                kafkaProducer,
+                new DroneDtoValidator(),
+                Jackson2ObjectMapperBuilder.json().build(),
+                1000,
+                beanFactory.getBeanProvider(DuplicateDetectionFilter.class),
+                beanFactory.getBeanProvider(DetectionConflator.class),
+                new IngestStageMetrics(meterRegistry),
+                beanFactory.getBeanProvider(AcceptedDetectionListener.class),
+                beanFactory.getBeanProvider(SensorRateLimiter.class));
+    }
+
+    private static DroneDto drone() {
+        return DroneDto.of("Model", 50.0, 55.75, 37.6, 120.0, "radar-1");
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.data_collector.service.recent;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.dto.RecentDetection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentDetectionsBufferTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void whenQueriedBySensorAndTime_thenNewestFirst() {
+        RecentDetectionsBuffer buffer = buffer(16);
+        buffer.onAccepted(drone("radar-1", 55.0), 1_000);
+        buffer.onAccepted(drone("radar-2", 56.0), 2_000);
+        buffer.onAccepted(drone("radar-1", 57.0), 3_000);
+        buffer.onAccepted(drone("radar-1", 58.0), 4_000);
+
+        List<RecentDetection> result = buffer.query("radar-1", 2_500, 100);
+
+        assertThat(result).extracting(RecentDetection::getLatitude).containsExactly(58.0, 57.0);
+        assertThat(result.get(0).getModel()).isEqualTo("Model");
+        assertThat(result.get(0).getDetectedBy()).isEqualTo("radar-1");
+        assertThat(result.get(0).getTime()).isEqualTo(Instant.ofEpochMilli(4_000));
+        assertThat(buffer.query(null, 0, 100)).hasSize(4);
+        assertThat(buffer.query("radar-3", 0, 100)).isEmpty();
+        assertThat(buffer.query(null, 0, 1)).hasSize(1);
+    }
+
+    @Test
+    void whenCapacityExceeded_thenOldestOverwritten() {
+        RecentDetectionsBuffer buffer = buffer(4);
+        for (int i = 0; i < 6; i++) {
+            buffer.onAccepted(drone("radar-1", i), 1_000 + i);
+        }
+
+        assertThat(buffer.capacity()).isEqualTo(4);
+        assertThat(buffer.query("radar-1", 0, 100))
+                .extracting(RecentDetection::getLatitude)
+                .containsExactly(5.0, 4.0, 3.0, 2.0);
+    }
+
+    @Test
+    void whenWrittenConcurrently_thenReadersSeeOnlyConsistentRecords() throws Exception {
+        RecentDetectionsBuffer buffer = buffer(64);
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(2);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            Thread writer = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; running.get(); i++) {
+                    // Широта и скорость совпадают: расхождение означало бы чтение наполовину записанного слота
+                    double value = i % 90;
+                    buffer.onAccepted(DroneDto.of("Model", value, value, 37.0, 100.0, "radar-1"), 1_000 + i);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        started.await();
+
+        for (int i = 0; i < 2_000; i++) {
+            for (RecentDetection detection : buffer.query("radar-1", 0, 64)) {
+                assertThat(detection.getSpeed()).isEqualTo(detection.getLatitude());
+            }
+        }
+        running.set(false);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+    }
+
+    @Test
+    void whenSensorsEvicted_thenIdsReusedForNewSensors() {
+        RecentDetectionsBuffer buffer = new RecentDetectionsBuffer(4L * RecentDetectionsBuffer.SLOT_BYTES, 6, meterRegistry);
+        // Различных устройств намного больше лимита, но в буфере одновременно не больше четырех
+        for (int i = 0; i < 100; i++) {
+            buffer.onAccepted(drone("radar-" + i, i), 1_000 + i);
+        }
+
+        assertThat(buffer.query("radar-99", 0, 100))
+                .extracting(RecentDetection::getDetectedBy)
+                .containsExactly("radar-99");
+        assertThat(buffer.query("radar-95", 0, 100)).isEmpty();
+        assertThat(buffer.query(null, 0, 100))
+                .extracting(RecentDetection::getDetectedBy)
+                .containsExactly("radar-99", "radar-98", "radar-97", "radar-96");
+        assertThat(meterRegistry.get("drone.recent.sensors").gauge().value()).isEqualTo(4);
+    }
+
+    private RecentDetectionsBuffer buffer(int capacity) {
+        return new RecentDetectionsBuffer((long) capacity * RecentDetectionsBuffer.SLOT_BYTES, 100, meterRegistry);
+    }
+
+    private static DroneDto drone(String detectedBy, double latitude) {
+        return DroneDto.of("Model", 10.0, latitude, 37.0, 100.0, detectedBy);
+    }
+}
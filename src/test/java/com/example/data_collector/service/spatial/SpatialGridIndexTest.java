@@ -0,0 +1,131 @@
+package com.example.data_collector.service.spatial;
+
+import com.example.data_collector.dto.DroneDto;
+import com.example.data_collector.dto.RecentDetection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpatialGridIndexTest {
+
+    private static final long MAX_AGE_MS = 60_000;
+
+    private final SpatialGridIndex index = new SpatialGridIndex(0.1, MAX_AGE_MS, 1000, new SimpleMeterRegistry());
+
+    @Test
+    void whenQueriedNearby_thenWithinRadiusOrderedByDistance() {
+        index.onAccepted(drone("radar-1", "A", 55.75, 37.62), 1_000);
+        index.onAccepted(drone("radar-1", "B", 55.80, 37.62), 1_000);
+        index.onAccepted(drone("radar-2", "C", 55.70, 37.50), 1_000);
+        index.onAccepted(drone("radar-2", "D", 59.93, 30.33), 1_000);
+
+        List<RecentDetection> result = index.nearby(55.75, 37.62, 20, 100, 2_000);
+
+        assertThat(result).extracting(RecentDetection::getModel).containsExactly("A", "B", "C");
+        assertThat(index.nearby(55.75, 37.62, 20, 2, 2_000)).extracting(RecentDetection::getModel)
+                .containsExactly("A", "B");
+    }
+
+    @Test
+    void whenLimitBelowMatches_thenNearestReturnedInOrder() {
+        SpatialGridIndex largeIndex = new SpatialGridIndex(0.1, MAX_AGE_MS, 10_000, new SimpleMeterRegistry());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<DroneDto> drones = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            DroneDto droneDto = drone("radar-" + i, "M", 55 + random.nextDouble(), 37 + random.nextDouble());
+            drones.add(droneDto);
+            largeIndex.onAccepted(droneDto, 1_000);
+        }
+
+        List<String> expected = drones.stream()
+                .filter(droneDto -> distanceKm(droneDto) <= 30)
+                .sorted(Comparator.comparingDouble(SpatialGridIndexTest::distanceKm))
+                .limit(50)
+                .map(DroneDto::getDetectedBy)
+                .toList();
+        assertThat(largeIndex.nearby(55.5, 37.5, 30, 50, 2_000)).extracting(RecentDetection::getDetectedBy)
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void whenTargetMoves_thenOnlyLatestPositionIndexed() {
+        index.onAccepted(drone("radar-1", "A", 55.75, 37.62), 1_000);
+        index.onAccepted(drone("radar-1", "A", 56.50, 38.00), 2_000);
+        // Запоздавшее более старое положение не должно вернуть цель назад
+        index.onAccepted(drone("radar-1", "A", 55.75, 37.62), 1_500);
+
+        assertThat(index.nearby(55.75, 37.62, 10, 100, 3_000)).isEmpty();
+        assertThat(index.within(56, 37, 57, 39, 100, 3_000)).singleElement()
+                .extracting(RecentDetection::getLatitude).isEqualTo(56.50);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.cellCount()).isEqualTo(1);
+    }
+
+    @Test
+    void whenBoxCrossesAntimeridian_thenBothSidesReturned() {
+        index.onAccepted(drone("radar-1", "A", 10, 179.95), 1_000);
+        index.onAccepted(drone("radar-1", "B", 10, -179.95), 1_000);
+        index.onAccepted(drone("radar-1", "C", 10, 0), 1_000);
+
+        assertThat(index.within(9, 179, 11, -179, 100, 2_000)).extracting(RecentDetection::getModel)
+                .containsExactlyInAnyOrder("A", "B");
+        assertThat(index.nearby(10, 180, 20, 100, 2_000)).extracting(RecentDetection::getModel)
+                .containsExactlyInAnyOrder("A", "B");
+    }
+
+    @Test
+    void whenExpired_thenHiddenAndEvicted() {
+        index.onAccepted(drone("radar-1", "A", 55.75, 37.62), 1_000);
+        index.onAccepted(drone("radar-1", "B", 55.75, 37.62), 50_000);
+
+        assertThat(index.within(55, 37, 56, 38, 100, 1_000 + MAX_AGE_MS + 1))
+                .extracting(RecentDetection::getModel).containsExactly("B");
+
+        index.evictExpired(1_000 + MAX_AGE_MS + 1);
+        assertThat(index.size()).isEqualTo(1);
+        index.evictExpired(50_000 + MAX_AGE_MS + 1);
+        assertThat(index.size()).isZero();
+        assertThat(index.cellCount()).isZero();
+    }
+
+    @Test
+    void whenUpdatedConcurrently_thenEachTargetIndexedOnce() throws Exception {
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            Thread writer = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    index.onAccepted(drone("radar-" + random.nextInt(50), "M",
+                            55 + random.nextDouble(), 37 + random.nextDouble()), 1_000 + i);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertThat(index.size()).isEqualTo(50);
+        assertThat(index.within(54, 36, 57, 39, 1000, 30_000)).hasSize(50);
+    }
+
+    private static double distanceKm(DroneDto droneDto) {
+        double latitude1 = Math.toRadians(55.5);
+        double latitude2 = Math.toRadians(droneDto.latitudeValue());
+        double sinLatitude = Math.sin((latitude2 - latitude1) / 2);
+        double sinLongitude = Math.sin(Math.toRadians(droneDto.longitudeValue() - 37.5) / 2);
+        double a = sinLatitude * sinLatitude + Math.cos(latitude1) * Math.cos(latitude2) * sinLongitude * sinLongitude;
+        return 2 * SpatialGridIndex.EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    private static DroneDto drone(String detectedBy, String model, double latitude, double longitude) {
+        return DroneDto.of(model, 100.0, latitude, longitude, 500.0, detectedBy);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.data_collector.validation;
+
+import com.example.data_collector.dto.DroneDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сверяет быстрый валидатор с Hibernate Validator на граничных и случайных значениях.
+ */
+class DroneDtoValidatorTest {
+
+    private static final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    private static final Double[] NUMBERS = {
+            null, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -Double.MIN_VALUE, Double.MIN_VALUE,
+            -180.0000001, -180.0, -90.0000001, -90.0, -0.0, 0.0, 1.0, 89.9999999, 90.0, 90.0000001,
+            179.9999999, 180.0, 180.0000001, 599.9999, 600.0, 600.0000001, 9_999.99, 10_000.0, 10_000.0001
+    };
+
+    private static final String[] STRINGS = {null, "", " ", "\t\n", " ", "Model", " x "};
+
+    private final Validator beanValidator = validatorFactory.getValidator();
+
+    private final DroneDtoValidator validator = new DroneDtoValidator();
+
+    @AfterAll
+    static void close() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void whenValid_thenNoErrorsAndSharedEmptyList() {
+        DroneDto droneDto = DroneDto.of("Model", 600.0, 90.0, -180.0, 10_000.0, "radar-1");
+
+        assertThat(validator.validate(droneDto)).isSameAs(List.of());
+    }
+
+    @Test
+    void whenBoundaryValues_thenSameMessagesAsBeanValidation() {
+        for (Double number : NUMBERS) {
+            for (String text : STRINGS) {
+                assertSameMessages(drone(text, number, number, number, number, text));
+                assertSameMessages(drone("Model", number, 10.0, 10.0, 10.0, "radar-1"));
+                assertSameMessages(drone("Model", 10.0, number, 10.0, 10.0, "radar-1"));
+                assertSameMessages(drone("Model", 10.0, 10.0, number, 10.0, "radar-1"));
+                assertSameMessages(drone("Model", 10.0, 10.0, 10.0, number, "radar-1"));
+            }
+        }
+    }
+
+    @Test
+    void whenRandomValues_thenSameMessagesAsBeanValidation() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertSameMessages(drone(
+                    STRINGS[random.nextInt(STRINGS.length)],
+                    randomNumber(random),
+                    randomNumber(random),
+                    randomNumber(random),
+                    randomNumber(random),
+                    STRINGS[random.nextInt(STRINGS.length)]));
+        }
+    }
+
+    private void assertSameMessages(DroneDto droneDto) {
+        List<String> expected = beanValidator.validate(droneDto).stream()
+                .map(ConstraintViolation::getMessage)
+                .toList();
+
+        assertThat(validator.validate(droneDto)).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    private static Double randomNumber(Random random) {
+        if (random.nextInt(10) == 0) {
+            return NUMBERS[random.nextInt(NUMBERS.length)];
+        }
+        return random.nextDouble(-20_000, 20_000);
+    }
+
+    private static DroneDto drone(String model, Double speed, Double latitude, Double longitude,
+                                  Double flightAltitude, String detectedBy) {
+        DroneDto droneDto = new DroneDto();
+        droneDto.setModel(model);
+        droneDto.setSpeed(speed);
+        droneDto.setLatitude(latitude);
+        droneDto.setLongitude(longitude);
+        droneDto.setFlightAltitude(flightAltitude);
+        droneDto.setDetectedBy(detectedBy);
+        return droneDto;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.data_collector.web;
+
+import com.example.data_collector.exception.UnsupportedContentEncodingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RequestDecompressionFilterTest {
+
+    private static final String BODY = "{\"model\":\"Model\",\"detectedBy\":\"radar-1\"}\n";
+
+    private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+
+    private final RequestDecompressionFilter filter =
+            new RequestDecompressionFilter(4096, exceptionResolver, new SimpleMeterRegistry());
+
+    @Test
+    void whenBodyReadWithReadListener_thenDecompressedAfterAllDataArrives() throws Exception {
+        NonBlockingInputStream compressed = new NonBlockingInputStream(gzip(BODY));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        filter.doFilter(request("gzip", compressed, true), new MockHttpServletResponse(), (request, response) -> {
+            ServletInputStream body = request.getInputStream();
+            body.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[16];
+                    while (body.isReady() && !body.isFinished()) {
+                        int read = body.read(chunk);
+                        if (read > 0) {
+                            received.write(chunk, 0, read);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    throw new AssertionError(throwable);
+                }
+            });
+            // До поступления всего сжатого тела распакованных данных нет
+            assertThat(body.isReady()).isFalse();
+        });
+
+        // Контейнер сообщает о данных по частям
+        compressed.deliver(10);
+        compressed.deliver(Integer.MAX_VALUE);
+        assertThat(allDataRead).isFalse();
+        compressed.listener.onAllDataRead();
+
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+        assertThat(allDataRead).isTrue();
+    }
+
+    @Test
+    void whenEncodingUnsupported_thenRejectedBeforeHandler() throws Exception {
+        AtomicBoolean handled = new AtomicBoolean();
+
+        filter.doFilter(request("br", new NonBlockingInputStream(new byte[0]), false), new MockHttpServletResponse(),
+                (request, response) -> handled.set(true));
+
+        assertThat(handled).isFalse();
+        verify(exceptionResolver).resolveException(any(), any(), any(),
+                any(UnsupportedContentEncodingException.class));
+    }
+
+    private static HttpServletRequest request(String encoding, ServletInputStream body, boolean async) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/drones/batch");
+        request.setAsyncSupported(async);
+        request.setAsyncStarted(async);
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        return new HttpServletRequestWrapper(request) {
+            @Override
+            public ServletInputStream getInputStream() {
+                return body;
+            }
+        };
+    }
+
+    private static byte[] gzip(String data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Тело запроса в неблокирующем режиме: данные становятся доступны порциями по вызову {@link #deliver}.
+     */
+    private static final class NonBlockingInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream data;
+
+        private int available;
+
+        private ReadListener listener;
+
+        private NonBlockingInputStream(byte[] data) {
+            this.data = new ByteArrayInputStream(data);
+        }
+
+        void deliver(int bytes) throws IOException {
+            available = (int) Math.min((long) available + bytes, data.available());
+            listener.onDataAvailable();
+        }
+
+        @Override
+        public int read() {
+            if (available == 0) {
+                throw new IllegalStateException("Чтение без готовых данных");
+            }
+            available--;
+            return data.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (data.available() == 0) {
+                return -1;
+            }
+            if (available == 0) {
+                throw new IllegalStateException("Чтение без готовых данных");
+            }
+            int read = data.read(buffer, offset, Math.min(length, available));
+            available -= read;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return data.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return available > 0;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.listener = readListener;
+        }
+    }
+}